@@ -0,0 +1,75 @@
+package com.firesnake;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Bullet collision and target placement checks on crowded seeded boards. The bullets fly
+// along the top border row, where nothing can be hit, so checkBulletCollisions always tests
+// every target (its worst case) and leaves the board unchanged.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class CollisionBenchmark {
+    static final long SEED = 42;
+    static final int PROBES = 1024; // Power of two
+
+    @Param({"20", "60", "120"})
+    int targets;
+
+    @Param({"100", "600"})
+    int snakeLength;
+
+    FireSnakeGame game;
+    FireSnakeGame.Bullet[] bullets = new FireSnakeGame.Bullet[PROBES];
+    int[] positionX = new int[PROBES];
+    int[] positionY = new int[PROBES];
+    int[] sizes = new int[PROBES];
+    int next;
+
+    @Setup(Level.Trial)
+    public void layOutBoard() {
+        game = new FireSnakeGame(SEED, true);
+        game.layOutBoard(snakeLength, targets);
+        Random random = new Random(SEED);
+        int columns = FireSnakeGame.GAME_WIDTH / FireSnakeGame.BLOCK_SIZE;
+        int rows = FireSnakeGame.GAME_HEIGHT / FireSnakeGame.BLOCK_SIZE;
+        for (int i = 0; i < PROBES; i++) {
+            float x = random.nextInt(FireSnakeGame.GAME_WIDTH);
+            bullets[i] = game.new Bullet(x, FireSnakeGame.BLOCK_SIZE / 2f, random.nextBoolean() ? 1 : -1, 0);
+            positionX[i] = random.nextInt(columns) * FireSnakeGame.BLOCK_SIZE;
+            positionY[i] = random.nextInt(rows) * FireSnakeGame.BLOCK_SIZE;
+            sizes[i] = 1 + random.nextInt(3);
+        }
+    }
+
+    @Benchmark
+    public boolean checkBulletCollisions() {
+        int i = next++ & (PROBES - 1);
+        return game.checkBulletCollisions(bullets[i], i);
+    }
+
+    @Benchmark
+    public boolean checkLineCollision() {
+        int i = next++ & (PROBES - 1);
+        return game.checkLineCollision(bullets[i], positionX[i], positionY[i], sizes[i] * FireSnakeGame.BLOCK_SIZE);
+    }
+
+    @Benchmark
+    public boolean isValidTargetPosition() {
+        int i = next++ & (PROBES - 1);
+        return game.isValidTargetPosition(positionX[i], positionY[i], sizes[i]);
+    }
+
+    @Benchmark
+    public void sweepBullets(Blackhole blackhole) {
+        for (int i = 0; i < PROBES; i += 64) {
+            blackhole.consume(game.checkBulletCollisions(bullets[i], i));
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.firesnake;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Lockstep steps of a GameBatch with 1 to 8 stepping threads, to see how batch throughput
+// scales with cores. Actions are random (mostly no-op, some turns and shots) from a fixed
+// seed; finished games restart inside the step as they would in training. Results are
+// batch steps per second; multiply by envs for game ticks.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class GameBatchBenchmark {
+    static final long SEED = 42;
+
+    @Param({"64", "256"})
+    int envs;
+
+    @Param({"1", "2", "4", "8"})
+    int threads;
+
+    GameBatch batch;
+    int[] actions;
+    SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void createBatch() {
+        batch = new GameBatch(envs, threads);
+        batch.reset(SEED);
+        actions = new int[envs];
+        random = new SplittableRandom(SEED);
+    }
+
+    @TearDown(Level.Trial)
+    public void closeBatch() {
+        batch.close();
+    }
+
+    @Benchmark
+    public void step() {
+        for (int i = 0; i < actions.length; i++) {
+            actions[i] = random.nextInt(8) < 6 ? GameBatch.NOOP : random.nextInt(GameBatch.ACTIONS);
+        }
+        batch.step(actions);
+    }
+}
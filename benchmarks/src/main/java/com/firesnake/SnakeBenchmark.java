@@ -0,0 +1,49 @@
+package com.firesnake;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Snake growth and shrink on seeded boards. grow runs the ticks after a big target was shot
+// (a segment is added per move and none dropped); shrink halves the snake like a shrink
+// target hit. Both change the snake, so it is laid out again before every invocation (not
+// measured).
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class SnakeBenchmark {
+    static final long SEED = 42;
+    static final int GROWTH = 32;
+
+    @Param({"100", "500", "1100"})
+    int snakeLength;
+
+    FireSnakeGame game;
+
+    @Setup(Level.Trial)
+    public void createGame() {
+        game = new FireSnakeGame(SEED, true);
+    }
+
+    @Setup(Level.Invocation)
+    public void layOutBoard() {
+        game.layOutBoard(snakeLength, 0);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GROWTH)
+    public void grow() {
+        game.growSnake(GROWTH);
+        for (int i = 0; i < GROWTH; i++) {
+            game.tick();
+        }
+    }
+
+    @Benchmark
+    public void shrink() {
+        game.shrinkSnake();
+    }
+}
@@ -0,0 +1,65 @@
+package com.firesnake;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Placing things on crowded seeded boards: a spawn wave of 1-12 targets (up to 50 rejection
+// sampled placements each), and food on a board the snake nearly fills.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class SpawnBenchmark {
+    static final long SEED = 42;
+
+    // The wave adds targets, so the board is laid out again before each one (not measured)
+    @State(Scope.Thread)
+    public static class Wave {
+        @Param({"100", "600"})
+        int snakeLength;
+
+        @Param({"20", "60", "120"})
+        int targets;
+
+        FireSnakeGame game;
+
+        @Setup(Level.Trial)
+        public void createGame() {
+            game = new FireSnakeGame(SEED, true);
+        }
+
+        @Setup(Level.Invocation)
+        public void layOutBoard() {
+            game.layOutBoard(snakeLength, targets);
+        }
+    }
+
+    // Food placement only moves the food, so one board serves the whole trial. 1121 segments
+    // fill every row but the second and the top border.
+    @State(Scope.Thread)
+    public static class FullBoard {
+        @Param({"600", "1000", "1121"})
+        int snakeLength;
+
+        FireSnakeGame game;
+
+        @Setup(Level.Trial)
+        public void layOutBoard() {
+            game = new FireSnakeGame(SEED, true);
+            game.layOutBoard(snakeLength, 0);
+        }
+    }
+
+    @Benchmark
+    public int spawnTargets(Wave wave) {
+        wave.game.spawnTargets();
+        return wave.game.targetCount();
+    }
+
+    @Benchmark
+    public void spawnFood(FullBoard board) {
+        board.game.spawnFood();
+    }
+}
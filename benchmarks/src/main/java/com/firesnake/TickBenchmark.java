@@ -0,0 +1,46 @@
+package com.firesnake;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// A full game tick on seeded boards of various snake lengths and target counts. Every
+// invocation lays the board out again (not measured) and runs one short episode of ticks:
+// the snake crosses the empty second row while the targets are still in their harmless
+// spawn delay, so every tick does the complete work of a running game. Results are per tick.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class TickBenchmark {
+    static final long SEED = 42;
+    static final int EPISODE_TICKS = 32;
+
+    @Param({"4", "100", "600"})
+    int snakeLength;
+
+    @Param({"0", "20", "60"})
+    int targets;
+
+    FireSnakeGame game;
+
+    @Setup(Level.Trial)
+    public void createGame() {
+        game = new FireSnakeGame(SEED, true);
+    }
+
+    @Setup(Level.Invocation)
+    public void layOutBoard() {
+        game.layOutBoard(snakeLength, targets);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EPISODE_TICKS)
+    public void tick() {
+        for (int i = 0; i < EPISODE_TICKS; i++) {
+            game.tick();
+        }
+    }
+}
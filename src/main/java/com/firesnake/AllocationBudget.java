@@ -0,0 +1,181 @@
+package com.firesnake;
+
+import java.awt.Graphics2D;
+import java.awt.event.KeyEvent;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+// Allocation budget check: runs the game tick and the render path headlessly for thousands
+// of ticks in scripted scenarios and measures the bytes each tick allocates on the calling
+// thread (ThreadMXBean.getThreadAllocatedBytes), i.e. the tick itself, building the display
+// list and rendering a frame. Ticks are measured after a warm-up so the JIT has compiled
+// (and escape analysis has removed) what it can. Re-laying a board between episodes is not
+// measured. The simulation (tick plus scripted input) and rendering (display list plus
+// frame) have separate budgets: the tick is meant to be garbage-free, while Java2D itself
+// allocates while drawing. Prints a table per scenario and exits with status 1 if any mean
+// exceeds its budget, so steady-state garbage can be locked in and regressions caught.
+//
+// Usage: AllocationBudget [--ticks N] [--warmup N] [--budget <scenario>.<tick|render>=<bytes per tick>]...
+class AllocationBudget {
+    private static final long SEED = 42;
+    private static final int EPISODE_TICKS = 36; // The fixture's targets are harmless this long
+
+    // Default budgets are the measured means with some headroom
+    enum Scenario {
+        // Start screen: stars and the baked start layer
+        IDLE_MENU(64, 32_768),
+        // 600 segments crossing the board
+        LONG_SNAKE(64, 2_560_000),
+        // A spawn wave every 6 ticks on a board with a 100 segment snake
+        SPAWN_WAVES(1_024, 512_000),
+        // Space held with 60 targets on the board: bullets, hits and explosion particles
+        AUTO_FIRE(1_024, 512_000);
+
+        final long tickBudget;
+        final long renderBudget;
+
+        Scenario(long tickBudget, long renderBudget) {
+            this.tickBudget = tickBudget;
+            this.renderBudget = renderBudget;
+        }
+
+        // Lay out the board for a new episode (not measured)
+        void layOut(FireSnakeGame game) {
+            switch (this) {
+                case IDLE_MENU: break;
+                case LONG_SNAKE: game.layOutBoard(600, 0); break;
+                case SPAWN_WAVES: game.layOutBoard(100, 0); break;
+                case AUTO_FIRE:
+                    game.layOutBoard(4, 60);
+                    game.handleKeyPress(KeyEvent.VK_SPACE);
+                    break;
+            }
+        }
+
+        // Scripted work of one tick besides the tick itself (measured)
+        void drive(FireSnakeGame game, int episodeTick) {
+            if (this == SPAWN_WAVES && episodeTick % 6 == 0) {
+                game.spawnTargets();
+            }
+        }
+    }
+
+    // Allocation of one scenario run
+    static final class Result {
+        final Scenario scenario;
+        long ticks;
+        long tickBytes;     // Tick and scripted work
+        long renderBytes;   // Display list and frame
+        long maxTickBytes;  // Worst single tick
+        long maxRenderBytes;
+
+        Result(Scenario scenario) {
+            this.scenario = scenario;
+        }
+
+        double tickBytesPerTick() {
+            return ticks == 0 ? 0 : tickBytes / (double) ticks;
+        }
+
+        double renderBytesPerTick() {
+            return ticks == 0 ? 0 : renderBytes / (double) ticks;
+        }
+    }
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final int ticks;
+    private final int warmup;
+
+    AllocationBudget(int ticks, int warmup) {
+        this.ticks = ticks;
+        this.warmup = warmup;
+    }
+
+    Result run(Scenario scenario) {
+        FireSnakeGame game = new FireSnakeGame(SEED, true);
+        DisplayList dl = new DisplayList();
+        FireSnakeGame.FrameRenderer renderer = new FireSnakeGame.FrameRenderer();
+        BufferedImage frame = new BufferedImage(1020, 600, BufferedImage.TYPE_INT_RGB);
+        long threadId = Thread.currentThread().threadId();
+        Result result = new Result(scenario);
+
+        int episodeTick = EPISODE_TICKS;
+        for (int i = 0; i < warmup + ticks; i++) {
+            if (episodeTick == EPISODE_TICKS || game.isGameOver()) {
+                scenario.layOut(game);
+                episodeTick = 0;
+            }
+            long start = threads.getThreadAllocatedBytes(threadId);
+            scenario.drive(game, episodeTick);
+            game.tick();
+            long ticked = threads.getThreadAllocatedBytes(threadId);
+            game.buildDisplayList(dl);
+            Graphics2D g2d = frame.createGraphics();
+            renderer.render(g2d, dl, frame.getWidth(), frame.getHeight());
+            g2d.dispose();
+            long rendered = threads.getThreadAllocatedBytes(threadId);
+            episodeTick++;
+
+            if (i >= warmup) {
+                result.ticks++;
+                result.tickBytes += ticked - start;
+                result.renderBytes += rendered - ticked;
+                result.maxTickBytes = Math.max(result.maxTickBytes, ticked - start);
+                result.maxRenderBytes = Math.max(result.maxRenderBytes, rendered - ticked);
+            }
+        }
+        return result;
+    }
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        int ticks = 3000;
+        int warmup = 2000;
+        Map<Scenario, Long> tickBudgets = new EnumMap<>(Scenario.class);
+        Map<Scenario, Long> renderBudgets = new EnumMap<>(Scenario.class);
+        for (Scenario scenario : Scenario.values()) {
+            tickBudgets.put(scenario, scenario.tickBudget);
+            renderBudgets.put(scenario, scenario.renderBudget);
+        }
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--ticks": ticks = Integer.parseInt(args[i + 1]); break;
+                case "--warmup": warmup = Integer.parseInt(args[i + 1]); break;
+                case "--budget": {
+                    // <scenario>.<tick|render>=<bytes>
+                    String[] budget = args[i + 1].toUpperCase(Locale.ROOT).split("[.=]");
+                    if (budget.length != 3 || !(budget[1].equals("TICK") || budget[1].equals("RENDER"))) {
+                        throw new IllegalArgumentException("Expected <scenario>.<tick|render>=<bytes>: " + args[i + 1]);
+                    }
+                    Scenario scenario = Scenario.valueOf(budget[0]);
+                    (budget[1].equals("TICK") ? tickBudgets : renderBudgets).put(scenario, Long.parseLong(budget[2]));
+                    break;
+                }
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        AllocationBudget check = new AllocationBudget(ticks, warmup);
+        boolean failed = false;
+        System.out.println("Bytes allocated per tick (mean over " + ticks + " ticks after " + warmup + " warm-up ticks)");
+        System.out.printf("%-12s %-7s %12s %12s %12s  %s%n", "scenario", "path", "mean", "max", "budget", "result");
+        for (Scenario scenario : Scenario.values()) {
+            Result r = check.run(scenario);
+            failed |= report(scenario, "tick", r.tickBytesPerTick(), r.maxTickBytes, tickBudgets.get(scenario));
+            failed |= report(scenario, "render", r.renderBytesPerTick(), r.maxRenderBytes, renderBudgets.get(scenario));
+        }
+        System.exit(failed ? 1 : 0);
+    }
+
+    // Print one row; true if the mean is over budget
+    private static boolean report(Scenario scenario, String path, double mean, long max, long budget) {
+        boolean over = mean > budget;
+        System.out.printf("%-12s %-7s %12.1f %12d %12d  %s%n", scenario.name().toLowerCase(Locale.ROOT), path,
+                mean, max, budget, over ? "OVER BUDGET" : "ok");
+        return over;
+    }
+}
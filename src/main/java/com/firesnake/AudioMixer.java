@@ -0,0 +1,397 @@
+package com.firesnake;
+
+import javax.sound.sampled.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Software mixer for sound effects and music: one long-lived thread owns one open
+// SourceDataLine and mixes a fixed pool of voices plus the music stream into small blocks.
+// Game code only enqueues play requests through a bounded lock-free queue, so triggering a
+// sound costs the same no matter how many are already playing, and no threads or lines are
+// created per effect.
+//
+// The output format is negotiated with the sound devices (forDevice): the mixer picks a
+// rate and sample size the default device (or failing that, another device) supports, and
+// all sounds and music are synthesized at that rate (getSampleRate), so Java Sound never
+// has to resample or convert.
+//
+// Each voice has its own playback rate and gain, so one immutable sample buffer can be
+// played with per-play pitch and volume variation (linear interpolation between samples).
+//
+// When all voices are busy a new sound steals the voice with the lowest priority (the one
+// closest to its end among equals); a request with lower priority than every playing voice
+// is dropped.
+//
+// Trigger-to-output latency, underruns and line failures are recorded in the AudioStats the
+// mixer is created with (getStats()).
+class AudioMixer {
+    static final int VOICES = 16;
+    static final int BLOCK_FRAMES = 256;       // ~5.3 ms per mixed block at 48 kHz
+    // Line buffer size in blocks (output latency); tune with the latencies in AudioStats
+    private static final int LINE_BLOCKS = Math.max(2, Integer.getInteger("firesnake.audioBufferBlocks", 4));
+    private static final int QUEUE_SIZE = 64;  // Must be a power of two
+
+    // Output formats in order of preference: 16-bit before the 8-bit fallback, then the
+    // usual native rates, then mono before stereo (stereo gets the same signal on both sides)
+    private static final int[] PREFERRED_BITS = {16, 8};
+    private static final float[] PREFERRED_RATES = {48000, 44100};
+    private static final int[] PREFERRED_CHANNELS = {1, 2};
+
+    // Offline rendering (no device): 16-bit little-endian mono
+    static final AudioFormat OFFLINE_FORMAT = new AudioFormat(48000, 16, 1, true, false);
+
+    private final AudioFormat format;
+    private final Mixer.Info device; // Device whose line is opened (null = Java Sound's default)
+    private final int sampleRate;
+    private final int frameSize;
+
+    // Play request queue (multi-producer, mixer thread consumes). Slot i is free for the
+    // producer claiming ticket t when sequence[i] == t, and readable once it is t + 1.
+    private final AtomicLong queueTail = new AtomicLong();
+    private final AtomicLongArray queueSequence = new AtomicLongArray(QUEUE_SIZE);
+    private final short[][] queueSound = new short[QUEUE_SIZE][];
+    private final int[] queuePriority = new int[QUEUE_SIZE];
+    private final float[] queuePitch = new float[QUEUE_SIZE];
+    private final float[] queueVolume = new float[QUEUE_SIZE];
+    private final long[] queueTime = new long[QUEUE_SIZE]; // System.nanoTime() of the trigger
+    private long queueHead = 0; // Mixer thread only
+
+    // Voice pool (mixer thread only)
+    private final short[][] voiceSound = new short[VOICES][];
+    private final long[] voicePosition = new long[VOICES]; // 48.16 fixed point sample index
+    private final long[] voiceStep = new long[VOICES];     // Position increment per output frame
+    private final int[] voiceGain = new int[VOICES];       // 256 = unity
+    private final int[] voicePriority = new int[VOICES];
+
+    // Trigger times of the voices started in the block being mixed (mixer thread only)
+    private final long[] startedTimes = new long[QUEUE_SIZE];
+    private int startedCount = 0;
+    private long framesWritten = 0;
+
+    private final AudioStats stats;
+
+    private final int[] mixBuffer = new int[BLOCK_FRAMES];
+    private final byte[] outputBuffer;
+
+    private volatile MusicStream music;
+    private volatile boolean running = false;
+
+    private AudioMixer(AudioFormat format, Mixer.Info device, AudioStats stats) {
+        this.format = format;
+        this.device = device;
+        this.stats = stats;
+        sampleRate = (int) format.getSampleRate();
+        frameSize = format.getFrameSize();
+        outputBuffer = new byte[BLOCK_FRAMES * frameSize];
+        for (int i = 0; i < QUEUE_SIZE; i++) {
+            queueSequence.set(i, i);
+        }
+    }
+
+    // Mixer for the first preferred format the default device opens; only when it opens none
+    // of them is the first one another device lists as native used instead. Falls back to
+    // 44.1 kHz 16-bit mono on the default device (converted by Java Sound if necessary) when
+    // nothing matches.
+    static AudioMixer forDevice(AudioStats stats) {
+        try {
+            List<AudioFormat> candidates = preferredFormats();
+            for (AudioFormat candidate : candidates) {
+                if (defaultDeviceOpens(candidate)) {
+                    return new AudioMixer(candidate, null, stats);
+                }
+            }
+            Mixer.Info[] devices = AudioSystem.getMixerInfo();
+            for (AudioFormat candidate : candidates) {
+                for (Mixer.Info device : devices) {
+                    if (supportsNatively(AudioSystem.getMixer(device), candidate)) {
+                        return new AudioMixer(candidate, device, stats);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            // No usable audio system: use the fallback, whose line open will fail and be counted
+            stats.deviceProbeFailures++;
+        }
+        return new AudioMixer(new AudioFormat(44100, 16, 1, true, false), null, stats);
+    }
+
+    private static List<AudioFormat> preferredFormats() {
+        List<AudioFormat> formats = new ArrayList<>();
+        for (int bits : PREFERRED_BITS) {
+            for (float rate : PREFERRED_RATES) {
+                for (int channels : PREFERRED_CHANNELS) {
+                    for (boolean bigEndian : new boolean[] {false, true}) {
+                        for (boolean signed : new boolean[] {true, false}) {
+                            formats.add(new AudioFormat(rate, bits, channels, signed, bigEndian));
+                        }
+                    }
+                }
+            }
+        }
+        return formats;
+    }
+
+    // Whether the default device has a line for the format that actually opens (closed again
+    // right away; the mixer thread opens its own)
+    private static boolean defaultDeviceOpens(AudioFormat format) {
+        try {
+            SourceDataLine line = AudioSystem.getSourceDataLine(format);
+            line.open(format);
+            line.close();
+            return true;
+        } catch (LineUnavailableException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    static AudioMixer offline(AudioStats stats) {
+        return new AudioMixer(OFFLINE_FORMAT, null, stats);
+    }
+
+    // Whether one of the device's source line formats matches without conversion (a listed
+    // format with an unspecified rate accepts any rate)
+    private static boolean supportsNatively(Mixer mixer, AudioFormat candidate) {
+        for (Line.Info info : mixer.getSourceLineInfo()) {
+            if (info instanceof DataLine.Info && SourceDataLine.class.isAssignableFrom(info.getLineClass())) {
+                for (AudioFormat supported : ((DataLine.Info) info).getFormats()) {
+                    if (candidate.matches(supported)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    int getSampleRate() {
+        return sampleRate;
+    }
+
+    AudioFormat getFormat() {
+        return format;
+    }
+
+    void start() {
+        if (running) return;
+        running = true;
+        Thread thread = new Thread(this::run, "audio-mixer");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MAX_PRIORITY);
+        thread.start();
+    }
+
+    AudioStats getStats() {
+        return stats;
+    }
+
+    // The music stream mixed under the effects (rendered ahead on its own thread)
+    void setMusic(MusicStream music) {
+        this.music = music;
+    }
+
+    // Queue a mono 16-bit sound at getSampleRate(). pitch scales the playback rate (1 = as
+    // recorded), volume the amplitude. Safe to call from any thread; never blocks.
+    // Returns false if the queue is full (the sound is dropped).
+    boolean play(short[] sound, int priority, float pitch, float volume) {
+        long ticket;
+        int slot;
+        while (true) {
+            ticket = queueTail.get();
+            slot = (int) ticket & (QUEUE_SIZE - 1);
+            long available = queueSequence.get(slot) - ticket;
+            if (available == 0) {
+                if (queueTail.compareAndSet(ticket, ticket + 1)) break;
+            } else if (available < 0) {
+                stats.droppedSounds++;
+                return false;
+            }
+        }
+        queueSound[slot] = sound;
+        queuePriority[slot] = priority;
+        queuePitch[slot] = pitch;
+        queueVolume[slot] = volume;
+        queueTime[slot] = System.nanoTime();
+        queueSequence.lazySet(slot, ticket + 1);
+        return true;
+    }
+
+    // Offline rendering without a line (the mixer must not be started): mix the next
+    // BLOCK_FRAMES exactly as the mixer thread would and return them in the mixer's format
+    // (16-bit little-endian mono for offline()). The array is reused by the next call.
+    byte[] renderOffline() {
+        MusicStream music = this.music;
+        if (music != null) {
+            music.renderAhead();
+        }
+        takeRequests();
+        startedCount = 0; // Latencies are only measured live
+        mixBlock();
+        return outputBuffer;
+    }
+
+    private void run() {
+        SourceDataLine line;
+        stats.sampleRate = sampleRate;
+        stats.sampleBits = format.getSampleSizeInBits();
+        try {
+            DataLine.Info info = new DataLine.Info(SourceDataLine.class, format);
+            line = (SourceDataLine) (device != null ? AudioSystem.getMixer(device).getLine(info) : AudioSystem.getLine(info));
+            line.open(format, outputBuffer.length * LINE_BLOCKS);
+            line.start();
+        } catch (Exception e) {
+            // No audio device: requests just pile up in the queue and get dropped
+            stats.lineOpenFailures++;
+            running = false;
+            return;
+        }
+        stats.lineBufferFrames = line.getBufferSize() / frameSize;
+
+        try {
+            boolean primed = false;
+            while (running) {
+                takeRequests();
+                mixBlock();
+                if (primed && line.available() >= line.getBufferSize()) {
+                    stats.lineUnderruns++;
+                }
+                // Blocks while the line buffer is full, which paces the loop to real time
+                line.write(outputBuffer, 0, outputBuffer.length);
+                primed = true;
+                recordLatencies(line);
+            }
+        } catch (Exception e) {
+            // Playback stops; counted so it shows up in the stats
+            stats.lineErrors++;
+        } finally {
+            line.close();
+        }
+    }
+
+    // Takes at most one queue's worth per block: producers can refill slots while we drain,
+    // and anything beyond that waits for the next block rather than overflowing startedTimes
+    private void takeRequests() {
+        for (int taken = 0; taken < QUEUE_SIZE; taken++) {
+            int slot = (int) queueHead & (QUEUE_SIZE - 1);
+            if (queueSequence.get(slot) != queueHead + 1) return;
+            short[] sound = queueSound[slot];
+            int priority = queuePriority[slot];
+            float pitch = queuePitch[slot];
+            float volume = queueVolume[slot];
+            long time = queueTime[slot];
+            queueSound[slot] = null;
+            queueSequence.lazySet(slot, queueHead + QUEUE_SIZE);
+            queueHead++;
+            if (startVoice(sound, priority, pitch, volume)) {
+                startedTimes[startedCount++] = time;
+            }
+        }
+    }
+
+    // The block just written holds the first samples of the voices started for it: they
+    // are queued now and play once the line's frame position reaches the block's start
+    private void recordLatencies(SourceDataLine line) {
+        long blockStart = framesWritten;
+        framesWritten += BLOCK_FRAMES;
+        if (startedCount == 0) return;
+        long now = System.nanoTime();
+        long framesAhead = Math.max(0, blockStart - line.getLongFramePosition());
+        long playTime = now + framesAhead * 1_000_000_000L / sampleRate;
+        for (int i = 0; i < startedCount; i++) {
+            stats.queueLatency.recordNanos(now - startedTimes[i]);
+            stats.playLatency.recordNanos(playTime - startedTimes[i]);
+        }
+        startedCount = 0;
+    }
+
+    private boolean startVoice(short[] sound, int priority, float pitch, float volume) {
+        int target = -1;
+        long remainingOfTarget = Long.MAX_VALUE;
+        for (int v = 0; v < VOICES; v++) {
+            if (voiceSound[v] == null) {
+                target = v;
+                break;
+            }
+            // Steal candidate: lowest priority, then least left to play
+            long remaining = (((long) voiceSound[v].length << 16) - voicePosition[v]) / voiceStep[v];
+            if (voicePriority[v] <= priority
+                    && (target < 0 || voicePriority[v] < voicePriority[target]
+                        || (voicePriority[v] == voicePriority[target] && remaining < remainingOfTarget))) {
+                target = v;
+                remainingOfTarget = remaining;
+            }
+        }
+        if (target < 0) return false;
+        voiceSound[target] = sound;
+        voicePosition[target] = 0;
+        voiceStep[target] = Math.max(1, Math.round(pitch * 65536.0));
+        voiceGain[target] = Math.round(volume * 256);
+        voicePriority[target] = priority;
+        return true;
+    }
+
+    private void mixBlock() {
+        int[] mix = mixBuffer;
+        Arrays.fill(mix, 0);
+        MusicStream music = this.music;
+        if (music != null && !music.mixInto(mix, BLOCK_FRAMES)) {
+            stats.musicUnderruns++;
+        }
+        int active = 0;
+        for (int v = 0; v < VOICES; v++) {
+            short[] sound = voiceSound[v];
+            if (sound == null) continue;
+            active++;
+            long position = voicePosition[v];
+            long step = voiceStep[v];
+            int gain = voiceGain[v];
+            long end = (long) sound.length << 16;
+            int last = sound.length - 1;
+            for (int i = 0; i < BLOCK_FRAMES && position < end; i++) {
+                int index = (int) (position >> 16);
+                int a = sound[index];
+                int b = index < last ? sound[index + 1] : 0;
+                int sample = a + (int) ((b - a) * (position & 0xFFFF) >> 16);
+                mix[i] += sample * gain >> 8;
+                position += step;
+            }
+            if (position >= end) {
+                voiceSound[v] = null;
+            } else {
+                voicePosition[v] = position;
+            }
+        }
+        stats.activeVoices = active;
+
+        encode(mix, outputBuffer);
+    }
+
+    // Convert the mixed block to the line's format: clip to 16 bits, then reduce to 8 bits
+    // or duplicate into both channels as needed
+    private void encode(int[] mix, byte[] out) {
+        int channels = format.getChannels();
+        if (format.getSampleSizeInBits() == 16) {
+            boolean bigEndian = format.isBigEndian();
+            for (int i = 0, j = 0; i < BLOCK_FRAMES; i++) {
+                int sample = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, mix[i]));
+                byte low = (byte) sample;
+                byte high = (byte) (sample >> 8);
+                for (int c = 0; c < channels; c++) {
+                    out[j++] = bigEndian ? high : low;
+                    out[j++] = bigEndian ? low : high;
+                }
+            }
+        } else {
+            int offset = format.getEncoding() == AudioFormat.Encoding.PCM_UNSIGNED ? 128 : 0;
+            for (int i = 0, j = 0; i < BLOCK_FRAMES; i++) {
+                int sample = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, mix[i]));
+                byte value = (byte) ((sample >> 8) + offset);
+                for (int c = 0; c < channels; c++) {
+                    out[j++] = value;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.firesnake;
+
+// AudioMonitorMXBean over the mixer's AudioStats. As in GameMonitor, resetting only moves
+// the baselines kept here; the mixer thread stays the single writer of its counters.
+final class AudioMonitor implements AudioMonitorMXBean {
+    private final AudioStats stats;
+
+    private volatile long lineUnderrunsBase = 0;
+    private volatile long musicUnderrunsBase = 0;
+    private volatile long lineOpenFailuresBase = 0;
+    private volatile long lineErrorsBase = 0;
+    private volatile long droppedSoundsBase = 0;
+
+    AudioMonitor(AudioStats stats) {
+        this.stats = stats;
+    }
+
+    @Override
+    public int getActiveVoices() {
+        return stats.activeVoices;
+    }
+
+    @Override
+    public int getSampleRate() {
+        return stats.sampleRate;
+    }
+
+    @Override
+    public int getLineBufferFrames() {
+        return stats.lineBufferFrames;
+    }
+
+    @Override
+    public long getLineUnderruns() {
+        return stats.lineUnderruns - lineUnderrunsBase;
+    }
+
+    @Override
+    public long getMusicUnderruns() {
+        return stats.musicUnderruns - musicUnderrunsBase;
+    }
+
+    @Override
+    public long getLineOpenFailures() {
+        return stats.lineOpenFailures - lineOpenFailuresBase;
+    }
+
+    @Override
+    public long getLineErrors() {
+        return stats.lineErrors - lineErrorsBase;
+    }
+
+    @Override
+    public long getDroppedSounds() {
+        return stats.droppedSounds - droppedSoundsBase;
+    }
+
+    @Override
+    public long getPlayLatencyP99Micros() {
+        return stats.playLatency.percentile(99);
+    }
+
+    @Override
+    public void resetCounters() {
+        lineUnderrunsBase = stats.lineUnderruns;
+        musicUnderrunsBase = stats.musicUnderruns;
+        lineOpenFailuresBase = stats.lineOpenFailures;
+        lineErrorsBase = stats.lineErrors;
+        droppedSoundsBase = stats.droppedSounds;
+    }
+}
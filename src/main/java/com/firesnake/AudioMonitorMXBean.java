@@ -0,0 +1,29 @@
+package com.firesnake;
+
+// Management interface of the audio path (com.firesnake:type=Audio), read from the mixer's
+// AudioStats. Public because JMX only exposes public interfaces. Counters count from the
+// last resetCounters().
+public interface AudioMonitorMXBean {
+    String NAME = "com.firesnake:type=Audio";
+
+    int getActiveVoices();
+
+    int getSampleRate();
+
+    int getLineBufferFrames();
+
+    long getLineUnderruns();
+
+    long getMusicUnderruns();
+
+    long getLineOpenFailures();
+
+    long getLineErrors();
+
+    long getDroppedSounds();
+
+    // Trigger to speaker, over all sounds played since start
+    long getPlayLatencyP99Micros();
+
+    void resetCounters();
+}
@@ -0,0 +1,47 @@
+package com.firesnake;
+
+import java.io.*;
+
+// Latency and glitch counters of the audio path, filled in by the AudioMixer thread.
+// For every sound effect it records the time from the trigger (AudioMixer.play) until the
+// block holding its first sample was written to the line (queue latency), and until that
+// sample reaches the speaker according to the line's frame position (play latency).
+// Shown by the debug overlay (F3) and exported as CSV (F4) to tune the line buffer size
+// (-Dfiresnake.audioBufferBlocks) for the lowest latency that doesn't underrun.
+final class AudioStats {
+    final LatencyHistogram queueLatency = new LatencyHistogram();
+    final LatencyHistogram playLatency = new LatencyHistogram();
+
+    volatile int sampleRate = 0;        // Negotiated output format
+    volatile int sampleBits = 0;
+    volatile int lineBufferFrames = 0;  // Size of the open line's buffer (0 = no line)
+    volatile int lineUnderruns = 0;     // Mixer blocks written to an empty line
+    volatile int musicUnderruns = 0;    // Mixer blocks that found the music lookahead short
+    volatile int lineOpenFailures = 0;  // The line could not be opened (no device, format refused)
+    volatile int lineErrors = 0;        // Exceptions while playing (the line is then closed)
+    volatile int droppedSounds = 0;     // Play requests refused because the queue was full
+    volatile int activeVoices = 0;      // Sound effects playing in the last mixed block
+    volatile int deviceProbeFailures = 0; // The audio system failed while choosing a device
+    volatile int songLoadFailures = 0;  // Songs that could not be read or parsed
+
+    void write(File file) throws IOException {
+        try (PrintWriter out = new PrintWriter(new BufferedWriter(new FileWriter(file)))) {
+            out.println("counter,value");
+            out.println("sample_rate," + sampleRate);
+            out.println("sample_bits," + sampleBits);
+            out.println("line_buffer_frames," + lineBufferFrames);
+            out.println("line_underruns," + lineUnderruns);
+            out.println("music_underruns," + musicUnderruns);
+            out.println("line_open_failures," + lineOpenFailures);
+            out.println("line_errors," + lineErrors);
+            out.println("dropped_sounds," + droppedSounds);
+            out.println("active_voices," + activeVoices);
+            out.println("device_probe_failures," + deviceProbeFailures);
+            out.println("song_load_failures," + songLoadFailures);
+            out.println();
+            out.println("histogram,low_us,high_us,count");
+            queueLatency.write(out, "queue_latency");
+            playLatency.write(out, "play_latency");
+        }
+    }
+}
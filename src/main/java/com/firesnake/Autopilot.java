@@ -0,0 +1,519 @@
+package com.firesnake;
+
+import java.util.Arrays;
+
+// Autopilot planner on the board grid (one cell per BLOCK_SIZE). It keeps a distance field of
+// steps to the food around dangerous targets, maintained incrementally between ticks: when
+// targets appear or disappear only the distances they affect are repaired (raised through
+// the cells that lost their shortest path, then lowered again from their neighbours), and
+// only a new food position rebuilds the field. The snake's body and the targets' spawn delay
+// change every tick, so they are checked per move with their timing: a body segment frees
+// its cell once the tail has passed it, and a target's cells are safe until its spawnDelay
+// runs out. An A* search from the head, with the field as its (exact around targets)
+// estimate, finds the way to the food past the body. A move is only taken if a time-aware
+// flood fill from it finds room for the whole snake: the path's first move if it has room,
+// else the roomy move closest to the food, else the move with the most room.
+//
+// Work is budgeted in cell visits so each tick's cost is bounded and the same on every run:
+// the field gets FIELD_BUDGET visits per tick (a repair that would need more becomes a
+// rebuild spread over the next ticks, meanwhile steering by Manhattan distance), the path
+// search PATH_BUDGET, and each flood fill stops once it has found room for the snake.
+//
+// Per tick: beginTick, then target() for every dangerous target and body() for every
+// segment, then steer(). Game thread only; allocation-free after the first ticks.
+final class Autopilot {
+    static final int NONE = -1;
+    // Directions: right, down, left, up
+    private static final int[] DX = {1, 0, -1, 0};
+    private static final int[] DY = {0, 1, 0, -1};
+    private static final int INF = Integer.MAX_VALUE;
+    static final int FIELD_BUDGET = 800;
+    static final int PATH_BUDGET = 1500;
+    private static final int MAX_CELLS = 1 << 20; // Packed into the path search's heap entries
+
+    private final int columns;
+    private final int rows;
+    private final int cells;
+
+    // Distance field (steps to the food around dangerous target cells; INF = unreachable or
+    // not reached yet by a rebuild)
+    private final int[] distance;
+    private final boolean[] blocked;     // Dangerous target cells the field routes around
+    private final int[] blockedList;     // The cells with blocked set
+    private int blockedCount = 0;
+    private int fieldFood = -1;          // Food cell the field was built for
+    private boolean rebuilding = false;
+    private final int[] rebuildQueue;
+    private int rebuildHead, rebuildTail;
+    private long[] heap = new long[256]; // distance << 32 | cell, for repairs
+    private int heapSize = 0;
+    private final int[] changed;          // Cells whose distance a repair invalidated
+    private int changedCount = 0;
+    private int work;                    // Cell visits this tick
+
+    // This tick's board, valid where the stamp matches
+    private int stamp = 0;
+    private int food;
+    private final int[] targetStamp;
+    private final int[] targetCells;     // Cells covered by a target this tick
+    private int targetCount = 0;
+    private final int[] activeIn;        // Ticks until the cell's dangerous target is active (0 = active)
+    private final int[] bodyStamp;
+    private final int[] freeAfter;       // Moves after which the body has left the cell
+
+    // Path search scratch
+    private final int[] pathStamp;
+    private final int[] pathMoves;       // Moves to reach the cell
+    private final int[] pathFirst;       // First move of the path to the cell
+    private int pathMark = 0;
+
+    // Flood fill scratch
+    private final int[] fillStamp;
+    private int fillMark = 0;
+    private final int[] fillQueue;
+    private final int[] fillDepth;
+
+    // Cost of the last steer, for tuning the budget
+    private int lastFieldWork;
+    private int lastPathWork;
+    private int lastFillWork;
+
+    Autopilot(int columns, int rows) {
+        this.columns = columns;
+        this.rows = rows;
+        cells = columns * rows;
+        distance = new int[cells];
+        Arrays.fill(distance, INF);
+        blocked = new boolean[cells];
+        blockedList = new int[cells];
+        rebuildQueue = new int[cells];
+        changed = new int[2 * cells]; // Freed cells, then raised ones
+        targetStamp = new int[cells];
+        targetCells = new int[cells];
+        activeIn = new int[cells];
+        bodyStamp = new int[cells];
+        freeAfter = new int[cells];
+        if (cells > MAX_CELLS) {
+            throw new IllegalArgumentException("Board too large: " + columns + "x" + rows);
+        }
+        pathStamp = new int[cells];
+        pathMoves = new int[cells];
+        pathFirst = new int[cells];
+        fillStamp = new int[cells];
+        fillQueue = new int[cells];
+        fillDepth = new int[cells];
+    }
+
+    void beginTick(int foodColumn, int foodRow) {
+        stamp++;
+        targetCount = 0;
+        food = inside(foodColumn, foodRow) ? foodRow * columns + foodColumn : -1;
+    }
+
+    // A dangerous target covering size x size cells from (column, row)
+    void target(int column, int row, int size, int ticksUntilActive) {
+        for (int y = row; y < row + size; y++) {
+            for (int x = column; x < column + size; x++) {
+                if (!inside(x, y)) continue;
+                int cell = y * columns + x;
+                if (targetStamp[cell] != stamp) {
+                    targetStamp[cell] = stamp;
+                    targetCells[targetCount++] = cell;
+                    activeIn[cell] = Math.max(0, ticksUntilActive);
+                } else if (ticksUntilActive < activeIn[cell]) {
+                    activeIn[cell] = Math.max(0, ticksUntilActive);
+                }
+            }
+        }
+    }
+
+    // A body segment that leaves its cell after the given number of moves
+    void body(int column, int row, int movesUntilFree) {
+        if (!inside(column, row)) return;
+        int cell = row * columns + column;
+        if (bodyStamp[cell] != stamp || movesUntilFree > freeAfter[cell]) {
+            freeAfter[cell] = movesUntilFree;
+        }
+        bodyStamp[cell] = stamp;
+    }
+
+    // Direction for the next move of a snake of the given length whose head is at (column,
+    // row) moving (dirX, dirY): 0 right, 1 down, 2 left, 3 up, or NONE if every move is fatal
+    int steer(int column, int row, int dirX, int dirY, int length) {
+        work = 0;
+        updateField();
+        lastFieldWork = work;
+        work = 0;
+        int path = pathToFood(column, row);
+        lastPathWork = work;
+        work = 0;
+
+        int best = NONE;
+        long bestScore = Long.MAX_VALUE;
+        int roomiest = NONE;
+        int roomiestRoom = -1;
+        for (int d = 0; d < 4; d++) {
+            int x = column + DX[d];
+            int y = row + DY[d];
+            if (!inside(x, y)) continue;
+            int cell = y * columns + x;
+            if (!passable(cell, 1)) continue;
+            int room = room(cell, length + 1);
+            if (room > roomiestRoom) {
+                roomiestRoom = room;
+                roomiest = d;
+            }
+            if (room <= length) continue;
+            if (d == path) {
+                best = d;
+                break;
+            }
+            // Field distance where known, else Manhattan distance (always ranked after);
+            // going straight wins ties
+            long score;
+            if (distance[cell] != INF) {
+                score = distance[cell];
+            } else if (food >= 0) {
+                score = cells + Math.abs(x - food % columns) + Math.abs(y - food / columns);
+            } else {
+                score = 2L * cells;
+            }
+            score = score * 2 + (DX[d] == dirX && DY[d] == dirY ? 0 : 1);
+            if (score < bestScore) {
+                bestScore = score;
+                best = d;
+            }
+        }
+        lastFillWork = work;
+        // No move leaves room for the whole snake: take the one with the most
+        return best != NONE ? best : roomiest;
+    }
+
+    static int dx(int direction) {
+        return DX[direction];
+    }
+
+    static int dy(int direction) {
+        return DY[direction];
+    }
+
+    // Cell visits of the last steer (field maintenance, path search, flood fills)
+    int getLastFieldWork() {
+        return lastFieldWork;
+    }
+
+    int getLastPathWork() {
+        return lastPathWork;
+    }
+
+    int getLastFillWork() {
+        return lastFillWork;
+    }
+
+    // Steps from the cell to the food along the field (INF if unknown)
+    int distanceToFood(int column, int row) {
+        return inside(column, row) ? distance[row * columns + column] : INF;
+    }
+
+    private boolean inside(int x, int y) {
+        return x >= 0 && y >= 0 && x < columns && y < rows;
+    }
+
+    // Target cells the field routes around (food can spawn under a target; it stays the source)
+    private boolean obstacle(int cell) {
+        return blocked[cell] && cell != food;
+    }
+
+    // Whether the head can be in the cell after the given number of moves
+    private boolean passable(int cell, int moves) {
+        if (bodyStamp[cell] == stamp && freeAfter[cell] > moves) return false;
+        return targetStamp[cell] != stamp || activeIn[cell] > moves;
+    }
+
+    // A* from the head to the food with the field as heuristic: the field is the exact
+    // distance around targets, so the search only strays from the shortest path where the
+    // body is in the way. Cells are checked at the move the head would reach them (the body
+    // only ever frees cells, so the first arrival is the best one); target cells, even
+    // harmless for now, are avoided. Returns the first move of the shortest path, or NONE
+    // if there is none or the budget runs out.
+    private int pathToFood(int column, int row) {
+        if (food < 0 || rebuilding) return NONE;
+        int start = row * columns + column;
+        if (distance[start] == INF) return NONE;
+        pathMark++;
+        heapSize = 0;
+        pathStamp[start] = pathMark;
+        pathMoves[start] = 0;
+        pathFirst[start] = NONE;
+        pushPath(start, 0);
+        while (heapSize > 0) {
+            long entry = pop();
+            int cell = (int) (entry & (MAX_CELLS - 1));
+            int moves = (MAX_CELLS - 1) - (int) (entry >>> 20 & (MAX_CELLS - 1));
+            if (moves != pathMoves[cell]) continue; // Reached sooner since
+            if (++work > PATH_BUDGET) return NONE;
+            if (cell == food) return pathFirst[cell];
+            int x = cell % columns;
+            int y = cell / columns;
+            for (int d = 0; d < 4; d++) {
+                int nx = x + DX[d];
+                int ny = y + DY[d];
+                if (!inside(nx, ny)) continue;
+                int next = ny * columns + nx;
+                if (obstacle(next) || distance[next] == INF || !passable(next, moves + 1)) continue;
+                if (pathStamp[next] == pathMark && pathMoves[next] <= moves + 1) continue;
+                pathStamp[next] = pathMark;
+                pathMoves[next] = moves + 1;
+                pathFirst[next] = cell == start ? d : pathFirst[cell];
+                pushPath(next, moves + 1);
+            }
+        }
+        return NONE;
+    }
+
+    // Ordered by estimated path length, then by the most moves made (deepest first on ties)
+    private void pushPath(int cell, int moves) {
+        long estimate = moves + (long) distance[cell];
+        push(estimate << 40 | (long) ((MAX_CELLS - 1) - moves) << 20 | cell);
+    }
+
+    // Cells reachable from the start cell (entered at move 1), counting up to limit
+    private int room(int start, int limit) {
+        fillMark++;
+        int head = 0;
+        int tail = 0;
+        fillQueue[tail] = start;
+        fillDepth[tail++] = 1;
+        fillStamp[start] = fillMark;
+        while (head < tail && tail < limit) {
+            int cell = fillQueue[head];
+            int depth = fillDepth[head++] + 1;
+            work++;
+            int x = cell % columns;
+            int y = cell / columns;
+            for (int d = 0; d < 4; d++) {
+                int nx = x + DX[d];
+                int ny = y + DY[d];
+                if (!inside(nx, ny)) continue;
+                int next = ny * columns + nx;
+                if (fillStamp[next] == fillMark || !passable(next, depth)) continue;
+                fillStamp[next] = fillMark;
+                fillQueue[tail] = next;
+                fillDepth[tail++] = depth;
+            }
+        }
+        return tail;
+    }
+
+    // Bring the distance field up to date with this tick's food and dangerous targets
+    private void updateField() {
+        if (food < 0) return;
+        boolean obstaclesChanged = false;
+        changedCount = 0;
+        heapSize = 0;
+
+        // Cells no target covers any more
+        for (int i = blockedCount - 1; i >= 0; i--) {
+            int cell = blockedList[i];
+            if (targetStamp[cell] != stamp) {
+                blocked[cell] = false;
+                blockedList[i] = blockedList[--blockedCount];
+                obstaclesChanged = true;
+                if (!rebuilding && food == fieldFood) {
+                    lowerFrom(cell);
+                }
+            }
+        }
+        // Newly covered cells
+        for (int i = 0; i < targetCount; i++) {
+            int cell = targetCells[i];
+            if (!blocked[cell]) {
+                blocked[cell] = true;
+                blockedList[blockedCount++] = cell;
+                obstaclesChanged = true;
+                if (!rebuilding && food == fieldFood && distance[cell] != INF && cell != food) {
+                    push(distance[cell], cell);
+                    distance[cell] = INF;
+                }
+            }
+        }
+        if (food != fieldFood || (rebuilding && obstaclesChanged)) {
+            startRebuild();
+        } else if (obstaclesChanged && !rebuilding && !repair()) {
+            startRebuild();
+        }
+        if (rebuilding) {
+            continueRebuild();
+        }
+    }
+
+    // A freed cell takes the distance of its best neighbour (lowered later by propagate)
+    private void lowerFrom(int cell) {
+        int best = cell == food ? 0 : bestNeighbour(cell);
+        distance[cell] = best;
+        if (best != INF) {
+            lowerQueue(cell);
+        }
+    }
+
+    // Remember a cell to propagate a lowered distance from (after the raise phase)
+    private void lowerQueue(int cell) {
+        changed[changedCount++] = cell;
+    }
+
+    // Repair after targets came and went: raise the cells that lost their shortest path in
+    // order of their old distance, then lower all changed cells from their neighbours.
+    // False if the budget ran out (the field is then rebuilt).
+    private boolean repair() {
+        // Raise: the heap holds newly blocked cells at their old distance
+        while (heapSize > 0) {
+            if (++work > FIELD_BUDGET) return false;
+            long entry = pop();
+            int d = (int) (entry >>> 32);
+            int cell = (int) entry;
+            int x = cell % columns;
+            int y = cell / columns;
+            for (int n = 0; n < 4; n++) {
+                int nx = x + DX[n];
+                int ny = y + DY[n];
+                if (!inside(nx, ny)) continue;
+                int next = ny * columns + nx;
+                if (blocked[next] || next == food || distance[next] != d + 1) continue;
+                if (hasSupport(next, d)) continue;
+                distance[next] = INF;
+                push(d + 1, next);
+                lowerQueue(next);
+            }
+        }
+        // Lower: seed every changed cell from its neighbours and propagate
+        for (int i = 0; i < changedCount; i++) {
+            int cell = changed[i];
+            if (obstacle(cell)) continue;
+            int d = cell == food ? 0 : Math.min(distance[cell], bestNeighbour(cell));
+            distance[cell] = d;
+            if (d != INF) {
+                push(d, cell);
+            }
+        }
+        changedCount = 0;
+        while (heapSize > 0) {
+            if (++work > FIELD_BUDGET) return false;
+            long entry = pop();
+            int d = (int) (entry >>> 32);
+            int cell = (int) entry;
+            if (d != distance[cell]) continue;
+            int x = cell % columns;
+            int y = cell / columns;
+            for (int n = 0; n < 4; n++) {
+                int nx = x + DX[n];
+                int ny = y + DY[n];
+                if (!inside(nx, ny)) continue;
+                int next = ny * columns + nx;
+                if (obstacle(next) || distance[next] <= d + 1) continue;
+                distance[next] = d + 1;
+                push(d + 1, next);
+            }
+        }
+        return true;
+    }
+
+    // Whether a neighbour still offers the cell a path of the given length to the food
+    private boolean hasSupport(int cell, int d) {
+        int x = cell % columns;
+        int y = cell / columns;
+        for (int n = 0; n < 4; n++) {
+            int nx = x + DX[n];
+            int ny = y + DY[n];
+            if (inside(nx, ny) && distance[ny * columns + nx] == d) return true;
+        }
+        return false;
+    }
+
+    private int bestNeighbour(int cell) {
+        int x = cell % columns;
+        int y = cell / columns;
+        int best = INF;
+        for (int n = 0; n < 4; n++) {
+            int nx = x + DX[n];
+            int ny = y + DY[n];
+            if (!inside(nx, ny)) continue;
+            int next = ny * columns + nx;
+            if (!obstacle(next) && distance[next] != INF) {
+                best = Math.min(best, distance[next] + 1);
+            }
+        }
+        return best;
+    }
+
+    private void startRebuild() {
+        Arrays.fill(distance, INF);
+        work += cells / 16;
+        heapSize = 0;
+        changedCount = 0;
+        fieldFood = food;
+        distance[food] = 0;
+        rebuildHead = 0;
+        rebuildTail = 0;
+        rebuildQueue[rebuildTail++] = food;
+        rebuilding = true;
+    }
+
+    // Breadth-first search from the food, continued from the last tick within the budget
+    private void continueRebuild() {
+        while (rebuildHead < rebuildTail && work < FIELD_BUDGET) {
+            int cell = rebuildQueue[rebuildHead++];
+            work++;
+            int d = distance[cell] + 1;
+            int x = cell % columns;
+            int y = cell / columns;
+            for (int n = 0; n < 4; n++) {
+                int nx = x + DX[n];
+                int ny = y + DY[n];
+                if (!inside(nx, ny)) continue;
+                int next = ny * columns + nx;
+                if (blocked[next] || distance[next] != INF) continue;
+                distance[next] = d;
+                rebuildQueue[rebuildTail++] = next;
+            }
+        }
+        if (rebuildHead == rebuildTail) {
+            rebuilding = false;
+        }
+    }
+
+    private void push(int d, int cell) {
+        push((long) d << 32 | cell);
+    }
+    
+    private void push(long entry) {
+        if (heapSize == heap.length) {
+            heap = Arrays.copyOf(heap, heapSize * 2);
+        }
+        int i = heapSize++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heap[parent] <= entry) break;
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = entry;
+    }
+
+    private long pop() {
+        long top = heap[0];
+        long last = heap[--heapSize];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) break;
+            if (child + 1 < heapSize && heap[child + 1] < heap[child]) child++;
+            if (heap[child] >= last) break;
+            heap[i] = heap[child];
+            i = child;
+        }
+        if (heapSize > 0) {
+            heap[i] = last;
+        }
+        return top;
+    }
+}
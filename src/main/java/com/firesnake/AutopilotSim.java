@@ -0,0 +1,79 @@
+package com.firesnake;
+
+import java.awt.event.KeyEvent;
+import java.util.Arrays;
+import java.util.Locale;
+
+// Balance simulation: plays headless games with the autopilot at the wheel (seeds seed,
+// seed + 1, ...) and prints the score distribution, how the games ended and what steering
+// cost per tick. The autopilot never shoots, so scores come from food alone: a baseline for
+// how far careful play gets with the current spawn rules, timers and target mix.
+//
+// Usage: AutopilotSim [--games N] [--seed S] [--max-ticks N]
+class AutopilotSim {
+    private static final Telemetry.Cause[] CAUSES = Telemetry.Cause.values();
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        int games = 100;
+        long seed = 1;
+        int maxTicks = 20_000;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--games": games = Integer.parseInt(args[i + 1]); break;
+                case "--seed": seed = Long.parseLong(args[i + 1]); break;
+                case "--max-ticks": maxTicks = Integer.parseInt(args[i + 1]); break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (games < 1 || maxTicks < 1) {
+            throw new IllegalArgumentException("Need at least one game and one tick");
+        }
+
+        int[] scores = new int[games];
+        long[] deaths = new long[CAUSES.length];
+        int unfinished = 0;
+        long ticks = 0;
+        LatencyHistogram steering = new LatencyHistogram();
+        for (int g = 0; g < games; g++) {
+            FireSnakeGame game = new FireSnakeGame(seed + g, true);
+            game.handleKeyPress(KeyEvent.VK_RIGHT);
+            game.setAutopilot(true);
+            while (!game.isGameOver() && game.getTickCount() < maxTicks) {
+                long start = System.nanoTime();
+                game.steerAutopilot();
+                steering.recordNanos(System.nanoTime() - start);
+                game.tick();
+            }
+            scores[g] = game.getScore();
+            ticks += game.getTickCount();
+            if (game.isGameOver()) {
+                deaths[game.getDeathCause().ordinal()]++;
+            } else {
+                unfinished++;
+            }
+        }
+
+        Arrays.sort(scores);
+        double mean = Arrays.stream(scores).average().orElse(0);
+        System.out.printf(Locale.ROOT, "%d games from seed %d, %d ticks%n", games, seed, ticks);
+        System.out.printf(Locale.ROOT, "score: mean %.1f, p10 %d, median %d, p90 %d, max %d%n", mean,
+                percentile(scores, 0.10), percentile(scores, 0.50), percentile(scores, 0.90), scores[games - 1]);
+        System.out.print("ended by:");
+        for (Telemetry.Cause cause : CAUSES) {
+            if (deaths[cause.ordinal()] > 0) {
+                System.out.print(" " + cause.name().toLowerCase(Locale.ROOT) + " " + deaths[cause.ordinal()]);
+            }
+        }
+        if (unfinished > 0) {
+            System.out.print(" still alive after " + maxTicks + " ticks " + unfinished);
+        }
+        System.out.println();
+        System.out.printf(Locale.ROOT, "steering per tick: p50 %d us, p99 %d us, max %d us%n",
+                steering.percentile(50), steering.percentile(99), steering.getMax());
+    }
+
+    private static int percentile(int[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) (p * sorted.length))];
+    }
+}
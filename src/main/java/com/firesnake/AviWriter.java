@@ -0,0 +1,204 @@
+package com.firesnake;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+
+// Minimal single-stream AVI (RIFF) writer for MJPEG or uncompressed 24-bit frames.
+// Frames must be written in order; headers and the idx1 index are patched in close().
+// Plain RIFF (no OpenDML extension), so the whole file is limited to 2 GB: a frame that would
+// push it past that is rejected and the frames before it still close into a playable file.
+class AviWriter implements Closeable {
+    enum Codec { MJPEG, RAW }
+
+    private static final int AVIF_HASINDEX = 0x10;
+    private static final int AVIIF_KEYFRAME = 0x10;
+    // Sizes and idx1 offsets are 32-bit; many readers treat them as signed
+    private static final long MAX_RIFF_SIZE = Integer.MAX_VALUE;
+
+    private final FileChannel channel;
+    private final Codec codec;
+    private final int width;
+    private final int height;
+    private final int fps;
+
+    private long riffSizePos;
+    private long totalFramesPos;
+    private long lengthPos;
+    private long moviSizePos;
+    private long moviStart; // Position of the 'movi' fourcc (idx1 offsets are relative to it)
+
+    private int frameCount = 0;
+    private int maxFrameSize = 0;
+    private int[] indexOffsets = new int[1024];
+    private int[] indexSizes = new int[1024];
+
+    AviWriter(Path path, Codec codec, int width, int height, int fps) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        this.codec = codec;
+        this.width = width;
+        this.height = height;
+        this.fps = fps;
+        writeHeaders();
+    }
+
+    // Size in bytes of one uncompressed bottom-up BGR frame (rows padded to 4 bytes)
+    static int rawFrameSize(int width, int height) {
+        return rawStride(width) * height;
+    }
+
+    static int rawStride(int width) {
+        return (width * 3 + 3) & ~3;
+    }
+
+    private void writeHeaders() throws IOException {
+        ByteBuffer b = ByteBuffer.allocate(224).order(ByteOrder.LITTLE_ENDIAN);
+        fourcc(b, "RIFF");
+        riffSizePos = b.position();
+        b.putInt(0);
+        fourcc(b, "AVI ");
+
+        fourcc(b, "LIST");
+        b.putInt(4 + 8 + 56 + 8 + 4 + 8 + 56 + 8 + 40);
+        fourcc(b, "hdrl");
+
+        fourcc(b, "avih");
+        b.putInt(56);
+        b.putInt(1_000_000 / fps);          // dwMicroSecPerFrame
+        b.putInt(0);                         // dwMaxBytesPerSec
+        b.putInt(0);                         // dwPaddingGranularity
+        b.putInt(AVIF_HASINDEX);             // dwFlags
+        totalFramesPos = b.position();
+        b.putInt(0);                         // dwTotalFrames (patched)
+        b.putInt(0);                         // dwInitialFrames
+        b.putInt(1);                         // dwStreams
+        b.putInt(0);                         // dwSuggestedBufferSize
+        b.putInt(width);
+        b.putInt(height);
+        b.putInt(0).putInt(0).putInt(0).putInt(0);
+
+        fourcc(b, "LIST");
+        b.putInt(4 + 8 + 56 + 8 + 40);
+        fourcc(b, "strl");
+
+        fourcc(b, "strh");
+        b.putInt(56);
+        fourcc(b, "vids");
+        fourcc(b, codec == Codec.MJPEG ? "MJPG" : "DIB ");
+        b.putInt(0);                         // dwFlags
+        b.putShort((short) 0);               // wPriority
+        b.putShort((short) 0);               // wLanguage
+        b.putInt(0);                         // dwInitialFrames
+        b.putInt(1);                         // dwScale
+        b.putInt(fps);                       // dwRate
+        b.putInt(0);                         // dwStart
+        lengthPos = b.position();
+        b.putInt(0);                         // dwLength (patched)
+        b.putInt(0);                         // dwSuggestedBufferSize
+        b.putInt(-1);                        // dwQuality
+        b.putInt(0);                         // dwSampleSize
+        b.putShort((short) 0).putShort((short) 0).putShort((short) width).putShort((short) height);
+
+        fourcc(b, "strf");
+        b.putInt(40);
+        b.putInt(40);                        // biSize
+        b.putInt(width);
+        b.putInt(height);
+        b.putShort((short) 1);               // biPlanes
+        b.putShort((short) 24);              // biBitCount
+        if (codec == Codec.MJPEG) {
+            fourcc(b, "MJPG");
+            b.putInt(width * height * 3);
+        } else {
+            b.putInt(0);                     // BI_RGB
+            b.putInt(rawFrameSize(width, height));
+        }
+        b.putInt(0).putInt(0).putInt(0).putInt(0);
+
+        fourcc(b, "LIST");
+        moviSizePos = b.position();
+        b.putInt(0);
+        moviStart = b.position();
+        fourcc(b, "movi");
+
+        b.flip();
+        channel.write(b);
+    }
+
+    // Append one encoded frame (JPEG bytes for MJPEG, bottom-up BGR rows for RAW)
+    void writeFrame(byte[] data, int length) throws IOException {
+        long chunkPos = channel.position();
+        // RIFF size once this chunk and the index (including its entry) are written
+        long riffSize = chunkPos + 8 + length + (length & 1) + 8 + (frameCount + 1) * 16L - 8;
+        if (riffSize > MAX_RIFF_SIZE) {
+            throw new IOException("AVI file would exceed the 2 GB RIFF limit at frame " + frameCount
+                    + "; export a shorter range or use MJPEG");
+        }
+        ByteBuffer header = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+        fourcc(header, "00dc");
+        header.putInt(length);
+        header.flip();
+        channel.write(header);
+        channel.write(ByteBuffer.wrap(data, 0, length));
+        if ((length & 1) != 0) {
+            channel.write(ByteBuffer.wrap(new byte[1]));
+        }
+
+        if (frameCount == indexOffsets.length) {
+            indexOffsets = java.util.Arrays.copyOf(indexOffsets, frameCount * 2);
+            indexSizes = java.util.Arrays.copyOf(indexSizes, frameCount * 2);
+        }
+        indexOffsets[frameCount] = (int) (chunkPos - moviStart);
+        indexSizes[frameCount] = length;
+        maxFrameSize = Math.max(maxFrameSize, length);
+        frameCount++;
+    }
+
+    int getFrameCount() {
+        return frameCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            long moviEnd = channel.position();
+
+            ByteBuffer index = ByteBuffer.allocate(8 + frameCount * 16).order(ByteOrder.LITTLE_ENDIAN);
+            fourcc(index, "idx1");
+            index.putInt(frameCount * 16);
+            for (int i = 0; i < frameCount; i++) {
+                fourcc(index, "00dc");
+                index.putInt(AVIIF_KEYFRAME);
+                index.putInt(indexOffsets[i]);
+                index.putInt(indexSizes[i]);
+            }
+            index.flip();
+            channel.write(index);
+            long fileEnd = channel.position();
+
+            patchInt(riffSizePos, (int) (fileEnd - 8));
+            patchInt(moviSizePos, (int) (moviEnd - moviStart));
+            patchInt(totalFramesPos, frameCount);
+            patchInt(totalFramesPos + 12, maxFrameSize); // avih.dwSuggestedBufferSize
+            patchInt(lengthPos, frameCount);
+            patchInt(lengthPos + 4, maxFrameSize);       // strh.dwSuggestedBufferSize
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void patchInt(long position, int value) throws IOException {
+        ByteBuffer b = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+        b.putInt(value).flip();
+        channel.write(b, position);
+    }
+
+    private static void fourcc(ByteBuffer b, String code) {
+        for (int i = 0; i < 4; i++) {
+            b.put((byte) code.charAt(i));
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package com.firesnake;
+
+import javax.imageio.*;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.*;
+import java.nio.file.*;
+import java.util.ArrayDeque;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Headless offline renderer: replays a recorded run (seed + input log) without a display
+// and exports it as a PNG sequence or an AVI file (MJPEG or uncompressed).
+//
+// Pipeline:  simulation + display list capture (caller thread)
+//              -> pool of encoder threads (rasterize + PNG / JPEG / BGR conversion)
+//              -> in-order AVI writer thread
+// Display lists and frame images come from a fixed pool, so memory stays bounded; the
+// simulation only waits when every pooled frame is still being rasterized or encoded.
+// With --audio the soundtrack is rendered alongside (see OfflineAudio) into a WAV file that
+// starts at the first frame and lasts exactly as long as the video.
+//
+// Usage: ClipExporter <run.log> <output> [--format png|mjpeg|raw] [--fps N]
+//                     [--from-tick N] [--to-tick N] [--threads N] [--quality 0..1] [--scale F]
+//                     [--audio <output.wav>]
+class ClipExporter {
+    enum Format { PNG, MJPEG, RAW }
+
+    // Ticks rendered after the last input so the game over screen is visible
+    private static final int TAIL_TICKS = 36;
+
+    private final InputLog log;
+    private final File output;
+    private final Format format;
+    private final int fps;
+    private final long fromTick;
+    private final long toTick;
+    private final int threads;
+    private final float quality;
+    private final File audioOutput; // null = no audio
+
+    private final int width;
+    private final int height;
+
+    ClipExporter(InputLog log, File output, Format format, int fps, long fromTick, long toTick,
+                 int threads, float quality, double scale, File audioOutput) {
+        this.log = log;
+        this.output = output;
+        this.format = format;
+        this.fps = fps;
+        this.fromTick = fromTick;
+        this.toTick = toTick > 0 ? toTick : log.lastTick() + TAIL_TICKS;
+        this.threads = threads;
+        this.quality = quality;
+        this.audioOutput = audioOutput;
+        // Even dimensions keep most video decoders happy
+        this.width = (int) Math.round(FireSnakeGame.frameWidth() * scale / 2) * 2;
+        this.height = (int) Math.round(FireSnakeGame.frameHeight() * scale / 2) * 2;
+    }
+
+    // Runs the export and returns the number of frames written
+    int export() throws IOException, InterruptedException {
+        if (format == Format.PNG) {
+            Files.createDirectories(output.toPath());
+        }
+
+        FireSnakeGame game = new FireSnakeGame(log.getSeed(), true, audioOutput != null);
+        OfflineAudio audio = audioOutput != null ? new OfflineAudio(game) : null;
+        WavWriter wav = audioOutput != null ? new WavWriter(audioOutput.toPath(), OfflineAudio.SAMPLE_RATE, 1) : null;
+        double firstFrameMs = 0;
+        ExecutorService encoders = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "clip-encoder");
+            t.setDaemon(true);
+            return t;
+        });
+
+        int poolSize = threads * 4;
+        BlockingQueue<FrameSlot> freeFrames = new ArrayBlockingQueue<>(poolSize);
+        for (int i = 0; i < poolSize; i++) {
+            freeFrames.add(new FrameSlot(width, height));
+        }
+        ThreadLocal<FireSnakeGame.FrameRenderer> renderers = ThreadLocal.withInitial(FireSnakeGame.FrameRenderer::new);
+
+        // AVI chunks must be written in frame order, so futures are consumed in submit order
+        BlockingQueue<Future<byte[]>> pending = new ArrayBlockingQueue<>(poolSize * 2);
+        Future<byte[]> endMarker = CompletableFuture.completedFuture(null);
+        AviWriter avi = null;
+        Thread writerThread = null;
+        AtomicReference<IOException> writerError = new AtomicReference<>();
+        // PNG frames are written by the encoders themselves; finished writes are checked in order
+        ArrayDeque<Future<?>> written = new ArrayDeque<>();
+        if (format != Format.PNG) {
+            avi = new AviWriter(output.toPath(), format == Format.MJPEG ? AviWriter.Codec.MJPEG : AviWriter.Codec.RAW,
+                    width, height, fps);
+            final AviWriter aviWriter = avi;
+            writerThread = new Thread(() -> {
+                try {
+                    while (true) {
+                        Future<byte[]> next = pending.take();
+                        if (next == endMarker) break;
+                        byte[] data = next.get();
+                        aviWriter.writeFrame(data, data.length);
+                    }
+                } catch (IOException e) {
+                    writerError.set(e);
+                } catch (InterruptedException | ExecutionException e) {
+                    writerError.set(new IOException("Frame encoding failed", e));
+                }
+                if (writerError.get() == null) return;
+                // Keep draining after a failure so the simulation never blocks on a full queue;
+                // the encodes still run to completion and hand their frames back to the pool
+                try {
+                    while (pending.take() != endMarker) {
+                        // discard
+                    }
+                } catch (InterruptedException e) {
+                    // exiting anyway
+                }
+            }, "clip-avi-writer");
+            writerThread.start();
+        }
+
+        double frameIntervalMs = 1000.0 / fps;
+        double simTimeMs = 0;
+        double nextFrameMs = 0;
+        int frameIndex = 0;
+
+        try {
+            while (game.getTickCount() < toTick && !game.isExitRequested()) {
+                int elapsed = game.getCurrentDelay();
+                if (audio != null) {
+                    audio.renderTo(simTimeMs + elapsed);
+                }
+                log.replayInto(game);
+                game.tick();
+                simTimeMs += elapsed;
+
+                while (nextFrameMs <= simTimeMs) {
+                    nextFrameMs += frameIntervalMs;
+                    if (game.getTickCount() < fromTick) continue;
+                    if (audio != null && frameIndex == 0) {
+                        firstFrameMs = nextFrameMs - frameIntervalMs;
+                        audio.startWriting(wav, firstFrameMs);
+                    }
+
+                    if (writerError.get() != null) {
+                        throw writerError.get();
+                    }
+                    FrameSlot slot = freeFrames.take();
+                    game.buildDisplayList(slot.displayList);
+
+                    final int index = frameIndex++;
+                    if (format == Format.PNG) {
+                        written.add(encoders.submit(() -> {
+                            try {
+                                rasterize(slot, renderers.get());
+                                ImageIO.write(slot.image, "png", new File(output, String.format("frame_%06d.png", index)));
+                            } finally {
+                                freeFrames.add(slot);
+                            }
+                            return null;
+                        }));
+                        while (!written.isEmpty() && written.peek().isDone()) {
+                            checkWritten(written.poll());
+                        }
+                    } else {
+                        pending.put(encoders.submit(() -> {
+                            try {
+                                rasterize(slot, renderers.get());
+                                return format == Format.MJPEG ? encodeJpeg(slot.image) : encodeRaw(slot.image);
+                            } finally {
+                                freeFrames.add(slot);
+                            }
+                        }));
+                    }
+                }
+            }
+            if (audio != null && frameIndex > 0) {
+                audio.writeTo(firstFrameMs + frameIndex * frameIntervalMs);
+            }
+        } finally {
+            if (wav != null) {
+                wav.close();
+            }
+            if (writerThread != null) {
+                pending.put(endMarker);
+                writerThread.join();
+                avi.close();
+            }
+            encoders.shutdown();
+            encoders.awaitTermination(1, TimeUnit.HOURS);
+        }
+        if (writerError.get() != null) {
+            throw writerError.get();
+        }
+        for (Future<?> frame : written) {
+            checkWritten(frame);
+        }
+        return frameIndex;
+    }
+
+    // Rethrows the failure of a finished PNG write
+    private static void checkWritten(Future<?> frame) throws IOException, InterruptedException {
+        try {
+            frame.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Frame encoding failed", e.getCause());
+        }
+    }
+
+    private static void rasterize(FrameSlot slot, FireSnakeGame.FrameRenderer renderer) {
+        Graphics2D g2d = slot.image.createGraphics();
+        try {
+            renderer.render(g2d, slot.displayList, slot.image.getWidth(), slot.image.getHeight());
+        } finally {
+            g2d.dispose();
+        }
+    }
+
+    // Pooled per-frame buffers: the captured display list and the image it is rasterized into
+    private static final class FrameSlot {
+        final DisplayList displayList = new DisplayList();
+        final BufferedImage image;
+
+        FrameSlot(int width, int height) {
+            image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        }
+    }
+
+    private byte[] encodeJpeg(BufferedImage frame) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * 1024);
+            try (MemoryCacheImageOutputStream out = new MemoryCacheImageOutputStream(bytes)) {
+                writer.setOutput(out);
+                writer.write(null, new IIOImage(frame, null, null), param);
+            }
+            return bytes.toByteArray();
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    // Convert to a bottom-up BGR DIB as expected by uncompressed AVI
+    private byte[] encodeRaw(BufferedImage frame) {
+        int[] pixels = ((DataBufferInt) frame.getRaster().getDataBuffer()).getData();
+        int stride = AviWriter.rawStride(width);
+        byte[] data = new byte[AviWriter.rawFrameSize(width, height)];
+        for (int y = 0; y < height; y++) {
+            int src = (height - 1 - y) * width;
+            int dst = y * stride;
+            for (int x = 0; x < width; x++) {
+                int rgb = pixels[src + x];
+                data[dst++] = (byte) rgb;
+                data[dst++] = (byte) (rgb >> 8);
+                data[dst++] = (byte) (rgb >> 16);
+            }
+        }
+        return data;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (System.getProperty("java.awt.headless") == null) {
+            System.setProperty("java.awt.headless", "true");
+        }
+        if (args.length < 2) {
+            System.err.println("Usage: ClipExporter <run.log> <output> [--format png|mjpeg|raw] [--fps N]"
+                    + " [--from-tick N] [--to-tick N] [--threads N] [--quality 0..1] [--scale F]"
+                    + " [--audio <output.wav>]");
+            System.exit(2);
+        }
+
+        Format format = Format.MJPEG;
+        int fps = 30;
+        long fromTick = 0;
+        long toTick = 0;
+        int threads = Runtime.getRuntime().availableProcessors();
+        float quality = 0.9f;
+        double scale = 1.0;
+        File audioOutput = null;
+        for (int i = 2; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--format": format = Format.valueOf(args[i + 1].toUpperCase()); break;
+                case "--fps": fps = Integer.parseInt(args[i + 1]); break;
+                case "--from-tick": fromTick = Long.parseLong(args[i + 1]); break;
+                case "--to-tick": toTick = Long.parseLong(args[i + 1]); break;
+                case "--threads": threads = Math.max(1, Integer.parseInt(args[i + 1])); break;
+                case "--quality": quality = Float.parseFloat(args[i + 1]); break;
+                case "--scale": scale = Double.parseDouble(args[i + 1]); break;
+                case "--audio": audioOutput = new File(args[i + 1]); break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        InputLog log = InputLog.load(new File(args[0]));
+        ClipExporter exporter = new ClipExporter(log, new File(args[1]), format, fps, fromTick, toTick, threads, quality, scale, audioOutput);
+        long start = System.nanoTime();
+        int frames = exporter.export();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Exported %d frames (%.1fs of video) in %.2fs - %.1fx real time%n",
+                frames, frames / (double) fps, seconds, frames / (double) fps / seconds);
+    }
+}
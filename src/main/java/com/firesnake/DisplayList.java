@@ -0,0 +1,96 @@
+package com.firesnake;
+
+import java.util.Arrays;
+
+// Flat list of draw commands for one frame, built by the game tick and rasterized by
+// FireSnakeGame.FrameRenderer. Stored as parallel primitive arrays so instances can be
+// pooled and refilled every tick without allocating; once published a list is only read.
+final class DisplayList {
+    // Command kinds
+    static final int STAR = 0;          // x,y screen pos; aux,aux2 trail start; size; variant = brightness
+    static final int FOOD = 1;          // x,y cell; phase = pulse
+    static final int SNAKE_SEGMENT = 2; // x,y cell; phase = progress along body; variant = 1 for head
+    static final int TARGET = 3;        // x,y cell; size = grid size; phase = pulse; variant = TargetType ordinal; aux = life left
+    static final int SLOW_TARGET = 4;   // as TARGET (no variant)
+    static final int SHRINK_TARGET = 5;
+    static final int SPEED_TARGET = 6;
+    static final int BULLET = 7;        // x,y center
+    static final int PARTICLE = 8;      // x,y center; size = current size; variant = RGB
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    int count;
+    int starCount; // Stars come first and are drawn below the grid
+    int[] kind = new int[INITIAL_CAPACITY];
+    float[] x = new float[INITIAL_CAPACITY];
+    float[] y = new float[INITIAL_CAPACITY];
+    float[] size = new float[INITIAL_CAPACITY];
+    float[] phase = new float[INITIAL_CAPACITY];
+    float[] alpha = new float[INITIAL_CAPACITY];
+    float[] aux = new float[INITIAL_CAPACITY];
+    float[] aux2 = new float[INITIAL_CAPACITY];
+    int[] variant = new int[INITIAL_CAPACITY];
+
+    // Frame-wide state for screens, HUD and stats panel
+    boolean gameStarted;
+    boolean gameClose;
+    boolean newGlobalRecord;
+    boolean newSessionRecord;
+    boolean soundMuted;
+    boolean autopilot;
+    AudioStats audioStats; // Live source of the debug overlay (null = overlay hidden)
+    FrameStats frameStats; // Live source of the performance overlay (null = overlay hidden)
+    FireSnakeGame.FrameRenderer.Quality quality = FireSnakeGame.FrameRenderer.Quality.HIGH;
+    int score;
+    int globalHighScore;
+    int sessionHighScore;
+    int totalShots;
+    int targetsHit;
+    int foodEaten;
+    long rank;           // Leaderboard rank of the finished game (0 = not ranked)
+    long rankTotal;
+    double percentBelow;
+    int snakeLength;
+    int slowdownTimer;
+    int speedupTimer;
+    int foodTimer;
+    int foodX, foodY;
+    int headDirX, headDirY;
+    float foodPulse;
+
+    void clear() {
+        count = 0;
+        starCount = 0;
+    }
+
+    // Append a command and return its index (for setting variant/aux)
+    int add(int commandKind, float cx, float cy, float commandSize, float commandPhase, float commandAlpha) {
+        if (count == kind.length) {
+            grow();
+        }
+        int i = count++;
+        kind[i] = commandKind;
+        x[i] = cx;
+        y[i] = cy;
+        size[i] = commandSize;
+        phase[i] = commandPhase;
+        alpha[i] = commandAlpha;
+        aux[i] = 0;
+        aux2[i] = 0;
+        variant[i] = 0;
+        return i;
+    }
+
+    private void grow() {
+        int capacity = kind.length * 2;
+        kind = Arrays.copyOf(kind, capacity);
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        size = Arrays.copyOf(size, capacity);
+        phase = Arrays.copyOf(phase, capacity);
+        alpha = Arrays.copyOf(alpha, capacity);
+        aux = Arrays.copyOf(aux, capacity);
+        aux2 = Arrays.copyOf(aux2, capacity);
+        variant = Arrays.copyOf(variant, capacity);
+    }
+}
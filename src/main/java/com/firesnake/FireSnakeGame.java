@@ -1,27 +1,34 @@
 package com.firesnake;
 
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 import javax.swing.*;
-import javax.sound.sampled.*;
 import java.awt.*;
 import java.awt.event.*;
 import java.awt.geom.*;
+import java.awt.image.BufferedImage;
 import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.Queue;
 import java.util.Random;
+import java.util.concurrent.locks.LockSupport;
 
 public class FireSnakeGame extends JPanel implements ActionListener, KeyListener {
     
     // Screen dimensions
-    private static final int GAME_WIDTH = 800;
-    private static final int GAME_HEIGHT = 600;
+    static final int GAME_WIDTH = 800;
+    static final int GAME_HEIGHT = 600;
     private static final int STATS_WIDTH = 220;
     private static final int TOTAL_WIDTH = GAME_WIDTH + STATS_WIDTH;
     
     // Snake properties
-    private static final int BLOCK_SIZE = 20;
-    private static final int NORMAL_DELAY = 1000 / 12; // 12 FPS
+    static final int BLOCK_SIZE = 20;
+    static final int NORMAL_DELAY = 1000 / 12; // 12 FPS
     private static final int SLOW_DELAY = 1000 / 6;    // 6 FPS (2x slower)
     private static final int FAST_DELAY = 1000 / 24;   // 24 FPS (2x faster)
     private int currentDelay = NORMAL_DELAY;
@@ -47,6 +54,8 @@ public class FireSnakeGame extends JPanel implements ActionListener, KeyListener
     // UI colors
     private static final Color TEXT_COLOR = new Color(255, 255, 255);
     private static final Color SCORE_GLOW = new Color(0, 255, 150, 100);
+    private static final Color DEBUG_BG = new Color(0, 0, 0, 190);
+    private static final Color DEBUG_AXIS = new Color(255, 255, 255, 80);
     
     // Particle colors
     private static final Color[] PARTICLE_COLORS = {
@@ -95,6 +104,20 @@ public class FireSnakeGame extends JPanel implements ActionListener, KeyListener
             this.name = name;
         }
     }
+    // Cached so per-frame lookups by ordinal don't clone values()
+    private static final TargetType[] TARGET_TYPES = TargetType.values();
+    
+    // Telemetry code for a square target type (no name lookup on the hit path)
+    private static Telemetry.Target telemetryTarget(TargetType type) {
+        switch (type) {
+            case COMMON: return Telemetry.Target.COMMON;
+            case FAST: return Telemetry.Target.FAST;
+            case RARE: return Telemetry.Target.RARE;
+            case EPIC: return Telemetry.Target.EPIC;
+            case LEGENDARY: return Telemetry.Target.LEGENDARY;
+            default: throw new IllegalArgumentException("Unknown target type: " + type);
+        }
+    }
     
     // Game state
     private ArrayList<int[]> snakeList;
@@ -115,6 +138,14 @@ public class FireSnakeGame extends JPanel implements ActionListener, KeyListener
     
     // High score file
     private static final String HIGH_SCORE_FILE = "fire_snake_highscore.dat";
+    private final HighScoreStore highScores = new HighScoreStore(new File(HIGH_SCORE_FILE));
+    
+    // Every finished game, for the rank on the game over screen
+    private static final String LEADERBOARD_FILE = "fire_snake_leaderboard.dat";
+    private final Leaderboard leaderboard = new Leaderboard(new File(LEADERBOARD_FILE));
+    private long lastRank;       // Rank of the last finished game (0 = not ranked)
+    private long lastRankTotal;
+    private double lastPercentBelow;
     
     // Auto-fire when holding space
     private boolean spacePressed = false;
@@ -133,6 +164,7 @@ public class FireSnakeGame extends JPanel implements ActionListener, KeyListener
     private int totalShots;
     private int targetsHit;
     private int foodEaten;
+    private int gameDurationMs; // Simulated time played
     
     // Direction queue for smooth controls
     private Queue<int[]> directionQueue;
@@ -160,12 +192,74 @@ public class FireSnakeGame extends JPanel implements ActionListener, KeyListener
     private Timer timer;
     private Random random;
     
+    // Deterministic replay: every run is fully described by its seed and input log
+    private final long seed;
+    private final boolean headless; // No window, no timer, no audio (offline rendering)
+    private final boolean offlineAudio; // Headless, but audio is mixed on demand (renderAudioBlock)
+    private long tickCount = 0;
+    private final InputLog inputLog;
+    private boolean exitRequested = false;
+    
+    // Directory for recorded run logs (null = recording to disk disabled)
+    private static final String RUNS_DIR = System.getProperty("firesnake.runsDir");
+    
+    // Directory for the gameplay telemetry journal (null = telemetry disabled)
+    private static final String TELEMETRY_DIR = System.getProperty("firesnake.telemetryDir");
+    private final Telemetry telemetry;
+    
+    // Directory with user songs (menu.song, game.song) replacing the built-in ones (optional)
+    private static final String MUSIC_DIR = System.getProperty("firesnake.musicDir");
+    
+    // Rendering runs on its own thread: each tick publishes a display list through a
+    // triple buffer, the render thread rasterizes the newest one into an offscreen frame
+    // and the EDT only blits finished frames
+    private final TripleBuffer<DisplayList> displayLists = new TripleBuffer<>(DisplayList::new);
+    private final TripleBuffer<RenderedFrame> renderedFrames = new TripleBuffer<>(RenderedFrame::new);
+    private volatile Thread renderThread;
+    private volatile long deviceViewSize;
+    private final AffineTransform blitTransform = new AffineTransform();
+    private boolean firstFrameShown = false; // EDT only
+    private static final long RENDER_IDLE_WAIT_NS = 5_000_000;
+    private DisplayList scratchDisplayList; // For synchronous renderFrame()
+    private FrameRenderer scratchRenderer;
+    
     // Retro Sound Engine for 8-bit style sounds
     private RetroSoundEngine soundEngine;
+    private final AudioStats audioStats = new AudioStats(); // Filled in by the mixer
     
     // Sound/Music mute state
     private boolean soundMuted = false;
     
+    // Debug overlay with audio latency histograms and counters (F3; F4 exports them)
+    private boolean debugOverlay = false;
+    private boolean perfOverlay = false;
+    // Autopilot (F6): steers to the food around dangerous targets, walls and the body
+    private boolean autopilotOn = false;
+    private final Autopilot autopilot = new Autopilot(GAME_WIDTH / BLOCK_SIZE, GAME_HEIGHT / BLOCK_SIZE);
+    private Telemetry.Cause deathCause = null; // Of the last finished game
+    // Off for synthetic games (JIT warm-up) so Flight Recorder recordings only show real play
+    private boolean jfrEvents = true;
+    
+    // Tick and render timing, shown by the performance overlay (F5) and written at exit to
+    // the file named by -Dfiresnake.frameStatsFile (if set)
+    private final FrameStats frameStats = new FrameStats();
+    private static final String FRAME_STATS_FILE = System.getProperty("firesnake.frameStatsFile");
+    
+    // Live counters and gauges for the JMX beans (GameMonitor, AudioMonitor) and the
+    // Prometheus endpoint, which is only served when a port is given
+    private final GameMetrics metrics = new GameMetrics();
+    private static final String METRICS_PORT = System.getProperty("firesnake.metricsPort");
+    private static final String METRICS_HOST = System.getProperty("firesnake.metricsHost", "127.0.0.1");
+    
+    // Optional JIT warm-up while the start screen shows (see JitWarmup)
+    private static final boolean JIT_WARMUP = Boolean.getBoolean("firesnake.jitWarmup");
+    private JitWarmup jitWarmup; // null = not running
+    
+    // Runtime tuning, settable over JMX. Particles over the cap are not spawned.
+    private static final int DEFAULT_PARTICLE_CAP = 4096;
+    private volatile int particleCap = DEFAULT_PARTICLE_CAP;
+    private volatile FrameRenderer.Quality quality = FrameRenderer.Quality.HIGH;
+    
     // Background music engine
     private MusicEngine musicEngine;
     
@@ -176,474 +270,210 @@ public class FireSnakeGame extends JPanel implements ActionListener, KeyListener
     private int foodTimer = 0;
     private static final int FOOD_TIME_LIMIT = 120; // 10 seconds at 12 FPS
     
-    // Inner class for generating retro 8-bit style sounds
+    // Inner class for retro 8-bit style sound effects (played from the precomputed SoundBank)
     private class RetroSoundEngine {
-        private static final int SAMPLE_RATE = 44100;
-        
-        RetroSoundEngine() {}
-        
-        // Generate square wave (classic 8-bit sound)
-        private byte[] generateSquareWave(double frequency, int durationMs, double volume) {
-            int numSamples = (int)(SAMPLE_RATE * durationMs / 1000.0);
-            byte[] buffer = new byte[numSamples];
-            double period = SAMPLE_RATE / frequency;
-            
-            for (int i = 0; i < numSamples; i++) {
-                double phase = (i % period) / period;
-                byte value = (byte)(phase < 0.5 ? 127 * volume : -127 * volume);
-                // Apply simple envelope for decay
-                double envelope = 1.0 - ((double)i / numSamples);
-                buffer[i] = (byte)(value * envelope);
+        // Output format negotiated with the sound device; fixed when there is no device.
+        // Live games choose the device on the audio-init thread (null until then).
+        private volatile AudioMixer mixer = headless ? AudioMixer.offline(audioStats) : null;
+        private volatile SoundBank bank; // null until synthesized (set after the mixer)
+        // Not the game's random; seeded from the run offline so renders repeat exactly
+        private final Random variation = offlineAudio ? new Random(seed) : new Random();
+        
+        RetroSoundEngine() {
+            if (offlineAudio) {
+                bank = SoundBank.build(mixer.getSampleRate());
             }
-            return buffer;
         }
         
-        // Generate noise (for explosions)
-        private byte[] generateNoise(int durationMs, double volume) {
-            int numSamples = (int)(SAMPLE_RATE * durationMs / 1000.0);
-            byte[] buffer = new byte[numSamples];
-            Random noiseRandom = new Random();
-            
-            for (int i = 0; i < numSamples; i++) {
-                // Apply decay envelope for explosion effect
-                double envelope = 1.0 - ((double)i / numSamples);
-                envelope = Math.pow(envelope, 0.5); // Faster decay
-                buffer[i] = (byte)(noiseRandom.nextInt(256) - 128 * volume * envelope);
+        // Live: open the sound device and start mixing; probing Java Sound can take a while
+        AudioMixer startDevice() {
+            AudioMixer device = AudioMixer.forDevice(audioStats);
+            device.start();
+            mixer = device;
+            return device;
+        }
+        
+        // Live: synthesize all effects once; effects are silent until then
+        void buildBank() {
+            bank = SoundBank.build(mixer.getSampleRate());
+        }
+        
+        // Trigger an effect with random pitch/volume spread (0 = exact) so repeats don't sound identical
+        private void play(SoundBank.Effect effect, float pitchSpread, float volumeSpread) {
+            SoundBank sounds = bank;
+            if (soundMuted || sounds == null) return; // No bank yet, or headless without audio
+            float pitch = 1 + (variation.nextFloat() * 2 - 1) * pitchSpread;
+            float volume = 1 - variation.nextFloat() * volumeSpread;
+            boolean accepted = mixer.play(sounds.get(effect), effect.priority, pitch, volume);
+            GameEvents.SoundTrigger event = new GameEvents.SoundTrigger();
+            if (jfrEvents && event.shouldCommit()) {
+                event.effect = effect.name();
+                event.priority = effect.priority;
+                event.pitch = pitch;
+                event.volume = volume;
+                event.accepted = accepted;
+                event.commit();
             }
-            return buffer;
-        }
-        
-        // Generate frequency sweep (for shooting sound)
-        private byte[] generateSweep(double startFreq, double endFreq, int durationMs, double volume) {
-            int numSamples = (int)(SAMPLE_RATE * durationMs / 1000.0);
-            byte[] buffer = new byte[numSamples];
-            
-            double phase = 0;
-            for (int i = 0; i < numSamples; i++) {
-                double progress = (double)i / numSamples;
-                double currentFreq = startFreq + (endFreq - startFreq) * progress;
-                double envelope = 1.0 - progress;
-                
-                phase += 2 * Math.PI * currentFreq / SAMPLE_RATE;
-                // Square wave
-                double value = Math.sin(phase) > 0 ? 127 : -127;
-                buffer[i] = (byte)(value * volume * envelope);
-            }
-            return buffer;
-        }
-        
-        private void playSound(byte[] buffer) {
-            if (soundMuted) return;
-            new Thread(() -> {
-                try {
-                    AudioFormat format = new AudioFormat(SAMPLE_RATE, 8, 1, true, false);
-                    DataLine.Info info = new DataLine.Info(SourceDataLine.class, format);
-                    SourceDataLine line = (SourceDataLine) AudioSystem.getLine(info);
-                    line.open(format);
-                    line.start();
-                    line.write(buffer, 0, buffer.length);
-                    line.drain();
-                    line.close();
-                } catch (Exception e) {
-                    // Silently ignore audio errors
-                }
-            }).start();
         }
         
         // Shooting sound - high-pitched sweep down
         void playShoot() {
-            if (soundMuted) return;
-            byte[] sound = generateSweep(1200, 400, 80, 0.5);
-            playSound(sound);
+            play(SoundBank.Effect.SHOOT, 0.04f, 0.1f);
         }
         
         // Explosion sound - noise burst with bass
         void playExplosion() {
-            if (soundMuted) return;
-            int duration = 150;
-            byte[] noise = generateNoise(duration, 0.6);
-            byte[] bass = generateSquareWave(80, duration, 0.4);
-            
-            // Mix noise and bass
-            byte[] mixed = new byte[noise.length];
-            for (int i = 0; i < noise.length && i < bass.length; i++) {
-                mixed[i] = (byte)Math.max(-127, Math.min(127, (noise[i] + bass[i]) / 2));
-            }
-            playSound(mixed);
+            play(SoundBank.Effect.EXPLOSION, 0.08f, 0.1f);
         }
         
         // Collision/hit sound - short noise burst
         void playHit() {
-            if (soundMuted) return;
-            byte[] sound = generateNoise(60, 0.4);
-            playSound(sound);
+            play(SoundBank.Effect.HIT, 0.08f, 0.1f);
         }
         
         // Power-up sound (for slow/speed effects)
         void playPowerUp() {
-            if (soundMuted) return;
-            byte[] sound = generateSweep(300, 1000, 150, 0.4);
-            playSound(sound);
+            play(SoundBank.Effect.POWER_UP, 0, 0);
         }
         
         // Shrink sound - descending tone
         void playShrink() {
-            if (soundMuted) return;
-            byte[] sound = generateSweep(800, 200, 200, 0.5);
-            playSound(sound);
+            play(SoundBank.Effect.SHRINK, 0, 0);
         }
         
         // Game over sound
         void playGameOver() {
-            if (soundMuted) return;
-            new Thread(() -> {
-                try {
-                    // Play descending tones
-                    byte[] tone1 = generateSquareWave(400, 150, 0.5);
-                    byte[] tone2 = generateSquareWave(300, 150, 0.5);
-                    byte[] tone3 = generateSquareWave(200, 300, 0.5);
-                    
-                    AudioFormat format = new AudioFormat(SAMPLE_RATE, 8, 1, true, false);
-                    DataLine.Info info = new DataLine.Info(SourceDataLine.class, format);
-                    SourceDataLine line = (SourceDataLine) AudioSystem.getLine(info);
-                    line.open(format);
-                    line.start();
-                    line.write(tone1, 0, tone1.length);
-                    line.write(tone2, 0, tone2.length);
-                    line.write(tone3, 0, tone3.length);
-                    line.drain();
-                    line.close();
-                } catch (Exception e) {
-                    // Silently ignore audio errors
-                }
-            }).start();
+            play(SoundBank.Effect.GAME_OVER, 0, 0);
         }
         
         // Food eaten sound - quick ascending blip
         void playEat() {
-            if (soundMuted) return;
-            byte[] sound = generateSweep(500, 900, 50, 0.3);
-            playSound(sound);
+            play(SoundBank.Effect.EAT, 0.03f, 0);
         }
         
         // Speed boost sound
         void playSpeedUp() {
-            if (soundMuted) return;
-            byte[] sound = generateSweep(400, 1500, 200, 0.4);
-            playSound(sound);
+            play(SoundBank.Effect.SPEED_UP, 0, 0);
         }
         
-        // Victory sound - new high score!
         // Session record sound - short ascending fanfare
         void playSessionRecord() {
-            if (soundMuted) return;
-            new Thread(() -> {
-                try {
-                    // Short victory jingle for session record
-                    byte[] tone1 = generateSquareWave(440.00, 80, 0.5); // A4
-                    byte[] tone2 = generateSquareWave(554.37, 80, 0.5); // C#5
-                    byte[] tone3 = generateSquareWave(659.25, 150, 0.55); // E5
-                    
-                    AudioFormat format = new AudioFormat(SAMPLE_RATE, 8, 1, true, false);
-                    DataLine.Info info = new DataLine.Info(SourceDataLine.class, format);
-                    SourceDataLine line = (SourceDataLine) AudioSystem.getLine(info);
-                    line.open(format);
-                    line.start();
-                    line.write(tone1, 0, tone1.length);
-                    line.write(tone2, 0, tone2.length);
-                    line.write(tone3, 0, tone3.length);
-                    line.drain();
-                    line.close();
-                } catch (Exception e) {
-                    // Silently ignore
-                }
-            }).start();
+            play(SoundBank.Effect.SESSION_RECORD, 0, 0);
         }
         
         // Global record sound - epic triumphant fanfare (longer, more impressive)
         void playGlobalRecord() {
-            if (soundMuted) return;
-            new Thread(() -> {
-                try {
-                    // Epic victory fanfare for GLOBAL record - "You beat the record!"
-                    byte[] tone1 = generateSquareWave(523.25, 100, 0.5); // C5
-                    byte[] tone2 = generateSquareWave(659.25, 100, 0.5); // E5
-                    byte[] tone3 = generateSquareWave(783.99, 100, 0.5); // G5
-                    byte[] pause = new byte[(int)(SAMPLE_RATE * 0.05)]; // Short pause
-                    byte[] tone4 = generateSquareWave(783.99, 100, 0.55); // G5
-                    byte[] tone5 = generateSquareWave(880.00, 100, 0.55); // A5
-                    byte[] tone6 = generateSquareWave(1046.50, 400, 0.6); // C6 (long final note)
-                    
-                    AudioFormat format = new AudioFormat(SAMPLE_RATE, 8, 1, true, false);
-                    DataLine.Info info = new DataLine.Info(SourceDataLine.class, format);
-                    SourceDataLine line = (SourceDataLine) AudioSystem.getLine(info);
-                    line.open(format);
-                    line.start();
-                    line.write(tone1, 0, tone1.length);
-                    line.write(tone2, 0, tone2.length);
-                    line.write(tone3, 0, tone3.length);
-                    line.write(pause, 0, pause.length);
-                    line.write(tone4, 0, tone4.length);
-                    line.write(tone5, 0, tone5.length);
-                    line.write(tone6, 0, tone6.length);
-                    line.drain();
-                    line.close();
-                } catch (Exception e) {
-                    // Silently ignore
-                }
-            }).start();
+            play(SoundBank.Effect.GLOBAL_RECORD, 0, 0);
         }
     }
     
-    // Background music engine - generates looping 8-bit style music
+    // Background music engine - plays the looping 8-bit style songs from music/*.song
     private class MusicEngine {
-        private static final int SAMPLE_RATE = 44100;
-        private volatile boolean playing = false;
-        private volatile boolean isMenuMusic = true;
-        private Thread musicThread;
-        private SourceDataLine currentLine;
-        private volatile double tempoMultiplier = 1.0; // Speed multiplier for game music
+        private boolean isMenuMusic = true;
+        private boolean playing = false;  // A song was started and not stopped since
+        private double tempo = 1.0;
+        
+        // Songs are data; notes are rendered once, so playback allocates nothing at any tempo.
+        // Music plays through the sound effect mixer's line; switching songs only hands a new
+        // sequencer to the persistent music stream, which crossfades on its own thread
+        // (or when the mixer pulls it, with offline audio). Until attach() the engine only
+        // remembers what should play; attach() then starts it from the beginning.
+        private int sampleRate;
+        private NoteCache notes;
+        private MusicStream stream; // null until attached to the mixer
+        private Song menuSong;
+        private Song gameSong;
+        
+        // Load the songs and start the music stream on the mixer (the audio-init thread for
+        // live games). Only the quick handover holds the lock the game thread uses.
+        void attach(AudioMixer mixer) {
+            Song menu = loadSong("menu");
+            Song game = loadSong("game");
+            int rate = mixer.getSampleRate();
+            NoteCache cache = new NoteCache(rate);
+            MusicStream created = new MusicStream(rate, () -> soundMuted);
+            if (!headless) {
+                created.start();
+            }
+            synchronized (this) {
+                sampleRate = rate;
+                notes = cache;
+                menuSong = menu;
+                gameSong = game;
+                stream = created;
+                stream.setTempo(tempo);
+                mixer.setMusic(stream);
+                if (playing) {
+                    startSong(isMenuMusic ? menuSong : gameSong);
+                }
+            }
+        }
         
-        MusicEngine() {}
+        // A file in -Dfiresnake.musicDir replaces the built-in song of the same name
+        private Song loadSong(String name) {
+            String fileName = name + ".song";
+            if (MUSIC_DIR != null) {
+                File file = new File(MUSIC_DIR, fileName);
+                if (file.isFile()) {
+                    try (InputStream in = new FileInputStream(file)) {
+                        return Song.load(fileName, in);
+                    } catch (IOException e) {
+                        System.err.println("Ignoring song " + file + ": " + e.getMessage());
+                        audioStats.songLoadFailures++;
+                    }
+                }
+            }
+            try (InputStream in = FireSnakeGame.class.getResourceAsStream("/music/" + fileName)) {
+                return in == null ? null : Song.load(fileName, in);
+            } catch (IOException e) {
+                audioStats.songLoadFailures++;
+                return null;
+            }
+        }
         
-        void startMenuMusic() {
-            stopMusic();
+        synchronized void startMenuMusic() {
+            if (headless && !offlineAudio) return;
             isMenuMusic = true;
             playing = true;
-            tempoMultiplier = 1.0;
-            musicThread = new Thread(this::playMenuLoop);
-            musicThread.start();
+            setTempoMultiplier(1.0);
+            if (stream != null) {
+                startSong(menuSong);
+            }
         }
         
-        void startGameMusic() {
-            stopMusic();
+        synchronized void startGameMusic() {
+            if (headless && !offlineAudio) return;
             isMenuMusic = false;
             playing = true;
-            tempoMultiplier = 1.0;
-            musicThread = new Thread(this::playGameLoop);
-            musicThread.start();
-        }
-        
-        void setTempoMultiplier(double multiplier) {
-            this.tempoMultiplier = Math.min(3.0, multiplier); // Cap at 3x speed
-        }
-        
-        double getTempoMultiplier() {
-            return tempoMultiplier;
-        }
-        
-        void stopMusic() {
-            playing = false;
-            if (currentLine != null) {
-                currentLine.stop();
-                currentLine.close();
-                currentLine = null;
-            }
-            if (musicThread != null) {
-                musicThread.interrupt();
-                musicThread = null;
+            setTempoMultiplier(1.0);
+            if (stream != null) {
+                startSong(gameSong);
             }
         }
         
-        // Generate a note with proper envelope (attack, decay)
-        private byte[] generateNote(double frequency, int durationMs, double volume, String waveType) {
-            int numSamples = (int)(SAMPLE_RATE * durationMs / 1000.0);
-            byte[] buffer = new byte[numSamples];
-            double period = SAMPLE_RATE / frequency;
-            
-            int attackSamples = Math.min(numSamples / 10, (int)(SAMPLE_RATE * 0.01));
-            int releaseSamples = numSamples / 4;
-            
-            for (int i = 0; i < numSamples; i++) {
-                double phase = (i % period) / period;
-                double value = 0;
-                
-                switch (waveType) {
-                    case "square":
-                        value = phase < 0.5 ? 1 : -1;
-                        // Soften square wave a bit
-                        value *= 0.7;
-                        break;
-                    case "triangle":
-                        value = phase < 0.5 ? (4 * phase - 1) : (3 - 4 * phase);
-                        break;
-                    case "pulse25":
-                        value = phase < 0.25 ? 1 : -1;
-                        value *= 0.6;
-                        break;
-                    default:
-                        value = Math.sin(2 * Math.PI * phase);
-                }
-                
-                // Envelope
-                double env = 1.0;
-                if (i < attackSamples) {
-                    env = (double) i / attackSamples;
-                } else if (i > numSamples - releaseSamples) {
-                    env = (double)(numSamples - i) / releaseSamples;
-                }
-                
-                buffer[i] = (byte)(value * 50 * volume * env);
-            }
-            return buffer;
+        // Each start plays the song from its beginning
+        private void startSong(Song song) {
+            stream.play(song == null ? null : new Sequencer(song, notes, sampleRate));
         }
         
-        private void playMenuLoop() {
-            try {
-                AudioFormat format = new AudioFormat(SAMPLE_RATE, 8, 1, true, false);
-                DataLine.Info info = new DataLine.Info(SourceDataLine.class, format);
-                currentLine = (SourceDataLine) AudioSystem.getLine(info);
-                currentLine.open(format);
-                currentLine.start();
-                
-                // Menu music - calm, mysterious melody (like classic game title screens)
-                // E minor pentatonic
-                double E3 = 164.81, G3 = 196.00, A3 = 220.00, B3 = 246.94, D4 = 293.66, E4 = 329.63;
-                
-                while (playing) {
-                    if (soundMuted) {
-                        Thread.sleep(100);
-                        continue;
-                    }
-                    
-                    // Gentle melody pattern
-                    int noteDur = 300;
-                    
-                    // Phrase 1
-                    playNote(E3, noteDur, 0.4, "triangle");
-                    playNote(G3, noteDur, 0.35, "triangle");
-                    playNote(A3, noteDur, 0.4, "triangle");
-                    playNote(G3, noteDur, 0.35, "triangle");
-                    
-                    // Phrase 2
-                    playNote(B3, noteDur, 0.4, "triangle");
-                    playNote(A3, noteDur, 0.35, "triangle");
-                    playNote(G3, noteDur, 0.4, "triangle");
-                    playNote(E3, noteDur * 2, 0.35, "triangle");
-                    
-                    // Phrase 3 - higher
-                    playNote(D4, noteDur, 0.35, "triangle");
-                    playNote(B3, noteDur, 0.3, "triangle");
-                    playNote(A3, noteDur, 0.35, "triangle");
-                    playNote(G3, noteDur * 2, 0.3, "triangle");
-                    
-                    // Rest
-                    Thread.sleep(400);
-                }
-                
-                currentLine.drain();
-                currentLine.close();
-            } catch (Exception e) {
-                // Silently ignore
+        synchronized void setTempoMultiplier(double multiplier) {
+            tempo = Math.min(3.0, multiplier); // Cap at 3x speed
+            if (stream != null) {
+                stream.setTempo(tempo);
             }
         }
         
-        private void playNote(double freq, int duration, double volume, String waveType) {
-            if (!playing || soundMuted || currentLine == null) return;
-            byte[] note = generateNote(freq, duration, volume, waveType);
-            currentLine.write(note, 0, note.length);
+        synchronized double getTempoMultiplier() {
+            return tempo;
         }
         
-        private void playGameLoop() {
-            try {
-                AudioFormat format = new AudioFormat(SAMPLE_RATE, 8, 1, true, false);
-                DataLine.Info info = new DataLine.Info(SourceDataLine.class, format);
-                currentLine = (SourceDataLine) AudioSystem.getLine(info);
-                currentLine.open(format);
-                currentLine.start();
-                
-                // Game music - catchy, upbeat melody inspired by classic games
-                // C major / A minor scale for a fun feel
-                double C4 = 261.63, D4 = 293.66, E4 = 329.63, F4 = 349.23;
-                double G4 = 392.00, A4 = 440.00, B4 = 493.88, C5 = 523.25;
-                double C3 = 130.81, E3 = 164.81, G3 = 196.00, A3 = 220.00;
-                
-                int measure = 0;
-                
-                while (playing) {
-                    if (soundMuted) {
-                        Thread.sleep(100);
-                        continue;
-                    }
-                    
-                    // Base note duration adjusted by tempo
-                    int baseNote = (int)(150 / tempoMultiplier);
-                    int halfNote = (int)(75 / tempoMultiplier);
-                    int longNote = (int)(300 / tempoMultiplier);
-                    
-                    measure++;
-                    
-                    // Main catchy melody (like classic arcade games)
-                    switch (measure % 4) {
-                        case 0:
-                            // Rising phrase
-                            playGameNote(C4, baseNote, 0.4, "pulse25");
-                            playGameNote(E4, halfNote, 0.35, "pulse25");
-                            playGameNote(G4, baseNote, 0.4, "pulse25");
-                            playGameNote(C5, longNote, 0.45, "pulse25");
-                            // Bass
-                            playGameNote(C3, baseNote, 0.5, "triangle");
-                            playGameNote(G3, baseNote, 0.45, "triangle");
-                            break;
-                            
-                        case 1:
-                            // Descending phrase  
-                            playGameNote(B4, halfNote, 0.35, "pulse25");
-                            playGameNote(G4, halfNote, 0.35, "pulse25");
-                            playGameNote(E4, baseNote, 0.4, "pulse25");
-                            playGameNote(D4, baseNote, 0.4, "pulse25");
-                            playGameNote(C4, longNote, 0.4, "pulse25");
-                            // Bass
-                            playGameNote(E3, baseNote, 0.5, "triangle");
-                            playGameNote(C3, baseNote, 0.45, "triangle");
-                            break;
-                            
-                        case 2:
-                            // Bounce pattern
-                            playGameNote(A4, halfNote, 0.4, "pulse25");
-                            playGameNote(E4, halfNote, 0.35, "pulse25");
-                            playGameNote(A4, halfNote, 0.4, "pulse25");
-                            playGameNote(E4, halfNote, 0.35, "pulse25");
-                            playGameNote(G4, baseNote, 0.4, "pulse25");
-                            playGameNote(F4, baseNote, 0.35, "pulse25");
-                            playGameNote(E4, baseNote, 0.4, "pulse25");
-                            // Bass
-                            playGameNote(A3, baseNote, 0.5, "triangle");
-                            playGameNote(E3, baseNote, 0.45, "triangle");
-                            break;
-                            
-                        case 3:
-                            // Resolution
-                            playGameNote(D4, baseNote, 0.4, "pulse25");
-                            playGameNote(E4, baseNote, 0.4, "pulse25");
-                            playGameNote(F4, halfNote, 0.35, "pulse25");
-                            playGameNote(G4, longNote, 0.45, "pulse25");
-                            // Short rest
-                            Thread.sleep((int)(100 / tempoMultiplier));
-                            // Final note
-                            playGameNote(C4, longNote, 0.4, "pulse25");
-                            // Bass
-                            playGameNote(G3, baseNote, 0.5, "triangle");
-                            playGameNote(C3, longNote, 0.5, "triangle");
-                            break;
-                    }
-                    
-                    // Small pause between measures
-                    Thread.sleep((int)(50 / tempoMultiplier));
-                }
-                
-                currentLine.drain();
-                currentLine.close();
-            } catch (Exception e) {
-                // Silently ignore
+        // Fade the music out
+        synchronized void stopMusic() {
+            playing = false;
+            if (stream != null) {
+                stream.play(null);
             }
         }
-        
-        private void playGameNote(double freq, int duration, double volume, String waveType) {
-            if (!playing || soundMuted || currentLine == null) return;
-            byte[] note = generateNote(freq, duration, volume, waveType);
-            currentLine.write(note, 0, note.length);
-        }
     }
     
     // Star class for hyperspace effect - stars fly towards us from center
@@ -676,10 +506,19 @@ public class FireSnakeGame extends JPanel implements ActionListener, KeyListener
             z -= speed;
             if (z <= 0.01f) {
                 reset();
+                return;
+            }
+            
+            // Reset stars that left the screen here rather than in draw(),
+            // so rendering never touches the simulation's random sequence
+            float screenX = GAME_WIDTH / 2f + (x / z) * GAME_WIDTH * 0.5f;
+            float screenY = GAME_HEIGHT / 2f + (y / z) * GAME_HEIGHT * 0.5f;
+            if (screenX < 0 || screenX > GAME_WIDTH || screenY < 0 || screenY > GAME_HEIGHT) {
+                reset();
             }
         }
         
-        void draw(Graphics2D g2d) {
+        void emit(DisplayList dl) {
             // Project to screen - stars fly outward from center
             float screenX = GAME_WIDTH / 2f + (x / z) * GAME_WIDTH * 0.5f;
             float screenY = GAME_HEIGHT / 2f + (y / z) * GAME_HEIGHT * 0.5f;
@@ -691,7 +530,6 @@ public class FireSnakeGame extends JPanel implements ActionListener, KeyListener
             
             // Check bounds
             if (screenX < 0 || screenX > GAME_WIDTH || screenY < 0 || screenY > GAME_HEIGHT) {
-                reset();
                 return;
             }
             
@@ -701,15 +539,10 @@ public class FireSnakeGame extends JPanel implements ActionListener, KeyListener
             float size = 1 + proximity * 2;
             
             if (brightness > 20) {
-                // Draw trail line
-                g2d.setColor(new Color(200, 200, 255, brightness / 3));
-                g2d.setStroke(new BasicStroke(Math.max(0.5f, size * 0.3f)));
-                g2d.drawLine((int) prevScreenX, (int) prevScreenY, (int) screenX, (int) screenY);
-                
-                // Draw star as small circle (dot)
-                g2d.setColor(new Color(255, 255, 255, brightness));
-                int dotSize = Math.max(1, (int) size);
-                g2d.fillOval((int)(screenX - dotSize/2), (int)(screenY - dotSize/2), dotSize, dotSize);
+                int i = dl.add(DisplayList.STAR, screenX, screenY, size, 0, 1);
+                dl.aux[i] = prevScreenX;
+                dl.aux2[i] = prevScreenY;
+                dl.variant[i] = brightness;
             }
         }
     }
@@ -746,17 +579,15 @@ public class FireSnakeGame extends JPanel implements ActionListener, KeyListener
             return life <= 0;
         }
         
-        void draw(Graphics2D g2d) {
+        void emit(DisplayList dl) {
             float alpha = life / maxLife;
-            Color c = new Color(color.getRed(), color.getGreen(), color.getBlue(), (int)(alpha * 255));
-            g2d.setColor(c);
-            float currentSize = size * alpha;
-            g2d.fill(new Ellipse2D.Float(x - currentSize/2, y - currentSize/2, currentSize, currentSize));
+            int i = dl.add(DisplayList.PARTICLE, x, y, size * alpha, 0, alpha);
+            dl.variant[i] = color.getRGB() & 0xFFFFFF;
         }
     }
     
     // Bullet class for shooting
-    private class Bullet {
+    class Bullet {
         float x, y;
         float vx, vy;
         
@@ -782,13 +613,8 @@ public class FireSnakeGame extends JPanel implements ActionListener, KeyListener
             return x < 0 || x > GAME_WIDTH || y < 0 || y > GAME_HEIGHT;
         }
         
-        void draw(Graphics2D g2d) {
-            g2d.setColor(BULLET_GLOW);
-            g2d.fill(new Ellipse2D.Float(x - 8, y - 8, 16, 16));
-            g2d.setColor(BULLET_COLOR);
-            g2d.fill(new Ellipse2D.Float(x - 5, y - 5, 10, 10));
-            g2d.setColor(new Color(255, 255, 255, 200));
-            g2d.fill(new Ellipse2D.Float(x - 3, y - 3, 4, 4));
+        void emit(DisplayList dl) {
+            dl.add(DisplayList.BULLET, x, y, 0, 0, 1);
         }
     }
     
@@ -852,7 +678,7 @@ public class FireSnakeGame extends JPanel implements ActionListener, KeyListener
             return spawnDelay <= 0; // Only dangerous when spawn delay is over
         }
         
-        void draw(Graphics2D g2d) {
+        void emit(DisplayList dl) {
             float alpha = Math.min(1.0f, lifetime / 30.0f);
             
             // Blink effect during spawn delay (inactive period)
@@ -865,52 +691,9 @@ public class FireSnakeGame extends JPanel implements ActionListener, KeyListener
                 }
             }
             
-            int totalSize = gridSize * BLOCK_SIZE;
-            float pulseScale = (float)(Math.sin(pulse) * 0.05 + 1);
-            int size = (int)(totalSize * pulseScale);
-            int offset = (totalSize - size) / 2;
-            
-            // Draw outer glow (square)
-            for (int i = 3; i > 0; i--) {
-                int glowSize = size + i * 6;
-                int glowOffset = (totalSize - glowSize) / 2;
-                g2d.setColor(new Color(type.color.getRed(), type.color.getGreen(), type.color.getBlue(), (int)((30 - i * 8) * alpha)));
-                g2d.fill(new RoundRectangle2D.Float(x + glowOffset, y + glowOffset, glowSize, glowSize, 4, 4));
-            }
-            
-            // Draw target SQUARE
-            GradientPaint targetGradient = new GradientPaint(
-                x, y, new Color(type.innerColor.getRed(), type.innerColor.getGreen(), type.innerColor.getBlue(), (int)(255 * alpha)),
-                x + totalSize, y + totalSize, new Color(type.color.getRed(), type.color.getGreen(), type.color.getBlue(), (int)(255 * alpha))
-            );
-            g2d.setPaint(targetGradient);
-            g2d.fill(new RoundRectangle2D.Float(x + offset, y + offset, size, size, 6, 6));
-            
-            // Draw X pattern (danger indicator) - scaled for larger targets
-            g2d.setColor(new Color(255, 255, 255, (int)(200 * alpha)));
-            g2d.setStroke(new BasicStroke(2 + gridSize - 1));
-            int centerX = x + totalSize / 2;
-            int centerY = y + totalSize / 2;
-            int crossSize = size / 4;
-            g2d.drawLine(centerX - crossSize, centerY - crossSize, centerX + crossSize, centerY + crossSize);
-            g2d.drawLine(centerX + crossSize, centerY - crossSize, centerX - crossSize, centerY + crossSize);
-            
-            // Draw border
-            g2d.setColor(new Color(255, 255, 255, (int)(100 * alpha)));
-            g2d.draw(new RoundRectangle2D.Float(x + offset, y + offset, size, size, 6, 6));
-            
-            // Draw points indicator
-            g2d.setColor(new Color(255, 255, 255, (int)(180 * alpha)));
-            g2d.setFont(new Font("Arial", Font.BOLD, 10 + gridSize * 2));
-            String pts = "+" + type.points;
-            FontMetrics fm = g2d.getFontMetrics();
-            g2d.drawString(pts, centerX - fm.stringWidth(pts)/2, y - 2);
-            
-            // Draw lifetime bar
-            float lifePercent = lifetime / maxLifetime;
-            int barWidth = (int)(totalSize * lifePercent);
-            g2d.setColor(new Color(type.color.getRed(), type.color.getGreen(), type.color.getBlue(), (int)(150 * alpha)));
-            g2d.fillRect(x, y + totalSize + 2, barWidth, 3);
+            int i = dl.add(DisplayList.TARGET, x, y, gridSize, pulse, alpha);
+            dl.variant[i] = type.ordinal();
+            dl.aux[i] = lifetime / maxLifetime;
         }
     }
     
@@ -958,52 +741,10 @@ public class FireSnakeGame extends JPanel implements ActionListener, KeyListener
             return lifetime <= 0;
         }
         
-        void draw(Graphics2D g2d) {
+        void emit(DisplayList dl) {
             float alpha = Math.min(1.0f, lifetime / 30.0f);
-            int totalSize = gridSize * BLOCK_SIZE;
-            float pulseScale = (float)(Math.sin(pulse) * 0.1 + 1);
-            int size = (int)(totalSize * pulseScale);
-            int offset = (totalSize - size) / 2;
-            
-            // Draw outer glow (circle)
-            for (int i = 3; i > 0; i--) {
-                int glowSize = size + i * 6;
-                int glowOffset = (totalSize - glowSize) / 2;
-                g2d.setColor(new Color(SLOW_TARGET_COLOR.getRed(), SLOW_TARGET_COLOR.getGreen(), SLOW_TARGET_COLOR.getBlue(), (int)((30 - i * 8) * alpha)));
-                g2d.fill(new Ellipse2D.Float(x + glowOffset, y + glowOffset, glowSize, glowSize));
-            }
-            
-            // Draw target CIRCLE
-            GradientPaint targetGradient = new GradientPaint(
-                x, y, new Color(SLOW_TARGET_INNER.getRed(), SLOW_TARGET_INNER.getGreen(), SLOW_TARGET_INNER.getBlue(), (int)(255 * alpha)),
-                x + totalSize, y + totalSize, new Color(SLOW_TARGET_COLOR.getRed(), SLOW_TARGET_COLOR.getGreen(), SLOW_TARGET_COLOR.getBlue(), (int)(255 * alpha))
-            );
-            g2d.setPaint(targetGradient);
-            g2d.fill(new Ellipse2D.Float(x + offset, y + offset, size, size));
-            
-            // Draw slow icon (hourglass-like) - scaled
-            g2d.setColor(new Color(255, 255, 255, (int)(200 * alpha)));
-            g2d.setStroke(new BasicStroke(1 + gridSize));
-            int centerX = x + totalSize / 2;
-            int centerY = y + totalSize / 2;
-            int iconSize = 4 * gridSize;
-            g2d.drawLine(centerX - iconSize, centerY - iconSize, centerX + iconSize, centerY - iconSize);
-            g2d.drawLine(centerX - iconSize, centerY + iconSize, centerX + iconSize, centerY + iconSize);
-            g2d.drawLine(centerX - iconSize, centerY - iconSize, centerX, centerY);
-            g2d.drawLine(centerX + iconSize, centerY - iconSize, centerX, centerY);
-            g2d.drawLine(centerX - iconSize, centerY + iconSize, centerX, centerY);
-            g2d.drawLine(centerX + iconSize, centerY + iconSize, centerX, centerY);
-            
-            // Draw "SLOW" text
-            g2d.setColor(new Color(255, 255, 255, (int)(150 * alpha)));
-            g2d.setFont(new Font("Arial", Font.BOLD, 8 + gridSize * 2));
-            g2d.drawString("SLOW", x - 2, y - 2);
-            
-            // Draw lifetime bar
-            float lifePercent = lifetime / maxLifetime;
-            int barWidth = (int)(totalSize * lifePercent);
-            g2d.setColor(new Color(SLOW_TARGET_COLOR.getRed(), SLOW_TARGET_COLOR.getGreen(), SLOW_TARGET_COLOR.getBlue(), (int)(150 * alpha)));
-            g2d.fillRect(x, y + totalSize + 2, barWidth, 3);
+            int i = dl.add(DisplayList.SLOW_TARGET, x, y, gridSize, pulse, alpha);
+            dl.aux[i] = lifetime / maxLifetime;
         }
     }
     
@@ -1051,54 +792,10 @@ public class FireSnakeGame extends JPanel implements ActionListener, KeyListener
             return lifetime <= 0;
         }
         
-        void draw(Graphics2D g2d) {
+        void emit(DisplayList dl) {
             float alpha = Math.min(1.0f, lifetime / 30.0f);
-            int totalSize = gridSize * BLOCK_SIZE;
-            float pulseScale = (float)(Math.sin(pulse) * 0.1 + 1);
-            int size = (int)(totalSize * pulseScale);
-            
-            // Draw outer glow (triangle shape)
-            int centerX = x + totalSize / 2;
-            int centerY = y + totalSize / 2;
-            
-            for (int i = 3; i > 0; i--) {
-                int glowSize = size + i * 4;
-                int[] xPoints = {centerX, centerX - glowSize/2, centerX + glowSize/2};
-                int[] yPoints = {centerY - glowSize/2, centerY + glowSize/2, centerY + glowSize/2};
-                g2d.setColor(new Color(SHRINK_TARGET_COLOR.getRed(), SHRINK_TARGET_COLOR.getGreen(), SHRINK_TARGET_COLOR.getBlue(), (int)((25 - i * 6) * alpha)));
-                g2d.fillPolygon(xPoints, yPoints, 3);
-            }
-            
-            // Draw target TRIANGLE
-            int halfSize = size / 2;
-            int[] xPoints = {centerX, centerX - halfSize, centerX + halfSize};
-            int[] yPoints = {centerY - halfSize, centerY + halfSize, centerY + halfSize};
-            
-            GradientPaint targetGradient = new GradientPaint(
-                centerX, centerY - halfSize, new Color(SHRINK_TARGET_INNER.getRed(), SHRINK_TARGET_INNER.getGreen(), SHRINK_TARGET_INNER.getBlue(), (int)(255 * alpha)),
-                centerX, centerY + halfSize, new Color(SHRINK_TARGET_COLOR.getRed(), SHRINK_TARGET_COLOR.getGreen(), SHRINK_TARGET_COLOR.getBlue(), (int)(255 * alpha))
-            );
-            g2d.setPaint(targetGradient);
-            g2d.fillPolygon(xPoints, yPoints, 3);
-            
-            // Draw down arrow inside (shrink indicator) - scaled
-            g2d.setColor(new Color(255, 255, 255, (int)(200 * alpha)));
-            g2d.setStroke(new BasicStroke(1 + gridSize));
-            int arrowSize = 3 * gridSize;
-            g2d.drawLine(centerX, centerY - arrowSize, centerX, centerY + arrowSize + 1);
-            g2d.drawLine(centerX - arrowSize, centerY + 1, centerX, centerY + arrowSize + 1);
-            g2d.drawLine(centerX + arrowSize, centerY + 1, centerX, centerY + arrowSize + 1);
-            
-            // Draw "/2" text
-            g2d.setColor(new Color(255, 255, 255, (int)(150 * alpha)));
-            g2d.setFont(new Font("Arial", Font.BOLD, 8 + gridSize * 2));
-            g2d.drawString("/2", x + 5, y - 2);
-            
-            // Draw lifetime bar
-            float lifePercent = lifetime / maxLifetime;
-            int barWidth = (int)(totalSize * lifePercent);
-            g2d.setColor(new Color(SHRINK_TARGET_COLOR.getRed(), SHRINK_TARGET_COLOR.getGreen(), SHRINK_TARGET_COLOR.getBlue(), (int)(150 * alpha)));
-            g2d.fillRect(x, y + totalSize + 2, barWidth, 3);
+            int i = dl.add(DisplayList.SHRINK_TARGET, x, y, gridSize, pulse, alpha);
+            dl.aux[i] = lifetime / maxLifetime;
         }
     }
     
@@ -1146,64 +843,47 @@ public class FireSnakeGame extends JPanel implements ActionListener, KeyListener
             return lifetime <= 0;
         }
         
-        void draw(Graphics2D g2d) {
+        void emit(DisplayList dl) {
             float alpha = Math.min(1.0f, lifetime / 30.0f);
-            int totalSize = gridSize * BLOCK_SIZE;
-            float pulseScale = (float)(Math.sin(pulse) * 0.1 + 1);
-            int size = (int)(totalSize * pulseScale);
-            
-            int centerX = x + totalSize / 2;
-            int centerY = y + totalSize / 2;
-            int halfSize = size / 2;
-            
-            // Draw outer glow (diamond shape)
-            for (int i = 3; i > 0; i--) {
-                int glowSize = halfSize + i * 3;
-                int[] xPoints = {centerX, centerX + glowSize, centerX, centerX - glowSize};
-                int[] yPoints = {centerY - glowSize, centerY, centerY + glowSize, centerY};
-                g2d.setColor(new Color(SPEED_TARGET_COLOR.getRed(), SPEED_TARGET_COLOR.getGreen(), SPEED_TARGET_COLOR.getBlue(), (int)((25 - i * 6) * alpha)));
-                g2d.fillPolygon(xPoints, yPoints, 4);
-            }
-            
-            // Draw target DIAMOND
-            int[] xPoints = {centerX, centerX + halfSize, centerX, centerX - halfSize};
-            int[] yPoints = {centerY - halfSize, centerY, centerY + halfSize, centerY};
-            
-            GradientPaint targetGradient = new GradientPaint(
-                centerX, centerY - halfSize, new Color(SPEED_TARGET_INNER.getRed(), SPEED_TARGET_INNER.getGreen(), SPEED_TARGET_INNER.getBlue(), (int)(255 * alpha)),
-                centerX, centerY + halfSize, new Color(SPEED_TARGET_COLOR.getRed(), SPEED_TARGET_COLOR.getGreen(), SPEED_TARGET_COLOR.getBlue(), (int)(255 * alpha))
-            );
-            g2d.setPaint(targetGradient);
-            g2d.fillPolygon(xPoints, yPoints, 4);
-            
-            // Draw lightning bolt inside (speed indicator) - scaled
-            g2d.setColor(new Color(255, 255, 255, (int)(220 * alpha)));
-            g2d.setStroke(new BasicStroke(1 + gridSize));
-            int boltSize = 2 + gridSize * 2;
-            g2d.drawLine(centerX - boltSize/2, centerY - boltSize, centerX + boltSize/2, centerY - boltSize/3);
-            g2d.drawLine(centerX + boltSize/2, centerY - boltSize/3, centerX - boltSize/2, centerY + boltSize/3);
-            g2d.drawLine(centerX - boltSize/2, centerY + boltSize/3, centerX + boltSize/2, centerY + boltSize);
-            
-            // Draw "x2" text
-            g2d.setColor(new Color(255, 255, 255, (int)(150 * alpha)));
-            g2d.setFont(new Font("Arial", Font.BOLD, 8 + gridSize * 2));
-            g2d.drawString("x2", x + 4, y - 2);
-            
-            // Draw lifetime bar
-            float lifePercent = lifetime / maxLifetime;
-            int barWidth = (int)(totalSize * lifePercent);
-            g2d.setColor(new Color(SPEED_TARGET_COLOR.getRed(), SPEED_TARGET_COLOR.getGreen(), SPEED_TARGET_COLOR.getBlue(), (int)(150 * alpha)));
-            g2d.fillRect(x, y + totalSize + 2, barWidth, 3);
+            int i = dl.add(DisplayList.SPEED_TARGET, x, y, gridSize, pulse, alpha);
+            dl.aux[i] = lifetime / maxLifetime;
         }
     }
     
     public FireSnakeGame() {
+        this(System.nanoTime(), false);
+    }
+    
+    // Seeded constructor - the same seed and input log always reproduce the same run.
+    // Headless instances never start the timer or audio; the caller drives tick() directly.
+    FireSnakeGame(long seed, boolean headless) {
+        this(seed, headless, false);
+    }
+    
+    // With offlineAudio a headless game also mixes its sound effects and music, without a
+    // line or audio threads: the caller pulls the mixed blocks with renderAudioBlock()
+    FireSnakeGame(long seed, boolean headless, boolean offlineAudio) {
+        this.seed = seed;
+        this.headless = headless;
+        this.offlineAudio = headless && offlineAudio;
+        this.inputLog = new InputLog(seed);
+        // Replays and exports would journal the recorded run a second time
+        this.telemetry = new Telemetry(TELEMETRY_DIR != null && !headless ? new File(TELEMETRY_DIR) : null, seed);
+        
         setPreferredSize(new Dimension(TOTAL_WIDTH, GAME_HEIGHT));
         setBackground(BACKGROUND_COLOR_1);
         setFocusable(true);
         addKeyListener(this);
+        addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                updateDeviceViewSize();
+            }
+        });
+        // Moving to a screen with a different HiDPI scale changes the device size too
+        addPropertyChangeListener("graphicsConfiguration", e -> updateDeviceViewSize());
         
-        random = new Random();
+        random = new Random(seed);
         particles = new ArrayList<>();
         bullets = new ArrayList<>();
         targets = new ArrayList<>();
@@ -1213,6 +893,9 @@ public class FireSnakeGame extends JPanel implements ActionListener, KeyListener
         directionQueue = new LinkedList<>();
         soundEngine = new RetroSoundEngine();
         musicEngine = new MusicEngine();
+        if (offlineAudio) {
+            musicEngine.attach(soundEngine.mixer);
+        }
         musicEngine.startMenuMusic();
         
         // Initialize stars for hyperspace effect
@@ -1221,41 +904,281 @@ public class FireSnakeGame extends JPanel implements ActionListener, KeyListener
             stars.add(new Star());
         }
         
-        // Load global high score from file
-        globalHighScore = loadGlobalHighScore();
         sessionHighScore = 0;
+        if (headless) {
+            globalHighScore = highScores.load();
+        } else {
+            leaderboard.open();
+            startBackgroundInit();
+        }
         initGame();
         
         timer = new Timer(currentDelay, this);
-        timer.start();
+        if (!headless && FRAME_STATS_FILE != null) {
+            Runtime.getRuntime().addShutdownHook(new Thread(this::writeFrameStats, "frame-stats-export"));
+        }
+        if (!headless) {
+            timer.start();
+        }
+    }
+    
+    // Size of one rendered frame in logical pixels
+    static int frameWidth() {
+        return TOTAL_WIDTH;
+    }
+    
+    static int frameHeight() {
+        return GAME_HEIGHT;
+    }
+    
+    long getSeed() {
+        return seed;
+    }
+    
+    long getTickCount() {
+        return tickCount;
+    }
+    
+    // Current tick duration in ms (changes with slow/speed power-ups)
+    int getCurrentDelay() {
+        return currentDelay;
+    }
+    
+    int getParticleCap() {
+        return particleCap;
+    }
+    
+    void setParticleCap(int cap) {
+        particleCap = Math.max(0, cap);
+    }
+    
+    FrameRenderer.Quality getQuality() {
+        return quality;
+    }
+    
+    void setQuality(FrameRenderer.Quality quality) {
+        this.quality = quality;
+    }
+    
+    // Offline audio: mix the next AudioMixer.BLOCK_FRAMES samples of sound effects and
+    // music (AudioMixer.OFFLINE_FORMAT: 16-bit little-endian mono; the array is reused)
+    byte[] renderAudioBlock() {
+        return soundEngine.mixer.renderOffline();
+    }
+    
+    boolean isExitRequested() {
+        return exitRequested;
+    }
+    
+    boolean isGameOver() {
+        return gameClose;
+    }
+    
+    int getScore() {
+        return score;
+    }
+    
+    int getSnakeLength() {
+        return snakeLength;
+    }
+    
+    Telemetry.Cause getDeathCause() {
+        return deathCause;
+    }
+    
+    void setAutopilot(boolean on) {
+        autopilotOn = on;
+    }
+    
+    void setJfrEvents(boolean on) {
+        jfrEvents = on;
+    }
+    
+    // GameBatch: start the next game as a right arrow press would (also from the game over
+    // screen). The previous game's input is dropped so a long training run doesn't grow the log.
+    void startEpisode() {
+        inputLog.clear();
+        handleKeyPress(KeyEvent.VK_RIGHT);
+    }
+    
+    // GameBatch observation of the current state: GameBatch.CHANNELS planes of one byte per
+    // board cell (row-major) from gridOffset, GameBatch.SCALARS floats from scalarOffset
+    void writeObservation(ByteBuffer out, int gridOffset, int scalarOffset) {
+        int plane = GameBatch.COLUMNS * GameBatch.ROWS;
+        out.put(gridOffset, GameBatch.EMPTY_GRID);
+        int size = snakeList.size();
+        for (int i = 0; i < size - 1; i++) {
+            int[] segment = snakeList.get(i);
+            markCells(out, gridOffset + GameBatch.BODY * plane, segment[0], segment[1], 1, 1);
+        }
+        markCells(out, gridOffset + GameBatch.HEAD * plane, x1, y1, 1, 1);
+        markCells(out, gridOffset + GameBatch.FOOD * plane, foodX, foodY, 1, 1);
+        for (Target t : targets) {
+            if (t.isActive()) {
+                markCells(out, gridOffset + GameBatch.DANGER * plane, t.x, t.y, t.gridSize, 1);
+            } else {
+                markCells(out, gridOffset + GameBatch.DANGER_PENDING * plane, t.x, t.y, t.gridSize, t.spawnDelay);
+            }
+            markCells(out, gridOffset + GameBatch.TARGET_POINTS * plane, t.x, t.y, t.gridSize,
+                    Math.min(255, t.type.points * t.gridSize));
+        }
+        for (SlowTarget st : slowTargets) {
+            markCells(out, gridOffset + GameBatch.SLOW * plane, st.x, st.y, st.gridSize, 1);
+        }
+        for (ShrinkTarget sht : shrinkTargets) {
+            markCells(out, gridOffset + GameBatch.SHRINK * plane, sht.x, sht.y, sht.gridSize, 1);
+        }
+        for (SpeedTarget spt : speedTargets) {
+            markCells(out, gridOffset + GameBatch.SPEED * plane, spt.x, spt.y, spt.gridSize, 1);
+        }
+        for (Bullet b : bullets) {
+            markCells(out, gridOffset + GameBatch.BULLET * plane, (int) b.x, (int) b.y, 1, 1);
+        }
+        
+        out.putFloat(scalarOffset + 4 * GameBatch.FOOD_TIMER, (float) foodTimer / FOOD_TIME_LIMIT);
+        out.putFloat(scalarOffset + 4 * GameBatch.SLOWDOWN, (float) slowdownTimer / SLOWDOWN_DURATION);
+        out.putFloat(scalarOffset + 4 * GameBatch.SPEEDUP, (float) speedupTimer / SPEEDUP_DURATION);
+        out.putFloat(scalarOffset + 4 * GameBatch.LENGTH, snakeLength);
+        out.putFloat(scalarOffset + 4 * GameBatch.SCORE, score);
+        out.putFloat(scalarOffset + 4 * GameBatch.DIRECTION_X, Integer.signum(x1Change));
+        out.putFloat(scalarOffset + 4 * GameBatch.DIRECTION_Y, Integer.signum(y1Change));
+    }
+    
+    // Set the cells of a size x size square at pixel position (x, y) in one plane, clipped to the board
+    private static void markCells(ByteBuffer out, int planeOffset, int x, int y, int size, int value) {
+        int column = Math.floorDiv(x, BLOCK_SIZE);
+        int row = Math.floorDiv(y, BLOCK_SIZE);
+        for (int r = Math.max(0, row); r < Math.min(GameBatch.ROWS, row + size); r++) {
+            for (int c = Math.max(0, column); c < Math.min(GameBatch.COLUMNS, column + size); c++) {
+                out.put(planeOffset + r * GameBatch.COLUMNS + c, (byte) value);
+            }
+        }
+    }
+    
+    // Live games show their first frame before the slow parts of startup are done. Audio
+    // (probing Java Sound, music, synthesizing the effects) starts on one thread and joins
+    // when ready; the high score file and monitoring (the platform MBean server alone takes
+    // a good part of a second to come up) load on another. Stars stay in the constructor:
+    // they draw from the game's seeded random, so a replay needs them in order.
+    private void startBackgroundInit() {
+        Thread audio = new Thread(() -> {
+            musicEngine.attach(soundEngine.startDevice());
+            soundEngine.buildBank();
+            StartupTimeline.mark(StartupTimeline.Milestone.AUDIO_READY);
+        }, "audio-init");
+        audio.setDaemon(true);
+        audio.start();
+        
+        Thread other = new Thread(() -> {
+            int stored = highScores.load();
+            // Applied on the EDT, which owns the game state; the file is read long before a
+            // game can end
+            SwingUtilities.invokeLater(() -> globalHighScore = Math.max(globalHighScore, stored));
+            registerMBeans();
+            if (METRICS_PORT != null) {
+                startMetricsServer();
+            }
+        }, "startup-init");
+        other.setDaemon(true);
+        other.start();
+        
+        if (JIT_WARMUP) {
+            jitWarmup = new JitWarmup();
+            jitWarmup.start();
+        }
+    }
+    
+    // The real game is starting: leave the CPU to it
+    private void stopJitWarmup() {
+        if (jitWarmup != null) {
+            jitWarmup.cancel();
+            jitWarmup = null;
+        }
     }
     
-    // Load global high score from file
-    private int loadGlobalHighScore() {
+    // Expose the game and the audio path to JConsole/VisualVM
+    private void registerMBeans() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
         try {
-            File file = new File(HIGH_SCORE_FILE);
-            if (file.exists()) {
-                BufferedReader reader = new BufferedReader(new FileReader(file));
-                String line = reader.readLine();
-                reader.close();
-                if (line != null) {
-                    return Integer.parseInt(line.trim());
-                }
+            server.registerMBean(new GameMonitor(this, metrics, highScores), new ObjectName(GameMonitorMXBean.NAME));
+            server.registerMBean(new AudioMonitor(audioStats), new ObjectName(AudioMonitorMXBean.NAME));
+        } catch (JMException e) {
+            // Monitoring is optional (another game in this JVM may have registered first)
+        }
+    }
+    
+    private void startMetricsServer() {
+        MetricsServer server = new MetricsServer(metrics, frameStats, audioStats, highScores);
+        try {
+            server.start(new InetSocketAddress(METRICS_HOST, Integer.parseInt(METRICS_PORT)));
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Metrics endpoint not started: " + e.getMessage());
+        }
+    }
+    
+    // Save the session's input log in the background so the run can be replayed/exported later
+    private void saveRunLog() {
+        if (RUNS_DIR == null || headless) return;
+        InputLog snapshot = inputLog.copy();
+        File file = new File(RUNS_DIR, "run-" + seed + ".log");
+        Thread saver = new Thread(() -> {
+            try {
+                file.getParentFile().mkdirs();
+                snapshot.save(file);
+            } catch (IOException e) {
+                // Recording is best-effort
+            }
+        }, "run-log-saver");
+        saver.setDaemon(true);
+        saver.start();
+    }
+    
+    // Write the audio latency histograms and counters as CSV, next to the run logs if
+    // recording is enabled, otherwise into the working directory
+    private void exportAudioStats() {
+        if (headless) return;
+        AudioStats stats = audioStats;
+        File file = new File(RUNS_DIR != null ? RUNS_DIR : ".", "audio-stats-" + System.currentTimeMillis() + ".csv");
+        Thread exporter = new Thread(() -> {
+            try {
+                file.getAbsoluteFile().getParentFile().mkdirs();
+                stats.write(file);
+                System.out.println("Audio stats written to " + file);
+            } catch (IOException e) {
+                System.err.println("Could not write " + file + ": " + e.getMessage());
             }
-        } catch (Exception e) {
-            // If any error, just return 0
+        }, "audio-stats-export");
+        exporter.setDaemon(true);
+        exporter.start();
+    }
+    
+    private void writeFrameStats() {
+        File file = new File(FRAME_STATS_FILE);
+        try {
+            file.getAbsoluteFile().getParentFile().mkdirs();
+            frameStats.write(file);
+        } catch (IOException e) {
+            System.err.println("Could not write " + file + ": " + e.getMessage());
         }
-        return 0;
     }
     
-    // Save global high score to file
+    // Queue the global high score for saving; the store writes it in the background.
+    // Headless runs (replays, exports) never write it.
     private void saveGlobalHighScore() {
-        try {
-            PrintWriter writer = new PrintWriter(new FileWriter(HIGH_SCORE_FILE));
-            writer.println(globalHighScore);
-            writer.close();
-        } catch (Exception e) {
-            // Silently ignore save errors
+        if (headless) return;
+        highScores.save(globalHighScore);
+    }
+    
+    // Add the finished game to the leaderboard and look up its rank (an in-memory query).
+    // Headless runs (replays, exports) are not recorded.
+    private void recordOnLeaderboard() {
+        if (headless) return;
+        leaderboard.record(new Leaderboard.Game(System.currentTimeMillis(), score, snakeLength,
+                totalShots, targetsHit, foodEaten, gameDurationMs));
+        if (leaderboard.isLoaded()) {
+            lastRank = leaderboard.rank(score);
+            lastRankTotal = leaderboard.size();
+            lastPercentBelow = leaderboard.percentBelow(score);
         }
     }
     
@@ -1266,7 +1189,7 @@ public class FireSnakeGame extends JPanel implements ActionListener, KeyListener
             globalHighScore = score;
             newGlobalRecord = true;
             globalRecordAnnounced = true;
-            saveGlobalHighScore(); // Save immediately
+            saveGlobalHighScore(); // Saved in the background right away
             soundEngine.playGlobalRecord(); // Epic fanfare for global record
         }
         
@@ -1299,6 +1222,8 @@ public class FireSnakeGame extends JPanel implements ActionListener, KeyListener
         totalShots = 0;
         targetsHit = 0;
         foodEaten = 0;
+        gameDurationMs = 0;
+        lastRank = 0;
         slowdownTimer = 0;
         speedupTimer = 0;
         tempoLevel = 0;
@@ -1329,7 +1254,7 @@ public class FireSnakeGame extends JPanel implements ActionListener, KeyListener
         targetSpawnTimer = 0;
     }
     
-    private void spawnFood() {
+    void spawnFood() {
         boolean validPosition;
         do {
             validPosition = true;
@@ -1349,9 +1274,19 @@ public class FireSnakeGame extends JPanel implements ActionListener, KeyListener
     }
     
     private void spawnParticles(int x, int y, int count, Color baseColor) {
+        int cap = particleCap;
         for (int i = 0; i < count; i++) {
             Color color = baseColor != null ? baseColor : PARTICLE_COLORS[random.nextInt(PARTICLE_COLORS.length)];
-            particles.add(new Particle(x + BLOCK_SIZE/2, y + BLOCK_SIZE/2, color));
+            if (particles.size() < cap) {
+                particles.add(new Particle(x + BLOCK_SIZE/2, y + BLOCK_SIZE/2, color));
+            } else {
+                // Draw what the particle would have, so the game's random sequence (and
+                // replays) doesn't depend on the cap
+                random.nextFloat();
+                random.nextFloat();
+                random.nextInt(15);
+                random.nextFloat();
+            }
         }
     }
     
@@ -1364,8 +1299,12 @@ public class FireSnakeGame extends JPanel implements ActionListener, KeyListener
         return TargetType.LEGENDARY;
     }
     
-    private void spawnTargets() {
+    void spawnTargets() {
+        GameEvents.SpawnWave event = new GameEvents.SpawnWave();
+        event.begin();
         int count = random.nextInt(12) + 1; // Double the targets (1-12 instead of 0-5)
+        int spawned = 0;
+        int totalAttempts = 0;
         
         for (int i = 0; i < count; i++) {
             int attempts = 0;
@@ -1392,8 +1331,10 @@ public class FireSnakeGame extends JPanel implements ActionListener, KeyListener
                 validPosition = isValidTargetPosition(tx, ty, gridSize);
                 attempts++;
             }
+            totalAttempts += attempts;
             
             if (validPosition) {
+                spawned++;
                 // 12% slow target, 25% shrink target (more frequent!), 13% speed target, 50% dangerous target
                 int roll = random.nextInt(100);
                 if (roll < 12) {
@@ -1409,10 +1350,22 @@ public class FireSnakeGame extends JPanel implements ActionListener, KeyListener
                 }
             }
         }
+        
+        metrics.spawnFailures += count - spawned;
+        
+        event.end();
+        if (jfrEvents && event.shouldCommit()) {
+            event.requested = count;
+            event.spawned = spawned;
+            event.attempts = totalAttempts;
+            event.rejected = totalAttempts - spawned;
+            event.targets = targetCount();
+            event.commit();
+        }
     }
     
     // Check if a target of given size at (tx, ty) would fit and not overlap
-    private boolean isValidTargetPosition(int tx, int ty, int gridSize) {
+    boolean isValidTargetPosition(int tx, int ty, int gridSize) {
         // Check all cells that the target would occupy
         for (int dx = 0; dx < gridSize; dx++) {
             for (int dy = 0; dy < gridSize; dy++) {
@@ -1458,6 +1411,69 @@ public class FireSnakeGame extends JPanel implements ActionListener, KeyListener
         return true;
     }
     
+    // Halve the snake, dropping segments from the tail
+    void shrinkSnake() {
+        snakeLength = Math.max(1, snakeLength / 2);
+        while (snakeList.size() > snakeLength) {
+            snakeList.remove(0);
+        }
+    }
+    
+    // Targets of all kinds on the board
+    int targetCount() {
+        return targets.size() + slowTargets.size() + shrinkTargets.size() + speedTargets.size();
+    }
+    
+    // Fixture for benchmarks: a running game with a snake of the given length laid out row by
+    // row from the third row down, its head at the left end of the empty second row heading
+    // right (39 moves before it reaches the wall), food, and up to targetCount targets from
+    // regular spawn waves. New targets stay harmless for SPAWN_DELAY_DURATION ticks. The
+    // board only depends on the seed.
+    void layOutBoard(int length, int targetCount) {
+        initGame();
+        gameStarted = true;
+        int columns = GAME_WIDTH / BLOCK_SIZE;
+        int rows = GAME_HEIGHT / BLOCK_SIZE;
+        snakeLength = Math.max(1, Math.min(length, columns * (rows - 2) + 1));
+        snakeList.clear();
+        for (int i = snakeLength - 2; i >= 0; i--) {
+            int row = 2 + i / columns;
+            int column = row % 2 == 0 ? i % columns : columns - 1 - i % columns;
+            snakeList.add(new int[]{column * BLOCK_SIZE, row * BLOCK_SIZE});
+        }
+        x1 = 0;
+        y1 = BLOCK_SIZE;
+        x1Change = BLOCK_SIZE;
+        y1Change = 0;
+        snakeList.add(new int[]{x1, y1});
+        spawnFood();
+        
+        for (int waves = 0; targetCount() < targetCount && waves < 1000; waves++) {
+            spawnTargets();
+        }
+        trimTargets(targetCount);
+    }
+    
+    // Let the snake grow by the segments over its next moves, as when a target is shot
+    void growSnake(int segments) {
+        snakeLength += segments;
+    }
+    
+    // Remove targets until at most count are left
+    private void trimTargets(int count) {
+        while (targetCount() > count) {
+            if (!speedTargets.isEmpty()) {
+                speedTargets.remove(speedTargets.size() - 1);
+            } else if (!shrinkTargets.isEmpty()) {
+                shrinkTargets.remove(shrinkTargets.size() - 1);
+            } else if (!slowTargets.isEmpty()) {
+                slowTargets.remove(slowTargets.size() - 1);
+            } else {
+                targets.remove(targets.size() - 1);
+            }
+        }
+    }
+    
     // Legacy method for backward compatibility
     private boolean isValidTargetPosition(int tx, int ty) {
         return isValidTargetPosition(tx, ty, 1);
@@ -1480,6 +1496,7 @@ public class FireSnakeGame extends JPanel implements ActionListener, KeyListener
         
         bullets.add(new Bullet(startX, startY, dirX, dirY));
         totalShots++;
+        telemetry.shot(tickCount, bullets.size(), snakeLength);
         soundEngine.playShoot();
     }
     
@@ -1488,6 +1505,7 @@ public class FireSnakeGame extends JPanel implements ActionListener, KeyListener
         speedupTimer = 0; // Cancel speedup if active
         currentDelay = SLOW_DELAY;
         timer.setDelay(currentDelay);
+        telemetry.powerUp(tickCount, Telemetry.Target.SLOW, SLOWDOWN_DURATION, snakeLength);
         soundEngine.playPowerUp();
     }
     
@@ -1496,6 +1514,7 @@ public class FireSnakeGame extends JPanel implements ActionListener, KeyListener
         slowdownTimer = 0; // Cancel slowdown if active
         currentDelay = FAST_DELAY;
         timer.setDelay(currentDelay);
+        telemetry.powerUp(tickCount, Telemetry.Target.SPEED, SPEEDUP_DURATION, snakeLength);
         soundEngine.playSpeedUp();
     }
     
@@ -1504,6 +1523,7 @@ public class FireSnakeGame extends JPanel implements ActionListener, KeyListener
         int newTempoLevel = snakeLength / 10; // Every 10 segments = new tempo level
         if (newTempoLevel > tempoLevel) {
             tempoLevel = newTempoLevel;
+            telemetry.tempo(tickCount, tempoLevel, snakeLength);
             double newTempo = 1.0 + tempoLevel * 0.2; // Increase by 20% for each 10 segments
             musicEngine.setTempoMultiplier(newTempo);
         }
@@ -1511,7 +1531,7 @@ public class FireSnakeGame extends JPanel implements ActionListener, KeyListener
     
     // LINE-BASED collision: bullet must be on the same line as the target (not adjacent lines)
     // Returns true if bullet hit and was removed
-    private boolean checkBulletCollisions(Bullet b, int bulletIndex) {
+    boolean checkBulletCollisions(Bullet b, int bulletIndex) {
         // Check collision with dangerous targets (square)
         for (int j = targets.size() - 1; j >= 0; j--) {
             Target t = targets.get(j);
@@ -1525,6 +1545,8 @@ public class FireSnakeGame extends JPanel implements ActionListener, KeyListener
                 checkMusicTempoIncrease();
                 checkAndAnnounceRecords();
                 targetsHit++;
+                telemetry.hit(tickCount, telemetryTarget(t.type), t.gridSize,
+                        t.type.points * t.gridSize, snakeLength);
                 targets.remove(j);
                 bullets.remove(bulletIndex);
                 return true;
@@ -1539,6 +1561,7 @@ public class FireSnakeGame extends JPanel implements ActionListener, KeyListener
                 int centerY = st.y + st.getPixelSize() / 2;
                 spawnParticles(centerX, centerY, 20 * st.gridSize, SLOW_TARGET_COLOR);
                 soundEngine.playExplosion();
+                telemetry.hit(tickCount, Telemetry.Target.SLOW, st.gridSize, 0, snakeLength);
                 activateSlowdown();
                 targetsHit++;
                 slowTargets.remove(j);
@@ -1556,10 +1579,9 @@ public class FireSnakeGame extends JPanel implements ActionListener, KeyListener
                 spawnParticles(centerX, centerY, 20 * sht.gridSize, SHRINK_TARGET_COLOR);
                 soundEngine.playExplosion();
                 soundEngine.playShrink();
-                snakeLength = Math.max(1, snakeLength / 2);
-                while (snakeList.size() > snakeLength) {
-                    snakeList.remove(0);
-                }
+                telemetry.hit(tickCount, Telemetry.Target.SHRINK, sht.gridSize, 0, snakeLength);
+                shrinkSnake();
+                telemetry.powerUp(tickCount, Telemetry.Target.SHRINK, 0, snakeLength);
                 targetsHit++;
                 shrinkTargets.remove(j);
                 bullets.remove(bulletIndex);
@@ -1575,6 +1597,7 @@ public class FireSnakeGame extends JPanel implements ActionListener, KeyListener
                 int centerY = spt.y + spt.getPixelSize() / 2;
                 spawnParticles(centerX, centerY, 20 * spt.gridSize, SPEED_TARGET_COLOR);
                 soundEngine.playExplosion();
+                telemetry.hit(tickCount, Telemetry.Target.SPEED, spt.gridSize, 0, snakeLength);
                 activateSpeedup();
                 targetsHit++;
                 speedTargets.remove(j);
@@ -1588,7 +1611,7 @@ public class FireSnakeGame extends JPanel implements ActionListener, KeyListener
     
     // Check if bullet is on the same line and inside target bounds
     // Uses line-based collision - bullet must actually hit the target (same row/column)
-    private boolean checkLineCollision(Bullet b, int targetX, int targetY, int targetSize) {
+    boolean checkLineCollision(Bullet b, int targetX, int targetY, int targetSize) {
         // Target bounds (with small tolerance for smoother hits)
         float tolerance = 4; // Small tolerance for precise but not frustrating hits
         float tLeft = targetX - tolerance;
@@ -1623,104 +1646,535 @@ public class FireSnakeGame extends JPanel implements ActionListener, KeyListener
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
-        Graphics2D g2d = (Graphics2D) g;
-        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-        g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        if (renderThread == null) {
+            // Not displayed through the render thread (e.g. printing) - draw synchronously
+            renderFrame((Graphics2D) g);
+            return;
+        }
+        renderedFrames.update();
+        BufferedImage frame = renderedFrames.front().image;
+        if (frame != null) {
+            if (!firstFrameShown) {
+                firstFrameShown = true;
+                StartupTimeline.mark(StartupTimeline.Milestone.FIRST_FRAME);
+            }
+            // Frames are rendered at device resolution - blit 1:1, bypassing the HiDPI scale
+            Graphics2D g2d = (Graphics2D) g;
+            AffineTransform transform = g2d.getTransform();
+            blitTransform.setToTranslation(transform.getTranslateX(), transform.getTranslateY());
+            g2d.setTransform(blitTransform);
+            g2d.drawImage(frame, 0, 0, null);
+            g2d.setTransform(transform);
+        }
+    }
+    
+    // Output size of the view in device pixels (panel size times the HiDPI scale),
+    // packed as width << 32 | height for the render thread
+    private void updateDeviceViewSize() {
+        GraphicsConfiguration gc = getGraphicsConfiguration();
+        double deviceScale = gc != null ? gc.getDefaultTransform().getScaleX() : 1.0;
+        long width = (long) Math.ceil(getWidth() * deviceScale);
+        long height = (long) Math.ceil(getHeight() * deviceScale);
+        deviceViewSize = (width << 32) | height;
+    }
+    
+    // Toggle fullscreen on the window's current screen (F11)
+    private void toggleFullscreen() {
+        Window window = SwingUtilities.getWindowAncestor(this);
+        if (!(window instanceof JFrame) || getGraphicsConfiguration() == null) return;
+        JFrame frame = (JFrame) window;
+        setFullscreen(frame, !frame.isUndecorated());
+    }
+    
+    private static void setFullscreen(JFrame frame, boolean fullscreen) {
+        GraphicsDevice device = frame.getGraphicsConfiguration().getDevice();
+        frame.dispose();
+        frame.setUndecorated(fullscreen);
+        if (fullscreen && device.isFullScreenSupported()) {
+            device.setFullScreenWindow(frame);
+        } else {
+            if (device.getFullScreenWindow() == frame) {
+                device.setFullScreenWindow(null);
+            }
+            frame.setExtendedState(fullscreen ? JFrame.MAXIMIZED_BOTH : JFrame.NORMAL);
+            frame.setVisible(true);
+        }
+        frame.requestFocus();
+    }
+    
+    // Draw one complete frame (game area + stats panel) synchronously on the calling thread
+    void renderFrame(Graphics2D g2d) {
+        if (scratchDisplayList == null) {
+            scratchDisplayList = new DisplayList();
+            scratchRenderer = new FrameRenderer();
+        }
+        buildDisplayList(scratchDisplayList);
+        scratchRenderer.render(g2d, scratchDisplayList);
+    }
+    
+    // Capture everything needed to draw the current state into a display list.
+    // Commands are appended in draw order.
+    void buildDisplayList(DisplayList dl) {
+        dl.clear();
+        dl.gameStarted = gameStarted;
+        dl.gameClose = gameClose;
+        dl.newGlobalRecord = newGlobalRecord;
+        dl.newSessionRecord = newSessionRecord;
+        dl.soundMuted = soundMuted;
+        dl.autopilot = autopilotOn;
+        dl.audioStats = debugOverlay ? audioStats : null;
+        dl.frameStats = perfOverlay ? frameStats : null;
+        dl.quality = quality;
+        dl.score = score;
+        dl.globalHighScore = globalHighScore;
+        dl.sessionHighScore = sessionHighScore;
+        dl.totalShots = totalShots;
+        dl.targetsHit = targetsHit;
+        dl.foodEaten = foodEaten;
+        dl.rank = lastRank;
+        dl.rankTotal = lastRankTotal;
+        dl.percentBelow = lastPercentBelow;
+        dl.snakeLength = snakeLength;
+        dl.slowdownTimer = slowdownTimer;
+        dl.speedupTimer = speedupTimer;
+        dl.foodTimer = foodTimer;
+        dl.foodX = foodX;
+        dl.foodY = foodY;
+        dl.headDirX = x1Change;
+        dl.headDirY = y1Change;
+        dl.foodPulse = foodPulse;
         
-        // Draw game area
-        drawBackground(g2d);
-        drawStars(g2d);
-        drawGrid(g2d);
+        for (Star star : stars) {
+            star.emit(dl);
+        }
+        dl.starCount = dl.count;
         
         if (gameClose) {
-            drawGameOverScreen(g2d);
-        } else if (!gameStarted) {
-            drawStartScreen(g2d);
-            drawFood(g2d);
-            drawSnake(g2d);
-        } else {
-            drawTargets(g2d);
-            drawSlowTargets(g2d);
-            drawShrinkTargets(g2d);
-            drawSpeedTargets(g2d);
-            drawFood(g2d);
-            drawSnake(g2d);
-            drawBullets(g2d);
-            drawParticles(g2d);
-            
-            // Draw slowdown indicator
-            if (slowdownTimer > 0) {
-                drawSlowdownIndicator(g2d);
+            return;
+        }
+        if (gameStarted) {
+            for (Target t : targets) {
+                t.emit(dl);
             }
-            
-            // Draw speedup indicator
-            if (speedupTimer > 0) {
-                drawSpeedupIndicator(g2d);
+            for (SlowTarget st : slowTargets) {
+                st.emit(dl);
+            }
+            for (ShrinkTarget sht : shrinkTargets) {
+                sht.emit(dl);
+            }
+            for (SpeedTarget spt : speedTargets) {
+                spt.emit(dl);
+            }
+        }
+        
+        dl.add(DisplayList.FOOD, foodX, foodY, BLOCK_SIZE, foodPulse, 1);
+        
+        int size = snakeList.size();
+        for (int i = 0; i < size; i++) {
+            int[] segment = snakeList.get(i);
+            float progress = (float) i / Math.max(size - 1, 1);
+            int index = dl.add(DisplayList.SNAKE_SEGMENT, segment[0], segment[1], BLOCK_SIZE, progress, 1);
+            if (i == size - 1) {
+                dl.variant[index] = 1;
             }
-            
-            // Always draw food timer during game
-            drawFoodTimer(g2d);
         }
         
-        // Draw stats panel
-        drawStatsPanel(g2d);
+        if (gameStarted) {
+            for (Bullet b : bullets) {
+                b.emit(dl);
+            }
+            for (Particle p : particles) {
+                p.emit(dl);
+            }
+        }
     }
     
-    private void drawBackground(Graphics2D g2d) {
-        GradientPaint gradient = new GradientPaint(
-            0, 0, BACKGROUND_COLOR_1,
-            GAME_WIDTH, GAME_HEIGHT, BACKGROUND_COLOR_2
-        );
-        g2d.setPaint(gradient);
-        g2d.fillRect(0, 0, GAME_WIDTH, GAME_HEIGHT);
+    // Publish the state of the tick that just ran to the render thread
+    private void publishDisplayList() {
+        buildDisplayList(displayLists.back());
+        displayLists.publish();
+        LockSupport.unpark(renderThread);
     }
     
-    private void drawStars(Graphics2D g2d) {
-        for (Star star : stars) {
-            star.draw(g2d);
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        updateDeviceViewSize();
+        if (!headless && renderThread == null) {
+            renderThread = new Thread(this::renderLoop, "render");
+            renderThread.setDaemon(true);
+            renderThread.start();
+            publishDisplayList();
         }
     }
     
-    private void drawGrid(Graphics2D g2d) {
-        g2d.setColor(GRID_COLOR);
-        g2d.setStroke(new BasicStroke(1));
+    @Override
+    public void removeNotify() {
+        Thread thread = renderThread;
+        renderThread = null;
+        if (thread != null) {
+            thread.interrupt();
+        }
+        super.removeNotify();
+    }
+    
+    // Render thread: rasterize the newest display list into an offscreen frame, then let
+    // the EDT blit it. Frames that were superseded before being drawn are skipped.
+    private void renderLoop() {
+        FrameRenderer renderer = new FrameRenderer(frameStats);
+        Thread self = Thread.currentThread();
+        while (renderThread == self) {
+            if (!displayLists.update()) {
+                LockSupport.parkNanos(RENDER_IDLE_WAIT_NS);
+                continue;
+            }
+            frameStats.frameStarted(System.nanoTime());
+            long size = deviceViewSize;
+            int width = (int) (size >>> 32);
+            int height = (int) size;
+            if (width <= 0 || height <= 0) continue;
+            
+            RenderedFrame target = renderedFrames.back();
+            if (target.image == null || target.image.getWidth() != width || target.image.getHeight() != height) {
+                GraphicsConfiguration gc = getGraphicsConfiguration();
+                target.image = gc != null
+                    ? gc.createCompatibleImage(width, height)
+                    : new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            }
+            Graphics2D g2d = target.image.createGraphics();
+            GameEvents.Render event = new GameEvents.Render();
+            event.begin();
+            try {
+                renderer.render(g2d, displayLists.front(), width, height);
+            } finally {
+                g2d.dispose();
+            }
+            event.end();
+            if (jfrEvents && event.shouldCommit()) {
+                event.width = width;
+                event.height = height;
+                event.commands = displayLists.front().count;
+                event.commit();
+            }
+            renderedFrames.publish();
+            metrics.frameCompleted(System.nanoTime());
+            repaint();
+        }
+    }
+    
+    // Offscreen frame slot exchanged between the render thread and the EDT
+    private static class RenderedFrame {
+        BufferedImage image;
+    }
+    
+    // Rasterizes display lists. Static so it cannot read live game state - everything it
+    // draws comes from the list, which makes it safe to run off the EDT.
+    static final class FrameRenderer {
+        // View scaling: logical TOTAL_WIDTH x GAME_HEIGHT is fitted into the output (device
+        // pixels) with letterboxing. The transform and the baked layers are only rebuilt when
+        // the output size changes, never per draw.
+        private int viewWidth = -1;
+        private int viewHeight = -1;
+        private double viewScale = 1.0;
+        private int viewOffsetX, viewOffsetY;
+        private final AffineTransform viewTransform = new AffineTransform();
+        private final FrameStats stats; // Where the draw phases are timed (null = not timed)
+        
+        // Rendering quality tier of the live frames (the baked layers are always HIGH):
+        // LOW drops antialiasing, MEDIUM keeps it but prefers speed in Java2D's pipeline
+        enum Quality { LOW, MEDIUM, HIGH }
+        
+        private static final Font FONT_ITALIC_10 = new Font("Arial", Font.ITALIC, 10);
+        private static final Font FONT_BOLD_10 = new Font("Arial", Font.BOLD, 10);
+        private static final Font FONT_PLAIN_11 = new Font("Arial", Font.PLAIN, 11);
+        private static final Font FONT_PLAIN_12 = new Font("Arial", Font.PLAIN, 12);
+        private static final Font FONT_BOLD_12 = new Font("Arial", Font.BOLD, 12);
+        private static final Font FONT_PLAIN_14 = new Font("Arial", Font.PLAIN, 14);
+        private static final Font FONT_BOLD_14 = new Font("Arial", Font.BOLD, 14);
+        private static final Font FONT_PLAIN_16 = new Font("Arial", Font.PLAIN, 16);
+        private static final Font FONT_BOLD_16 = new Font("Arial", Font.BOLD, 16);
+        private static final Font FONT_BOLD_18 = new Font("Arial", Font.BOLD, 18);
+        private static final Font FONT_PLAIN_20 = new Font("Arial", Font.PLAIN, 20);
+        private static final Font FONT_PLAIN_24 = new Font("Arial", Font.PLAIN, 24);
+        private static final Font FONT_BOLD_24 = new Font("Arial", Font.BOLD, 24);
+        private static final Font FONT_BOLD_28 = new Font("Arial", Font.BOLD, 28);
+        private static final Font FONT_BOLD_32 = new Font("Arial", Font.BOLD, 32);
+        private static final Font FONT_BOLD_56 = new Font("Arial", Font.BOLD, 56);
+        private static final Font FONT_BOLD_72 = new Font("Arial", Font.BOLD, 72);
+        
+        // Live HUD text, one glyph cache per font
+        private final HudText bold10 = new HudText(FONT_BOLD_10);
+        private final HudText bold12 = new HudText(FONT_BOLD_12);
+        private final HudText bold14 = new HudText(FONT_BOLD_14);
+        private final HudText bold16 = new HudText(FONT_BOLD_16);
+        private final HudText bold32 = new HudText(FONT_BOLD_32);
+        private final HudText plain12 = new HudText(FONT_PLAIN_12);
+        private final HudText plain16 = new HudText(FONT_PLAIN_16);
+        // Target labels by grid size (1-3): "+N" points and the SLOW, /2, x2 tags
+        private final HudText[] targetPointsText = {null, bold12, bold14, bold16};
+        private final HudText[] targetTagText = {null, bold10, bold12, bold14};
+        
+        // Static parts of the frame pre-rendered at device resolution
+        private Layer backgroundLayer;  // Gradient + grid lines
+        private Layer statsLayer;       // Stats panel without the live values
+        private Layer startLayer;       // Start screen overlay and static text (baked on first use)
+        private Layer gameOverLayer;    // Game over overlay and static text (baked on first use)
+        
+        // Image pre-rendered at device resolution, placed at (x, y) in device pixels
+        private static final class Layer {
+            final BufferedImage image;
+            final int x, y;
+            
+            Layer(BufferedImage image, int x, int y) {
+                this.image = image;
+                this.x = x;
+                this.y = y;
+            }
+        }
         
-        for (int x = 0; x < GAME_WIDTH; x += BLOCK_SIZE) {
-            g2d.drawLine(x, 0, x, GAME_HEIGHT);
+        FrameRenderer() {
+            this(null);
         }
-        for (int y = 0; y < GAME_HEIGHT; y += BLOCK_SIZE) {
-            g2d.drawLine(0, y, GAME_WIDTH, y);
+        
+        FrameRenderer(FrameStats stats) {
+            this.stats = stats;
         }
         
-        // Border color changes when slowed or sped up
-        Color borderColor;
-        if (speedupTimer > 0) {
-            borderColor = SPEED_TARGET_COLOR;
-        } else if (slowdownTimer > 0) {
-            borderColor = SLOW_TARGET_COLOR;
-        } else {
-            borderColor = new Color(0, 255, 150);
+        // Render at 1:1 logical pixels
+        void render(Graphics2D g2d, DisplayList dl) {
+            render(g2d, dl, TOTAL_WIDTH, GAME_HEIGHT);
         }
-        g2d.setColor(new Color(borderColor.getRed(), borderColor.getGreen(), borderColor.getBlue(), 100));
-        g2d.setStroke(new BasicStroke(4));
-        g2d.drawRect(2, 2, GAME_WIDTH - 4, GAME_HEIGHT - 4);
         
-        g2d.setColor(new Color(borderColor.getRed(), borderColor.getGreen(), borderColor.getBlue(), 200));
-        g2d.setStroke(new BasicStroke(2));
-        g2d.drawRect(2, 2, GAME_WIDTH - 4, GAME_HEIGHT - 4);
-    }
-    
-    private void drawSnake(Graphics2D g2d) {
-        int size = snakeList.size();
-        boolean isSlowed = slowdownTimer > 0;
-        boolean isFast = speedupTimer > 0;
+        // Render into an output of width x height device pixels (g2d must be in device space)
+        void render(Graphics2D g2d, DisplayList dl, int width, int height) {
+            long frameStart = stats != null ? System.nanoTime() : 0;
+            if (width != viewWidth || height != viewHeight) {
+                updateView(width, height);
+            }
+            AffineTransform base = g2d.getTransform();
+            setQualityHints(g2d, dl.quality);
+            
+            // Letterbox bars
+            g2d.setColor(Color.BLACK);
+            if (viewOffsetX > 0) {
+                g2d.fillRect(0, 0, viewOffsetX, height);
+                g2d.fillRect(width - viewOffsetX - 1, 0, viewOffsetX + 1, height);
+            }
+            if (viewOffsetY > 0) {
+                g2d.fillRect(0, 0, width, viewOffsetY);
+                g2d.fillRect(0, height - viewOffsetY - 1, width, viewOffsetY + 1);
+            }
+            
+            // Draw game area
+            drawLayer(g2d, base, backgroundLayer);
+            g2d.transform(viewTransform);
+            for (int i = 0; i < dl.starCount; i++) {
+                drawStar(g2d, dl, i);
+            }
+            drawBorder(g2d, dl);
+            long phaseStart = lap(FrameStats.Phase.DRAW_BACKGROUND, frameStart);
+            
+            if (dl.gameClose) {
+                if (gameOverLayer == null) {
+                    gameOverLayer = bakeLayer(0, GAME_WIDTH, true, g -> drawGameOverScreen(g, null, true));
+                }
+                drawLayer(g2d, base, gameOverLayer);
+                drawGameOverScreen(g2d, dl, false);
+                phaseStart = lap(FrameStats.Phase.DRAW_SCREENS, phaseStart);
+            } else {
+                if (!dl.gameStarted) {
+                    if (startLayer == null) {
+                        startLayer = bakeLayer(0, GAME_WIDTH, true, g -> drawStartScreen(g, null, true));
+                    }
+                    drawLayer(g2d, base, startLayer);
+                    drawStartScreen(g2d, dl, false);
+                    phaseStart = lap(FrameStats.Phase.DRAW_SCREENS, phaseStart);
+                }
+                drawCommands(g2d, dl);
+                
+                if (dl.gameStarted) {
+                    // Draw slowdown indicator
+                    if (dl.slowdownTimer > 0) {
+                        drawSlowdownIndicator(g2d, dl);
+                    }
+                    
+                    // Draw speedup indicator
+                    if (dl.speedupTimer > 0) {
+                        drawSpeedupIndicator(g2d, dl);
+                    }
+                    
+                    // Always draw food timer during game
+                    drawFoodTimer(g2d, dl);
+                    
+                    if (dl.autopilot) {
+                        drawAutopilotIndicator(g2d);
+                    }
+                }
+                phaseStart = lap(FrameStats.Phase.DRAW_ENTITIES, phaseStart);
+            }
+            
+            // Draw stats panel
+            drawLayer(g2d, base, statsLayer);
+            drawStatsPanel(g2d, dl, false);
+            phaseStart = lap(FrameStats.Phase.DRAW_HUD, phaseStart);
+            
+            if (dl.audioStats != null || dl.frameStats != null) {
+                if (dl.audioStats != null) {
+                    drawDebugOverlay(g2d, dl.audioStats);
+                }
+                if (dl.frameStats != null) {
+                    drawPerformanceOverlay(g2d, dl.frameStats);
+                }
+                lap(FrameStats.Phase.DRAW_OVERLAY, phaseStart);
+            }
+            g2d.setTransform(base);
+            lap(FrameStats.Phase.RENDER, frameStart);
+        }
+        
+        // Record the time since start for the draw phase and return the current time
+        private long lap(FrameStats.Phase phase, long start) {
+            if (stats == null) return 0;
+            long now = System.nanoTime();
+            stats.record(phase, now - start);
+            return now;
+        }
+        
+        private static void setQualityHints(Graphics2D g2d, Quality quality) {
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, quality == Quality.LOW
+                ? RenderingHints.VALUE_ANTIALIAS_OFF : RenderingHints.VALUE_ANTIALIAS_ON);
+            g2d.setRenderingHint(RenderingHints.KEY_RENDERING, quality == Quality.HIGH
+                ? RenderingHints.VALUE_RENDER_QUALITY : RenderingHints.VALUE_RENDER_SPEED);
+        }
+        
+        // Recompute the cached view transform and re-bake the layers for a new output size
+        private void updateView(int width, int height) {
+            viewWidth = width;
+            viewHeight = height;
+            viewScale = Math.min(width / (double) TOTAL_WIDTH, height / (double) GAME_HEIGHT);
+            viewOffsetX = (int) ((width - TOTAL_WIDTH * viewScale) / 2);
+            viewOffsetY = (int) ((height - GAME_HEIGHT * viewScale) / 2);
+            viewTransform.setToTranslation(viewOffsetX, viewOffsetY);
+            viewTransform.scale(viewScale, viewScale);
+            
+            backgroundLayer = bakeLayer(0, GAME_WIDTH, false, g -> {
+                drawBackground(g);
+                drawGridLines(g);
+            });
+            statsLayer = bakeLayer(GAME_WIDTH, STATS_WIDTH, false, g -> drawStatsPanel(g, null, true));
+            startLayer = null;
+            gameOverLayer = null;
+        }
+        
+        // Pre-render the logical column range [x, x + w) of the frame at the current scale.
+        // The layer is aligned to whole device pixels so blitting it matches direct drawing.
+        private Layer bakeLayer(int x, int w, boolean translucent, java.util.function.Consumer<Graphics2D> painter) {
+            int x0 = (int) Math.floor(x * viewScale);
+            int x1 = (int) Math.ceil((x + w) * viewScale);
+            int h = (int) Math.ceil(GAME_HEIGHT * viewScale);
+            BufferedImage image = new BufferedImage(Math.max(1, x1 - x0), Math.max(1, h),
+                translucent ? BufferedImage.TYPE_INT_ARGB_PRE : BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = image.createGraphics();
+            try {
+                setQualityHints(g, Quality.HIGH);
+                g.translate(-x0, 0);
+                g.scale(viewScale, viewScale);
+                painter.accept(g);
+            } finally {
+                g.dispose();
+            }
+            return new Layer(image, viewOffsetX + x0, viewOffsetY);
+        }
+        
+        // Blit a layer 1:1 in device space, then return to the view transform
+        private void drawLayer(Graphics2D g2d, AffineTransform base, Layer layer) {
+            g2d.setTransform(base);
+            g2d.drawImage(layer.image, layer.x, layer.y, null);
+            g2d.transform(viewTransform);
+        }
+        
+        private void drawCommands(Graphics2D g2d, DisplayList dl) {
+            for (int i = dl.starCount; i < dl.count; i++) {
+                switch (dl.kind[i]) {
+                    case DisplayList.FOOD: drawFood(g2d, dl); break;
+                    case DisplayList.SNAKE_SEGMENT: drawSnakeSegment(g2d, dl, i); break;
+                    case DisplayList.TARGET: drawTarget(g2d, dl, i); break;
+                    case DisplayList.SLOW_TARGET: drawSlowTarget(g2d, dl, i); break;
+                    case DisplayList.SHRINK_TARGET: drawShrinkTarget(g2d, dl, i); break;
+                    case DisplayList.SPEED_TARGET: drawSpeedTarget(g2d, dl, i); break;
+                    case DisplayList.BULLET: drawBullet(g2d, dl, i); break;
+                    case DisplayList.PARTICLE: drawParticle(g2d, dl, i); break;
+                }
+            }
+        }
         
-        for (int i = 0; i < size; i++) {
-            int[] segment = snakeList.get(i);
-            float progress = (float) i / Math.max(size - 1, 1);
+        private void drawBackground(Graphics2D g2d) {
+            GradientPaint gradient = new GradientPaint(
+                0, 0, BACKGROUND_COLOR_1,
+                GAME_WIDTH, GAME_HEIGHT, BACKGROUND_COLOR_2
+            );
+            g2d.setPaint(gradient);
+            g2d.fillRect(0, 0, GAME_WIDTH, GAME_HEIGHT);
+        }
+        
+        private void drawStar(Graphics2D g2d, DisplayList dl, int i) {
+            float screenX = dl.x[i];
+            float screenY = dl.y[i];
+            float size = dl.size[i];
+            int brightness = dl.variant[i];
+            
+            // Draw trail line
+            g2d.setColor(new Color(200, 200, 255, brightness / 3));
+            g2d.setStroke(new BasicStroke(Math.max(0.5f, size * 0.3f)));
+            g2d.drawLine((int) dl.aux[i], (int) dl.aux2[i], (int) screenX, (int) screenY);
+            
+            // Draw star as small circle (dot)
+            g2d.setColor(new Color(255, 255, 255, brightness));
+            int dotSize = Math.max(1, (int) size);
+            g2d.fillOval((int)(screenX - dotSize/2), (int)(screenY - dotSize/2), dotSize, dotSize);
+        }
+        
+        // Grid lines are static and baked into the background layer (below the stars)
+        private void drawGridLines(Graphics2D g2d) {
+            g2d.setColor(GRID_COLOR);
+            g2d.setStroke(new BasicStroke(1));
+            
+            for (int x = 0; x < GAME_WIDTH; x += BLOCK_SIZE) {
+                g2d.drawLine(x, 0, x, GAME_HEIGHT);
+            }
+            for (int y = 0; y < GAME_HEIGHT; y += BLOCK_SIZE) {
+                g2d.drawLine(0, y, GAME_WIDTH, y);
+            }
+        }
+        
+        private void drawBorder(Graphics2D g2d, DisplayList dl) {
+            // Border color changes when slowed or sped up
+            Color borderColor;
+            if (dl.speedupTimer > 0) {
+                borderColor = SPEED_TARGET_COLOR;
+            } else if (dl.slowdownTimer > 0) {
+                borderColor = SLOW_TARGET_COLOR;
+            } else {
+                borderColor = new Color(0, 255, 150);
+            }
+            g2d.setColor(new Color(borderColor.getRed(), borderColor.getGreen(), borderColor.getBlue(), 100));
+            g2d.setStroke(new BasicStroke(4));
+            g2d.drawRect(2, 2, GAME_WIDTH - 4, GAME_HEIGHT - 4);
+            
+            g2d.setColor(new Color(borderColor.getRed(), borderColor.getGreen(), borderColor.getBlue(), 200));
+            g2d.setStroke(new BasicStroke(2));
+            g2d.drawRect(2, 2, GAME_WIDTH - 4, GAME_HEIGHT - 4);
+        }
+        
+        private void drawSnakeSegment(Graphics2D g2d, DisplayList dl, int i) {
+            int segX = (int) dl.x[i];
+            int segY = (int) dl.y[i];
+            float progress = dl.phase[i];
+            boolean isHead = dl.variant[i] == 1;
+            boolean isSlowed = dl.slowdownTimer > 0;
+            boolean isFast = dl.speedupTimer > 0;
             
             Color segmentColor;
-            if (i == size - 1) {
+            if (isHead) {
                 if (isFast) {
                     segmentColor = SNAKE_FAST_COLOR;
                     g2d.setColor(new Color(255, 180, 50, 80));
@@ -1731,7 +2185,7 @@ public class FireSnakeGame extends JPanel implements ActionListener, KeyListener
                     segmentColor = SNAKE_HEAD_COLOR;
                     g2d.setColor(SNAKE_GLOW);
                 }
-                g2d.fill(new Ellipse2D.Float(segment[0] - 4, segment[1] - 4, BLOCK_SIZE + 8, BLOCK_SIZE + 8));
+                g2d.fill(new Ellipse2D.Float(segX - 4, segY - 4, BLOCK_SIZE + 8, BLOCK_SIZE + 8));
             } else {
                 if (isFast) {
                     // Orange/yellow gradient when fast
@@ -1753,484 +2207,893 @@ public class FireSnakeGame extends JPanel implements ActionListener, KeyListener
             }
             
             g2d.setColor(segmentColor);
-            g2d.fill(new RoundRectangle2D.Float(segment[0] + 1, segment[1] + 1, BLOCK_SIZE - 2, BLOCK_SIZE - 2, 6, 6));
+            g2d.fill(new RoundRectangle2D.Float(segX + 1, segY + 1, BLOCK_SIZE - 2, BLOCK_SIZE - 2, 6, 6));
             
             GradientPaint shine = new GradientPaint(
-                segment[0], segment[1], new Color(255, 255, 255, 80),
-                segment[0], segment[1] + BLOCK_SIZE, new Color(255, 255, 255, 0)
+                segX, segY, new Color(255, 255, 255, 80),
+                segX, segY + BLOCK_SIZE, new Color(255, 255, 255, 0)
             );
             g2d.setPaint(shine);
-            g2d.fill(new RoundRectangle2D.Float(segment[0] + 2, segment[1] + 2, BLOCK_SIZE - 4, BLOCK_SIZE / 2 - 2, 4, 4));
+            g2d.fill(new RoundRectangle2D.Float(segX + 2, segY + 2, BLOCK_SIZE - 4, BLOCK_SIZE / 2 - 2, 4, 4));
             
-            if (i == size - 1) {
-                drawSnakeEyes(g2d, segment[0], segment[1]);
+            if (isHead) {
+                drawSnakeEyes(g2d, segX, segY, dl.headDirX, dl.headDirY);
             }
         }
-    }
-    
-    private void drawSnakeEyes(Graphics2D g2d, int x, int y) {
-        int eyeSize = 5;
-        int pupilSize = 3;
-        int eye1X, eye1Y, eye2X, eye2Y;
         
-        if (x1Change > 0) {
-            eye1X = x + BLOCK_SIZE - 7; eye1Y = y + 4;
-            eye2X = x + BLOCK_SIZE - 7; eye2Y = y + BLOCK_SIZE - 9;
-        } else if (x1Change < 0) {
-            eye1X = x + 2; eye1Y = y + 4;
-            eye2X = x + 2; eye2Y = y + BLOCK_SIZE - 9;
-        } else if (y1Change > 0) {
-            eye1X = x + 4; eye1Y = y + BLOCK_SIZE - 7;
-            eye2X = x + BLOCK_SIZE - 9; eye2Y = y + BLOCK_SIZE - 7;
-        } else {
-            eye1X = x + 4; eye1Y = y + 2;
-            eye2X = x + BLOCK_SIZE - 9; eye2Y = y + 2;
+        private void drawSnakeEyes(Graphics2D g2d, int x, int y, int dirX, int dirY) {
+            int eyeSize = 5;
+            int pupilSize = 3;
+            int eye1X, eye1Y, eye2X, eye2Y;
+            
+            if (dirX > 0) {
+                eye1X = x + BLOCK_SIZE - 7; eye1Y = y + 4;
+                eye2X = x + BLOCK_SIZE - 7; eye2Y = y + BLOCK_SIZE - 9;
+            } else if (dirX < 0) {
+                eye1X = x + 2; eye1Y = y + 4;
+                eye2X = x + 2; eye2Y = y + BLOCK_SIZE - 9;
+            } else if (dirY > 0) {
+                eye1X = x + 4; eye1Y = y + BLOCK_SIZE - 7;
+                eye2X = x + BLOCK_SIZE - 9; eye2Y = y + BLOCK_SIZE - 7;
+            } else {
+                eye1X = x + 4; eye1Y = y + 2;
+                eye2X = x + BLOCK_SIZE - 9; eye2Y = y + 2;
+            }
+            
+            g2d.setColor(Color.WHITE);
+            g2d.fillOval(eye1X, eye1Y, eyeSize, eyeSize);
+            g2d.fillOval(eye2X, eye2Y, eyeSize, eyeSize);
+            g2d.setColor(new Color(20, 20, 40));
+            g2d.fillOval(eye1X + 1, eye1Y + 1, pupilSize, pupilSize);
+            g2d.fillOval(eye2X + 1, eye2Y + 1, pupilSize, pupilSize);
         }
         
-        g2d.setColor(Color.WHITE);
-        g2d.fillOval(eye1X, eye1Y, eyeSize, eyeSize);
-        g2d.fillOval(eye2X, eye2Y, eyeSize, eyeSize);
-        g2d.setColor(new Color(20, 20, 40));
-        g2d.fillOval(eye1X + 1, eye1Y + 1, pupilSize, pupilSize);
-        g2d.fillOval(eye2X + 1, eye2Y + 1, pupilSize, pupilSize);
-    }
-    
-    private void drawFood(Graphics2D g2d) {
-        float pulse = (float)(Math.sin(foodPulse) * 0.2 + 1);
-        int size = (int)(BLOCK_SIZE * pulse);
-        int offset = (BLOCK_SIZE - size) / 2;
+        private void drawFood(Graphics2D g2d, DisplayList dl) {
+            float pulse = (float)(Math.sin(dl.foodPulse) * 0.2 + 1);
+            int size = (int)(BLOCK_SIZE * pulse);
+            int offset = (BLOCK_SIZE - size) / 2;
+            
+            for (int i = 3; i > 0; i--) {
+                int glowSize = size + i * 6;
+                int glowOffset = (BLOCK_SIZE - glowSize) / 2;
+                g2d.setColor(new Color(FOOD_GLOW.getRed(), FOOD_GLOW.getGreen(), FOOD_GLOW.getBlue(), 30 - i * 8));
+                g2d.fill(new Ellipse2D.Float(dl.foodX + glowOffset, dl.foodY + glowOffset, glowSize, glowSize));
+            }
+            
+            GradientPaint foodGradient = new GradientPaint(dl.foodX, dl.foodY, FOOD_INNER, dl.foodX + BLOCK_SIZE, dl.foodY + BLOCK_SIZE, FOOD_COLOR);
+            g2d.setPaint(foodGradient);
+            g2d.fill(new Ellipse2D.Float(dl.foodX + offset, dl.foodY + offset, size, size));
+            g2d.setColor(new Color(255, 255, 255, 150));
+            g2d.fill(new Ellipse2D.Float(dl.foodX + offset + 3, dl.foodY + offset + 3, size / 3, size / 3));
+        }
         
-        for (int i = 3; i > 0; i--) {
-            int glowSize = size + i * 6;
-            int glowOffset = (BLOCK_SIZE - glowSize) / 2;
-            g2d.setColor(new Color(FOOD_GLOW.getRed(), FOOD_GLOW.getGreen(), FOOD_GLOW.getBlue(), 30 - i * 8));
-            g2d.fill(new Ellipse2D.Float(foodX + glowOffset, foodY + glowOffset, glowSize, glowSize));
+        private void drawParticle(Graphics2D g2d, DisplayList dl, int i) {
+            int rgb = dl.variant[i];
+            float alpha = dl.alpha[i];
+            float currentSize = dl.size[i];
+            g2d.setColor(new Color((rgb >> 16) & 0xFF, (rgb >> 8) & 0xFF, rgb & 0xFF, (int)(alpha * 255)));
+            g2d.fill(new Ellipse2D.Float(dl.x[i] - currentSize/2, dl.y[i] - currentSize/2, currentSize, currentSize));
         }
         
-        GradientPaint foodGradient = new GradientPaint(foodX, foodY, FOOD_INNER, foodX + BLOCK_SIZE, foodY + BLOCK_SIZE, FOOD_COLOR);
-        g2d.setPaint(foodGradient);
-        g2d.fill(new Ellipse2D.Float(foodX + offset, foodY + offset, size, size));
-        g2d.setColor(new Color(255, 255, 255, 150));
-        g2d.fill(new Ellipse2D.Float(foodX + offset + 3, foodY + offset + 3, size / 3, size / 3));
-    }
-    
-    private void drawParticles(Graphics2D g2d) {
-        for (Particle p : particles) {
-            p.draw(g2d);
+        private void drawBullet(Graphics2D g2d, DisplayList dl, int i) {
+            float x = dl.x[i];
+            float y = dl.y[i];
+            g2d.setColor(BULLET_GLOW);
+            g2d.fill(new Ellipse2D.Float(x - 8, y - 8, 16, 16));
+            g2d.setColor(BULLET_COLOR);
+            g2d.fill(new Ellipse2D.Float(x - 5, y - 5, 10, 10));
+            g2d.setColor(new Color(255, 255, 255, 200));
+            g2d.fill(new Ellipse2D.Float(x - 3, y - 3, 4, 4));
         }
-    }
-    
-    private void drawTargets(Graphics2D g2d) {
-        for (Target t : targets) {
-            t.draw(g2d);
-        }
-    }
-    
-    private void drawSlowTargets(Graphics2D g2d) {
-        for (SlowTarget st : slowTargets) {
-            st.draw(g2d);
-        }
-    }
-    
-    private void drawShrinkTargets(Graphics2D g2d) {
-        for (ShrinkTarget sht : shrinkTargets) {
-            sht.draw(g2d);
-        }
-    }
-    
-    private void drawSpeedTargets(Graphics2D g2d) {
-        for (SpeedTarget spt : speedTargets) {
-            spt.draw(g2d);
-        }
-    }
-    
-    private void drawBullets(Graphics2D g2d) {
-        for (Bullet b : bullets) {
-            b.draw(g2d);
-        }
-    }
-    
-    private void drawSlowdownIndicator(Graphics2D g2d) {
-        // Draw slowdown timer bar at top
-        float progress = (float) slowdownTimer / SLOWDOWN_DURATION;
-        int barWidth = (int)(GAME_WIDTH * 0.6f);
-        int barHeight = 8;
-        int barX = (GAME_WIDTH - barWidth) / 2;
-        int barY = 15;
-        
-        // Background
-        g2d.setColor(new Color(0, 0, 0, 150));
-        g2d.fillRoundRect(barX - 5, barY - 5, barWidth + 10, barHeight + 20, 10, 10);
-        
-        // Bar background
-        g2d.setColor(new Color(50, 50, 100));
-        g2d.fillRoundRect(barX, barY, barWidth, barHeight, 4, 4);
-        
-        // Bar fill
-        g2d.setColor(SLOW_TARGET_COLOR);
-        g2d.fillRoundRect(barX, barY, (int)(barWidth * progress), barHeight, 4, 4);
-        
-        // Text
-        g2d.setColor(TEXT_COLOR);
-        g2d.setFont(new Font("Arial", Font.BOLD, 12));
-        String text = "SLOWED - " + String.format("%.1f", slowdownTimer / 12.0f) + "s";
-        FontMetrics fm = g2d.getFontMetrics();
-        g2d.drawString(text, barX + (barWidth - fm.stringWidth(text)) / 2, barY + barHeight + 14);
-    }
-    
-    private void drawSpeedupIndicator(Graphics2D g2d) {
-        // Draw speedup timer bar at top
-        float progress = (float) speedupTimer / SPEEDUP_DURATION;
-        int barWidth = (int)(GAME_WIDTH * 0.6f);
-        int barHeight = 8;
-        int barX = (GAME_WIDTH - barWidth) / 2;
-        int barY = 15;
-        
-        // Background
-        g2d.setColor(new Color(0, 0, 0, 150));
-        g2d.fillRoundRect(barX - 5, barY - 5, barWidth + 10, barHeight + 20, 10, 10);
-        
-        // Bar background
-        g2d.setColor(new Color(100, 50, 0));
-        g2d.fillRoundRect(barX, barY, barWidth, barHeight, 4, 4);
-        
-        // Bar fill (orange/yellow gradient effect)
-        g2d.setColor(SPEED_TARGET_COLOR);
-        g2d.fillRoundRect(barX, barY, (int)(barWidth * progress), barHeight, 4, 4);
-        
-        // Text
-        g2d.setColor(TEXT_COLOR);
-        g2d.setFont(new Font("Arial", Font.BOLD, 12));
-        String text = "SPEED x2 - " + String.format("%.1f", speedupTimer / 24.0f) + "s";
-        FontMetrics fm = g2d.getFontMetrics();
-        g2d.drawString(text, barX + (barWidth - fm.stringWidth(text)) / 2, barY + barHeight + 14);
-    }
-    
-    private void drawFoodTimer(Graphics2D g2d) {
-        // Draw food timer near the food
-        float timeLeft = foodTimer / 12.0f; // Convert to seconds
-        float progress = (float) foodTimer / FOOD_TIME_LIMIT;
-        
-        // Color changes from green to yellow to red based on time left
-        Color timerColor;
-        if (progress > 0.5f) {
-            timerColor = new Color(100, 255, 100); // Green
-        } else if (progress > 0.25f) {
-            timerColor = new Color(255, 255, 0); // Yellow
-        } else {
-            // Blink red when critical
-            int blink = (foodTimer % 12 < 6) ? 255 : 150;
-            timerColor = new Color(blink, 50, 50); // Red (blinking)
-        }
-        
-        // Draw circular timer around food
-        int timerRadius = BLOCK_SIZE + 8;
-        int centerX = foodX + BLOCK_SIZE / 2;
-        int centerY = foodY + BLOCK_SIZE / 2;
-        
-        // Background arc
-        g2d.setColor(new Color(50, 50, 50, 150));
-        g2d.setStroke(new BasicStroke(4));
-        g2d.drawOval(centerX - timerRadius, centerY - timerRadius, timerRadius * 2, timerRadius * 2);
-        
-        // Progress arc
-        g2d.setColor(timerColor);
-        g2d.setStroke(new BasicStroke(4));
-        int arcAngle = (int)(360 * progress);
-        g2d.drawArc(centerX - timerRadius, centerY - timerRadius, timerRadius * 2, timerRadius * 2, 90, -arcAngle);
-        
-        // Timer text
-        g2d.setFont(new Font("Arial", Font.BOLD, 10));
-        String timerText = String.format("%.1f", timeLeft);
-        FontMetrics fm = g2d.getFontMetrics();
-        g2d.setColor(timerColor);
-        g2d.drawString(timerText, centerX - fm.stringWidth(timerText) / 2, centerY - timerRadius - 5);
-    }
-    
-    private void drawStatsPanel(Graphics2D g2d) {
-        g2d.setColor(STATS_BG);
-        g2d.fillRect(GAME_WIDTH, 0, STATS_WIDTH, GAME_HEIGHT);
-        
-        g2d.setColor(new Color(0, 255, 150, 100));
-        g2d.setStroke(new BasicStroke(2));
-        g2d.drawLine(GAME_WIDTH, 0, GAME_WIDTH, GAME_HEIGHT);
-        
-        int x = GAME_WIDTH + 15;
-        int y = 30;
-        int lineHeight = 26;
-        
-        // Title
-        g2d.setColor(SNAKE_HEAD_COLOR);
-        g2d.setFont(new Font("Arial", Font.BOLD, 18));
-        g2d.drawString("STATISTICS", x, y);
-        y += lineHeight + 5;
-        
-        // Score
-        g2d.setColor(TEXT_COLOR);
-        g2d.setFont(new Font("Arial", Font.BOLD, 16));
-        g2d.drawString("Score: " + score, x, y);
-        y += lineHeight - 5;
-        
-        // Global high score (gold color)
-        g2d.setColor(new Color(255, 215, 0));
-        g2d.setFont(new Font("Arial", Font.BOLD, 12));
-        g2d.drawString("Global Best: " + globalHighScore, x, y);
-        y += 16;
-        
-        // Session high score (silver color)
-        g2d.setColor(new Color(180, 180, 200));
-        g2d.setFont(new Font("Arial", Font.PLAIN, 12));
-        g2d.drawString("Session Best: " + sessionHighScore, x, y);
-        y += lineHeight;
-        
-        // Divider
-        g2d.setColor(new Color(100, 100, 150));
-        g2d.drawLine(x, y - 5, GAME_WIDTH + STATS_WIDTH - 15, y - 5);
-        y += 12; // Added more spacing after divider
-        
-        // Shooting stats
-        g2d.setColor(BULLET_COLOR);
-        g2d.setFont(new Font("Arial", Font.BOLD, 14));
-        g2d.drawString("SHOOTING", x, y);
-        y += lineHeight - 5;
-        
-        g2d.setColor(new Color(180, 180, 180));
-        g2d.setFont(new Font("Arial", Font.PLAIN, 12));
-        g2d.drawString("Shots: " + totalShots, x, y);
-        y += lineHeight - 8;
-        g2d.drawString("Hits: " + targetsHit, x, y);
-        y += lineHeight - 8;
-        
-        double accuracy = totalShots > 0 ? (targetsHit * 100.0 / totalShots) : 0;
-        Color accColor = accuracy >= 50 ? new Color(100, 255, 100) : accuracy >= 25 ? new Color(255, 200, 50) : new Color(255, 100, 100);
-        g2d.setColor(accColor);
-        g2d.drawString(String.format("Accuracy: %.1f%%", accuracy), x, y);
-        y += lineHeight - 8;
-        
-        double avgPoints = totalShots > 0 ? (score * 1.0 / totalShots) : 0;
-        g2d.setColor(new Color(180, 180, 180));
-        g2d.drawString(String.format("Avg Pts/Shot: %.2f", avgPoints), x, y);
-        y += lineHeight + 5;
-        
-        // Divider
-        g2d.setColor(new Color(100, 100, 150));
-        g2d.drawLine(x, y - 5, GAME_WIDTH + STATS_WIDTH - 15, y - 5);
-        y += 12; // Added more spacing after divider
-        
-        // Eating stats
-        g2d.setColor(FOOD_COLOR);
-        g2d.setFont(new Font("Arial", Font.BOLD, 14));
-        g2d.drawString("EATING", x, y);
-        y += lineHeight - 5;
-        
-        g2d.setColor(new Color(180, 180, 180));
-        g2d.setFont(new Font("Arial", Font.PLAIN, 12));
-        g2d.drawString("Food: " + foodEaten, x, y);
-        y += lineHeight - 8;
-        g2d.drawString("Length: " + snakeLength, x, y);
-        y += lineHeight + 5;
-        
-        // Divider
-        g2d.setColor(new Color(100, 100, 150));
-        g2d.drawLine(x, y - 5, GAME_WIDTH + STATS_WIDTH - 15, y - 5);
-        y += 12; // Added more spacing after divider
-        
-        // Target legend
-        g2d.setColor(new Color(255, 255, 255));
-        g2d.setFont(new Font("Arial", Font.BOLD, 14));
-        g2d.drawString("TARGETS", x, y);
-        y += lineHeight - 5;
-        
-        g2d.setFont(new Font("Arial", Font.PLAIN, 11));
-        
-        // Square targets (dangerous)
-        for (TargetType type : TargetType.values()) {
-            g2d.setColor(type.color);
-            g2d.fillRect(x, y - 9, 10, 10);
-            g2d.setColor(new Color(180, 180, 180));
-            g2d.drawString(type.name + " +" + type.points, x + 14, y);
-            y += 16;
-        }
-        
-        y += 5;
-        
-        // Slow target (circle)
-        g2d.setColor(SLOW_TARGET_COLOR);
-        g2d.fillOval(x, y - 9, 10, 10);
-        g2d.setColor(new Color(180, 180, 180));
-        g2d.drawString("Slow (10s)", x + 14, y);
-        y += 18;
-        
-        // Shrink target (triangle)
-        g2d.setColor(SHRINK_TARGET_COLOR);
-        int[] txPoints = {x + 5, x, x + 10};
-        int[] tyPoints = {y - 9, y + 1, y + 1};
-        g2d.fillPolygon(txPoints, tyPoints, 3);
-        g2d.setColor(new Color(180, 180, 180));
-        g2d.drawString("Shrink (/2)", x + 14, y);
-        y += 18;
-        
-        // Speed target (diamond)
-        g2d.setColor(SPEED_TARGET_COLOR);
-        int[] dxPoints = {x + 5, x + 10, x + 5, x};
-        int[] dyPoints = {y - 9, y - 4, y + 1, y - 4};
-        g2d.fillPolygon(dxPoints, dyPoints, 4);
-        g2d.setColor(new Color(180, 180, 180));
-        g2d.drawString("Speed (x2)", x + 14, y);
-        y += lineHeight + 5;
-        
-        // Legend explanation
-        g2d.setColor(new Color(120, 120, 140));
-        g2d.setFont(new Font("Arial", Font.ITALIC, 10));
-        g2d.drawString("Square = Dangerous", x, y);
-        y += 14;
-        g2d.drawString("Other shapes = Safe", x, y);
-        y += lineHeight;
-        
-        // Controls hint
-        g2d.setColor(new Color(100, 100, 120));
-        g2d.setFont(new Font("Arial", Font.ITALIC, 10));
-        g2d.drawString("ESC - End Game", x, y);
-        y += 14;
-        g2d.drawString("Arrows - Move", x, y);
-        y += 14;
-        g2d.drawString("Space - Shoot", x, y);
-        y += 14;
-        // Show mute status
-        if (soundMuted) {
-            g2d.setColor(new Color(255, 100, 100));
-            g2d.drawString("Backspace - Sound OFF", x, y);
-        } else {
-            g2d.setColor(new Color(100, 255, 100));
-            g2d.drawString("Backspace - Sound ON", x, y);
-        }
-    }
-    
-    private void drawStartScreen(Graphics2D g2d) {
-        g2d.setColor(new Color(0, 0, 0, 150));
-        g2d.fillRect(0, 0, GAME_WIDTH, GAME_HEIGHT);
-        
-        String title = "FIRE SNAKE";
-        g2d.setFont(new Font("Arial", Font.BOLD, 72));
-        FontMetrics fm = g2d.getFontMetrics();
-        int titleX = (GAME_WIDTH - fm.stringWidth(title)) / 2;
-        int titleY = GAME_HEIGHT / 3;
         
-        for (int i = 10; i > 0; i--) {
-            g2d.setColor(new Color(0, 255, 150, 10));
-            g2d.drawString(title, titleX - i/2, titleY);
-            g2d.drawString(title, titleX + i/2, titleY);
+        // Dangerous target - SQUARE shape
+        private void drawTarget(Graphics2D g2d, DisplayList dl, int i) {
+            int x = (int) dl.x[i];
+            int y = (int) dl.y[i];
+            int gridSize = (int) dl.size[i];
+            float alpha = dl.alpha[i];
+            TargetType type = TARGET_TYPES[dl.variant[i]];
+            
+            int totalSize = gridSize * BLOCK_SIZE;
+            float pulseScale = (float)(Math.sin(dl.phase[i]) * 0.05 + 1);
+            int size = (int)(totalSize * pulseScale);
+            int offset = (totalSize - size) / 2;
+            
+            // Draw outer glow (square)
+            for (int g = 3; g > 0; g--) {
+                int glowSize = size + g * 6;
+                int glowOffset = (totalSize - glowSize) / 2;
+                g2d.setColor(new Color(type.color.getRed(), type.color.getGreen(), type.color.getBlue(), (int)((30 - g * 8) * alpha)));
+                g2d.fill(new RoundRectangle2D.Float(x + glowOffset, y + glowOffset, glowSize, glowSize, 4, 4));
+            }
+            
+            // Draw target SQUARE
+            GradientPaint targetGradient = new GradientPaint(
+                x, y, new Color(type.innerColor.getRed(), type.innerColor.getGreen(), type.innerColor.getBlue(), (int)(255 * alpha)),
+                x + totalSize, y + totalSize, new Color(type.color.getRed(), type.color.getGreen(), type.color.getBlue(), (int)(255 * alpha))
+            );
+            g2d.setPaint(targetGradient);
+            g2d.fill(new RoundRectangle2D.Float(x + offset, y + offset, size, size, 6, 6));
+            
+            // Draw X pattern (danger indicator) - scaled for larger targets
+            g2d.setColor(new Color(255, 255, 255, (int)(200 * alpha)));
+            g2d.setStroke(new BasicStroke(2 + gridSize - 1));
+            int centerX = x + totalSize / 2;
+            int centerY = y + totalSize / 2;
+            int crossSize = size / 4;
+            g2d.drawLine(centerX - crossSize, centerY - crossSize, centerX + crossSize, centerY + crossSize);
+            g2d.drawLine(centerX + crossSize, centerY - crossSize, centerX - crossSize, centerY + crossSize);
+            
+            // Draw border
+            g2d.setColor(new Color(255, 255, 255, (int)(100 * alpha)));
+            g2d.draw(new RoundRectangle2D.Float(x + offset, y + offset, size, size, 6, 6));
+            
+            // Draw points indicator
+            g2d.setColor(new Color(255, 255, 255, (int)(180 * alpha)));
+            targetPointsText[gridSize].clear().append('+').append(type.points).drawCentered(g2d, centerX, y - 2);
+            
+            // Draw lifetime bar
+            int barWidth = (int)(totalSize * dl.aux[i]);
+            g2d.setColor(new Color(type.color.getRed(), type.color.getGreen(), type.color.getBlue(), (int)(150 * alpha)));
+            g2d.fillRect(x, y + totalSize + 2, barWidth, 3);
         }
         
-        g2d.setColor(SNAKE_HEAD_COLOR);
-        g2d.drawString(title, titleX, titleY);
-        
-        g2d.setFont(new Font("Arial", Font.PLAIN, 24));
-        String instruction = "Press ARROW KEY or SPACE to start";
-        fm = g2d.getFontMetrics();
-        int instX = (GAME_WIDTH - fm.stringWidth(instruction)) / 2;
-        
-        int alpha = (int)(Math.abs(Math.sin(foodPulse * 2)) * 200 + 55);
-        g2d.setColor(new Color(255, 255, 255, alpha));
-        g2d.drawString(instruction, instX, GAME_HEIGHT / 2 + 50);
-        
-        g2d.setColor(new Color(150, 150, 150));
-        g2d.setFont(new Font("Arial", Font.PLAIN, 16));
-        String controls = "Arrows - Move | Space - Shoot | ESC - Exit";
-        fm = g2d.getFontMetrics();
-        g2d.drawString(controls, (GAME_WIDTH - fm.stringWidth(controls)) / 2, GAME_HEIGHT - 100);
-        
-        // Sound control hint
-        if (soundMuted) {
-            g2d.setColor(new Color(255, 100, 100));
-            String soundHint = "Backspace - Sound OFF (press to enable)";
-            fm = g2d.getFontMetrics();
-            g2d.drawString(soundHint, (GAME_WIDTH - fm.stringWidth(soundHint)) / 2, GAME_HEIGHT - 75);
-        } else {
-            g2d.setColor(new Color(100, 255, 100));
-            String soundHint = "Backspace - Mute Sound";
-            fm = g2d.getFontMetrics();
-            g2d.drawString(soundHint, (GAME_WIDTH - fm.stringWidth(soundHint)) / 2, GAME_HEIGHT - 75);
+        // Slow target - CIRCLE shape
+        private void drawSlowTarget(Graphics2D g2d, DisplayList dl, int i) {
+            int x = (int) dl.x[i];
+            int y = (int) dl.y[i];
+            int gridSize = (int) dl.size[i];
+            float alpha = dl.alpha[i];
+            int totalSize = gridSize * BLOCK_SIZE;
+            float pulseScale = (float)(Math.sin(dl.phase[i]) * 0.1 + 1);
+            int size = (int)(totalSize * pulseScale);
+            int offset = (totalSize - size) / 2;
+            
+            // Draw outer glow (circle)
+            for (int g = 3; g > 0; g--) {
+                int glowSize = size + g * 6;
+                int glowOffset = (totalSize - glowSize) / 2;
+                g2d.setColor(new Color(SLOW_TARGET_COLOR.getRed(), SLOW_TARGET_COLOR.getGreen(), SLOW_TARGET_COLOR.getBlue(), (int)((30 - g * 8) * alpha)));
+                g2d.fill(new Ellipse2D.Float(x + glowOffset, y + glowOffset, glowSize, glowSize));
+            }
+            
+            // Draw target CIRCLE
+            GradientPaint targetGradient = new GradientPaint(
+                x, y, new Color(SLOW_TARGET_INNER.getRed(), SLOW_TARGET_INNER.getGreen(), SLOW_TARGET_INNER.getBlue(), (int)(255 * alpha)),
+                x + totalSize, y + totalSize, new Color(SLOW_TARGET_COLOR.getRed(), SLOW_TARGET_COLOR.getGreen(), SLOW_TARGET_COLOR.getBlue(), (int)(255 * alpha))
+            );
+            g2d.setPaint(targetGradient);
+            g2d.fill(new Ellipse2D.Float(x + offset, y + offset, size, size));
+            
+            // Draw slow icon (hourglass-like) - scaled
+            g2d.setColor(new Color(255, 255, 255, (int)(200 * alpha)));
+            g2d.setStroke(new BasicStroke(1 + gridSize));
+            int centerX = x + totalSize / 2;
+            int centerY = y + totalSize / 2;
+            int iconSize = 4 * gridSize;
+            g2d.drawLine(centerX - iconSize, centerY - iconSize, centerX + iconSize, centerY - iconSize);
+            g2d.drawLine(centerX - iconSize, centerY + iconSize, centerX + iconSize, centerY + iconSize);
+            g2d.drawLine(centerX - iconSize, centerY - iconSize, centerX, centerY);
+            g2d.drawLine(centerX + iconSize, centerY - iconSize, centerX, centerY);
+            g2d.drawLine(centerX - iconSize, centerY + iconSize, centerX, centerY);
+            g2d.drawLine(centerX + iconSize, centerY + iconSize, centerX, centerY);
+            
+            // Draw "SLOW" text
+            g2d.setColor(new Color(255, 255, 255, (int)(150 * alpha)));
+            targetTagText[gridSize].clear().append("SLOW").draw(g2d, x - 2, y - 2);
+            
+            // Draw lifetime bar
+            int barWidth = (int)(totalSize * dl.aux[i]);
+            g2d.setColor(new Color(SLOW_TARGET_COLOR.getRed(), SLOW_TARGET_COLOR.getGreen(), SLOW_TARGET_COLOR.getBlue(), (int)(150 * alpha)));
+            g2d.fillRect(x, y + totalSize + 2, barWidth, 3);
         }
         
-        g2d.setColor(new Color(255, 100, 100, 200));
-        String warning = "Don't collide with SQUARE targets!";
-        fm = g2d.getFontMetrics();
-        g2d.drawString(warning, (GAME_WIDTH - fm.stringWidth(warning)) / 2, GAME_HEIGHT - 45);
-    }
-    
-    private void drawGameOverScreen(Graphics2D g2d) {
-        g2d.setColor(new Color(0, 0, 0, 200));
-        g2d.fillRect(0, 0, GAME_WIDTH, GAME_HEIGHT);
-        
-        String title = "GAME OVER";
-        g2d.setFont(new Font("Arial", Font.BOLD, 56));
-        FontMetrics fm = g2d.getFontMetrics();
-        int titleX = (GAME_WIDTH - fm.stringWidth(title)) / 2;
-        int titleY = GAME_HEIGHT / 3;
-        
-        for (int i = 15; i > 0; i--) {
-            g2d.setColor(new Color(255, 50, 50, 8));
-            g2d.drawString(title, titleX - i/2, titleY);
-            g2d.drawString(title, titleX + i/2, titleY);
+        // Shrink target - TRIANGLE shape
+        private void drawShrinkTarget(Graphics2D g2d, DisplayList dl, int i) {
+            int x = (int) dl.x[i];
+            int y = (int) dl.y[i];
+            int gridSize = (int) dl.size[i];
+            float alpha = dl.alpha[i];
+            int totalSize = gridSize * BLOCK_SIZE;
+            float pulseScale = (float)(Math.sin(dl.phase[i]) * 0.1 + 1);
+            int size = (int)(totalSize * pulseScale);
+            
+            // Draw outer glow (triangle shape)
+            int centerX = x + totalSize / 2;
+            int centerY = y + totalSize / 2;
+            
+            for (int g = 3; g > 0; g--) {
+                int glowSize = size + g * 4;
+                int[] xPoints = {centerX, centerX - glowSize/2, centerX + glowSize/2};
+                int[] yPoints = {centerY - glowSize/2, centerY + glowSize/2, centerY + glowSize/2};
+                g2d.setColor(new Color(SHRINK_TARGET_COLOR.getRed(), SHRINK_TARGET_COLOR.getGreen(), SHRINK_TARGET_COLOR.getBlue(), (int)((25 - g * 6) * alpha)));
+                g2d.fillPolygon(xPoints, yPoints, 3);
+            }
+            
+            // Draw target TRIANGLE
+            int halfSize = size / 2;
+            int[] xPoints = {centerX, centerX - halfSize, centerX + halfSize};
+            int[] yPoints = {centerY - halfSize, centerY + halfSize, centerY + halfSize};
+            
+            GradientPaint targetGradient = new GradientPaint(
+                centerX, centerY - halfSize, new Color(SHRINK_TARGET_INNER.getRed(), SHRINK_TARGET_INNER.getGreen(), SHRINK_TARGET_INNER.getBlue(), (int)(255 * alpha)),
+                centerX, centerY + halfSize, new Color(SHRINK_TARGET_COLOR.getRed(), SHRINK_TARGET_COLOR.getGreen(), SHRINK_TARGET_COLOR.getBlue(), (int)(255 * alpha))
+            );
+            g2d.setPaint(targetGradient);
+            g2d.fillPolygon(xPoints, yPoints, 3);
+            
+            // Draw down arrow inside (shrink indicator) - scaled
+            g2d.setColor(new Color(255, 255, 255, (int)(200 * alpha)));
+            g2d.setStroke(new BasicStroke(1 + gridSize));
+            int arrowSize = 3 * gridSize;
+            g2d.drawLine(centerX, centerY - arrowSize, centerX, centerY + arrowSize + 1);
+            g2d.drawLine(centerX - arrowSize, centerY + 1, centerX, centerY + arrowSize + 1);
+            g2d.drawLine(centerX + arrowSize, centerY + 1, centerX, centerY + arrowSize + 1);
+            
+            // Draw "/2" text
+            g2d.setColor(new Color(255, 255, 255, (int)(150 * alpha)));
+            targetTagText[gridSize].clear().append("/2").draw(g2d, x + 5, y - 2);
+            
+            // Draw lifetime bar
+            int barWidth = (int)(totalSize * dl.aux[i]);
+            g2d.setColor(new Color(SHRINK_TARGET_COLOR.getRed(), SHRINK_TARGET_COLOR.getGreen(), SHRINK_TARGET_COLOR.getBlue(), (int)(150 * alpha)));
+            g2d.fillRect(x, y + totalSize + 2, barWidth, 3);
         }
         
-        g2d.setColor(FOOD_COLOR);
-        g2d.drawString(title, titleX, titleY);
-        
-        g2d.setFont(new Font("Arial", Font.BOLD, 32));
-        String scoreText = "Final Score: " + score;
-        fm = g2d.getFontMetrics();
-        g2d.setColor(TEXT_COLOR);
-        g2d.drawString(scoreText, (GAME_WIDTH - fm.stringWidth(scoreText)) / 2, GAME_HEIGHT / 2);
+        // Speed target - DIAMOND shape
+        private void drawSpeedTarget(Graphics2D g2d, DisplayList dl, int i) {
+            int x = (int) dl.x[i];
+            int y = (int) dl.y[i];
+            int gridSize = (int) dl.size[i];
+            float alpha = dl.alpha[i];
+            int totalSize = gridSize * BLOCK_SIZE;
+            float pulseScale = (float)(Math.sin(dl.phase[i]) * 0.1 + 1);
+            int size = (int)(totalSize * pulseScale);
+            
+            int centerX = x + totalSize / 2;
+            int centerY = y + totalSize / 2;
+            int halfSize = size / 2;
+            
+            // Draw outer glow (diamond shape)
+            for (int g = 3; g > 0; g--) {
+                int glowSize = halfSize + g * 3;
+                int[] xPoints = {centerX, centerX + glowSize, centerX, centerX - glowSize};
+                int[] yPoints = {centerY - glowSize, centerY, centerY + glowSize, centerY};
+                g2d.setColor(new Color(SPEED_TARGET_COLOR.getRed(), SPEED_TARGET_COLOR.getGreen(), SPEED_TARGET_COLOR.getBlue(), (int)((25 - g * 6) * alpha)));
+                g2d.fillPolygon(xPoints, yPoints, 4);
+            }
+            
+            // Draw target DIAMOND
+            int[] xPoints = {centerX, centerX + halfSize, centerX, centerX - halfSize};
+            int[] yPoints = {centerY - halfSize, centerY, centerY + halfSize, centerY};
+            
+            GradientPaint targetGradient = new GradientPaint(
+                centerX, centerY - halfSize, new Color(SPEED_TARGET_INNER.getRed(), SPEED_TARGET_INNER.getGreen(), SPEED_TARGET_INNER.getBlue(), (int)(255 * alpha)),
+                centerX, centerY + halfSize, new Color(SPEED_TARGET_COLOR.getRed(), SPEED_TARGET_COLOR.getGreen(), SPEED_TARGET_COLOR.getBlue(), (int)(255 * alpha))
+            );
+            g2d.setPaint(targetGradient);
+            g2d.fillPolygon(xPoints, yPoints, 4);
+            
+            // Draw lightning bolt inside (speed indicator) - scaled
+            g2d.setColor(new Color(255, 255, 255, (int)(220 * alpha)));
+            g2d.setStroke(new BasicStroke(1 + gridSize));
+            int boltSize = 2 + gridSize * 2;
+            g2d.drawLine(centerX - boltSize/2, centerY - boltSize, centerX + boltSize/2, centerY - boltSize/3);
+            g2d.drawLine(centerX + boltSize/2, centerY - boltSize/3, centerX - boltSize/2, centerY + boltSize/3);
+            g2d.drawLine(centerX - boltSize/2, centerY + boltSize/3, centerX + boltSize/2, centerY + boltSize);
+            
+            // Draw "x2" text
+            g2d.setColor(new Color(255, 255, 255, (int)(150 * alpha)));
+            targetTagText[gridSize].clear().append("x2").draw(g2d, x + 4, y - 2);
+            
+            // Draw lifetime bar
+            int barWidth = (int)(totalSize * dl.aux[i]);
+            g2d.setColor(new Color(SPEED_TARGET_COLOR.getRed(), SPEED_TARGET_COLOR.getGreen(), SPEED_TARGET_COLOR.getBlue(), (int)(150 * alpha)));
+            g2d.fillRect(x, y + totalSize + 2, barWidth, 3);
+        }
         
-        int recordY = GAME_HEIGHT / 2 + 35;
+        private void drawSlowdownIndicator(Graphics2D g2d, DisplayList dl) {
+            // Draw slowdown timer bar at top
+            float progress = (float) dl.slowdownTimer / SLOWDOWN_DURATION;
+            int barWidth = (int)(GAME_WIDTH * 0.6f);
+            int barHeight = 8;
+            int barX = (GAME_WIDTH - barWidth) / 2;
+            int barY = 15;
+            
+            // Background
+            g2d.setColor(new Color(0, 0, 0, 150));
+            g2d.fillRoundRect(barX - 5, barY - 5, barWidth + 10, barHeight + 20, 10, 10);
+            
+            // Bar background
+            g2d.setColor(new Color(50, 50, 100));
+            g2d.fillRoundRect(barX, barY, barWidth, barHeight, 4, 4);
+            
+            // Bar fill
+            g2d.setColor(SLOW_TARGET_COLOR);
+            g2d.fillRoundRect(barX, barY, (int)(barWidth * progress), barHeight, 4, 4);
+            
+            // Text
+            g2d.setColor(TEXT_COLOR);
+            HudText text = bold12.clear().append("SLOWED - ").append(dl.slowdownTimer / 12.0f, 1).append('s');
+            text.draw(g2d, barX + (barWidth - text.width(g2d)) / 2, barY + barHeight + 14);
+        }
+        
+        private void drawSpeedupIndicator(Graphics2D g2d, DisplayList dl) {
+            // Draw speedup timer bar at top
+            float progress = (float) dl.speedupTimer / SPEEDUP_DURATION;
+            int barWidth = (int)(GAME_WIDTH * 0.6f);
+            int barHeight = 8;
+            int barX = (GAME_WIDTH - barWidth) / 2;
+            int barY = 15;
+            
+            // Background
+            g2d.setColor(new Color(0, 0, 0, 150));
+            g2d.fillRoundRect(barX - 5, barY - 5, barWidth + 10, barHeight + 20, 10, 10);
+            
+            // Bar background
+            g2d.setColor(new Color(100, 50, 0));
+            g2d.fillRoundRect(barX, barY, barWidth, barHeight, 4, 4);
+            
+            // Bar fill (orange/yellow gradient effect)
+            g2d.setColor(SPEED_TARGET_COLOR);
+            g2d.fillRoundRect(barX, barY, (int)(barWidth * progress), barHeight, 4, 4);
+            
+            // Text
+            g2d.setColor(TEXT_COLOR);
+            HudText text = bold12.clear().append("SPEED x2 - ").append(dl.speedupTimer / 24.0f, 1).append('s');
+            text.draw(g2d, barX + (barWidth - text.width(g2d)) / 2, barY + barHeight + 14);
+        }
+        
+        private void drawAutopilotIndicator(Graphics2D g2d) {
+            // Bottom left corner of the board, out of the way of the timer bars
+            g2d.setColor(new Color(0, 0, 0, 150));
+            g2d.fillRoundRect(5, GAME_HEIGHT - 27, 118, 22, 10, 10);
+            g2d.setColor(new Color(100, 200, 255));
+            bold12.clear().append("AUTOPILOT (F6)").draw(g2d, 12, GAME_HEIGHT - 11);
+        }
+        
+        private void drawFoodTimer(Graphics2D g2d, DisplayList dl) {
+            // Draw food timer near the food
+            float timeLeft = dl.foodTimer / 12.0f; // Convert to seconds
+            float progress = (float) dl.foodTimer / FOOD_TIME_LIMIT;
+            
+            // Color changes from green to yellow to red based on time left
+            Color timerColor;
+            if (progress > 0.5f) {
+                timerColor = new Color(100, 255, 100); // Green
+            } else if (progress > 0.25f) {
+                timerColor = new Color(255, 255, 0); // Yellow
+            } else {
+                // Blink red when critical
+                int blink = (dl.foodTimer % 12 < 6) ? 255 : 150;
+                timerColor = new Color(blink, 50, 50); // Red (blinking)
+            }
+            
+            // Draw circular timer around food
+            int timerRadius = BLOCK_SIZE + 8;
+            int centerX = dl.foodX + BLOCK_SIZE / 2;
+            int centerY = dl.foodY + BLOCK_SIZE / 2;
+            
+            // Background arc
+            g2d.setColor(new Color(50, 50, 50, 150));
+            g2d.setStroke(new BasicStroke(4));
+            g2d.drawOval(centerX - timerRadius, centerY - timerRadius, timerRadius * 2, timerRadius * 2);
+            
+            // Progress arc
+            g2d.setColor(timerColor);
+            g2d.setStroke(new BasicStroke(4));
+            int arcAngle = (int)(360 * progress);
+            g2d.drawArc(centerX - timerRadius, centerY - timerRadius, timerRadius * 2, timerRadius * 2, 90, -arcAngle);
+            
+            // Timer text
+            g2d.setColor(timerColor);
+            bold10.clear().append(timeLeft, 1).drawCentered(g2d, centerX, centerY - timerRadius - 5);
+        }
+        
+        // Debug overlay: audio counters and latency histograms, read live from the mixer
+        private void drawDebugOverlay(Graphics2D g2d, AudioStats stats) {
+            int x = 10;
+            int y = 10;
+            g2d.setColor(DEBUG_BG);
+            g2d.fillRect(x, y, 330, 252);
+            x += 8;
+            
+            g2d.setColor(SNAKE_HEAD_COLOR);
+            bold12.clear().append("AUDIO").draw(g2d, x, y += 18);
+            g2d.setColor(TEXT_COLOR);
+            plain12.clear().append("F4 exports").draw(g2d, x + 250, y);
+            plain12.clear().append(stats.sampleRate / 1000.0, 1).append(" kHz ").append(stats.sampleBits)
+                .append("-bit   line buffer ").append(stats.lineBufferFrames * 1000.0 / Math.max(1, stats.sampleRate), 1)
+                .append(" ms").draw(g2d, x, y += 18);
+            plain12.clear().append("Underruns ").append(stats.lineUnderruns)
+                .append("   music underruns ").append(stats.musicUnderruns).draw(g2d, x, y += 16);
+            plain12.clear().append("Open failures ").append(stats.lineOpenFailures)
+                .append("   errors ").append(stats.lineErrors)
+                .append("   dropped ").append(stats.droppedSounds).draw(g2d, x, y += 16);
+            
+            drawLatencyHistogram(g2d, "Trigger to queued", stats.queueLatency, x, y + 24);
+            drawLatencyHistogram(g2d, "Trigger to played", stats.playLatency, x, y + 114);
+        }
+        
+        // Performance overlay: p50/p99/max of every tick and render phase, a sparkline of the
+        // latest frame intervals and the garbage collections so far
+        private void drawPerformanceOverlay(Graphics2D g2d, FrameStats stats) {
+            int x = 10;
+            int y = GAME_HEIGHT - 290;
+            g2d.setColor(DEBUG_BG);
+            g2d.fillRect(x, y, 330, 280);
+            x += 8;
+            
+            g2d.setColor(SNAKE_HEAD_COLOR);
+            bold12.clear().append("PERFORMANCE").draw(g2d, x, y += 18);
+            g2d.setColor(TEXT_COLOR);
+            plain12.clear().append("GC ").append(stats.getGcCount()).append(" (")
+                .append(stats.getGcTimeMs()).append(" ms)").draw(g2d, x + 190, y);
+            plain12.clear().append("ms").draw(g2d, x, y += 18);
+            plain12.clear().append("p50").draw(g2d, x + 150, y);
+            plain12.clear().append("p99").draw(g2d, x + 200, y);
+            plain12.clear().append("max").draw(g2d, x + 250, y);
+            for (FrameStats.Phase phase : FrameStats.PHASES) {
+                LatencyHistogram histogram = stats.get(phase);
+                y += 14;
+                plain12.clear().append(phase.label).draw(g2d, x, y);
+                plain12.clear().append(histogram.percentile(50) / 1000.0, 2).draw(g2d, x + 150, y);
+                plain12.clear().append(histogram.percentile(99) / 1000.0, 2).draw(g2d, x + 200, y);
+                plain12.clear().append(histogram.getMax() / 1000.0, 2).draw(g2d, x + 250, y);
+            }
+            
+            // Sparkline of the latest frame intervals, scaled to 2x the median interval
+            int count = stats.getRecentCount();
+            int frames = Math.min(count, FrameStats.RECENT_FRAMES);
+            int height = 36;
+            int bottom = y + 12 + height;
+            long scale = Math.max(1, 2 * stats.get(FrameStats.Phase.FRAME_INTERVAL).percentile(50));
+            g2d.setColor(SNAKE_HEAD_COLOR);
+            for (int i = 0; i < frames; i++) {
+                int interval = stats.recentFrame(count - frames + i);
+                int barHeight = (int) Math.min(height, Math.max(1, interval * height / scale));
+                if (interval > scale) {
+                    g2d.setColor(FOOD_COLOR); // Hitch: more than twice the median
+                }
+                g2d.fillRect(x + i * 2 + (FrameStats.RECENT_FRAMES - frames) * 2, bottom - barHeight, 1, barHeight);
+                if (interval > scale) {
+                    g2d.setColor(SNAKE_HEAD_COLOR);
+                }
+            }
+            g2d.setColor(DEBUG_AXIS);
+            g2d.drawLine(x, bottom, x + FrameStats.RECENT_FRAMES * 2, bottom);
+        }
+        
+        // Percentiles and bar chart of a latency histogram from 0.5 ms up (log scale)
+        private void drawLatencyHistogram(Graphics2D g2d, String name, LatencyHistogram histogram, int x, int y) {
+            g2d.setColor(TEXT_COLOR);
+            plain12.clear().append(name).append("  p50 ").append(histogram.percentile(50) / 1000.0, 1)
+                .append("  p99 ").append(histogram.percentile(99) / 1000.0, 1)
+                .append("  max ").append(histogram.getMax() / 1000.0, 1).append(" ms").draw(g2d, x, y);
+            
+            int first = LatencyHistogram.bucket(500);
+            int bars = 94;
+            int height = 44;
+            long peak = 1;
+            for (int i = first; i < first + bars; i++) {
+                peak = Math.max(peak, histogram.getCount(i));
+            }
+            int bottom = y + 8 + height;
+            g2d.setColor(SNAKE_HEAD_COLOR);
+            for (int i = 0; i < bars; i++) {
+                int barHeight = (int) Math.ceil(histogram.getCount(first + i) * height / (double) peak);
+                if (barHeight > 0) {
+                    g2d.fillRect(x + i * 3, bottom - barHeight, 2, barHeight);
+                }
+            }
+            g2d.setColor(DEBUG_AXIS);
+            g2d.drawLine(x, bottom, x + bars * 3, bottom);
+            g2d.setColor(TEXT_COLOR);
+            plain12.clear().append("0.5 ms").draw(g2d, x, bottom + 13);
+            plain12.clear().append(LatencyHistogram.lowerBound(first + bars) / 1000).append(" ms")
+                .draw(g2d, x + bars * 3 - 44, bottom + 13);
+        }
+        
+        // Stats panel. The layout is walked once per call: with staticLayer the labels, legend
+        // and dividers are drawn (baked into statsLayer), otherwise only the live values.
+        private void drawStatsPanel(Graphics2D g2d, DisplayList dl, boolean staticLayer) {
+            if (staticLayer) {
+                g2d.setColor(STATS_BG);
+                g2d.fillRect(GAME_WIDTH, 0, STATS_WIDTH, GAME_HEIGHT);
+                
+                g2d.setColor(new Color(0, 255, 150, 100));
+                g2d.setStroke(new BasicStroke(2));
+                g2d.drawLine(GAME_WIDTH, 0, GAME_WIDTH, GAME_HEIGHT);
+            }
+            
+            int x = GAME_WIDTH + 15;
+            int y = 30;
+            int lineHeight = 26;
+            
+            // Title
+            if (staticLayer) {
+                g2d.setColor(SNAKE_HEAD_COLOR);
+                g2d.setFont(FONT_BOLD_18);
+                g2d.drawString("STATISTICS", x, y);
+            }
+            y += lineHeight + 5;
+            
+            if (!staticLayer) {
+                // Score
+                g2d.setColor(TEXT_COLOR);
+                bold16.clear().append("Score: ").append(dl.score).draw(g2d, x, y);
+                
+                // Global high score (gold color)
+                g2d.setColor(new Color(255, 215, 0));
+                bold12.clear().append("Global Best: ").append(dl.globalHighScore).draw(g2d, x, y + lineHeight - 5);
+                
+                // Session high score (silver color)
+                g2d.setColor(new Color(180, 180, 200));
+                plain12.clear().append("Session Best: ").append(dl.sessionHighScore).draw(g2d, x, y + lineHeight - 5 + 16);
+            }
+            y += lineHeight - 5 + 16 + lineHeight;
+            
+            // Divider
+            if (staticLayer) {
+                g2d.setColor(new Color(100, 100, 150));
+                g2d.drawLine(x, y - 5, GAME_WIDTH + STATS_WIDTH - 15, y - 5);
+            }
+            y += 12; // Added more spacing after divider
+            
+            // Shooting stats
+            if (staticLayer) {
+                g2d.setColor(BULLET_COLOR);
+                g2d.setFont(FONT_BOLD_14);
+                g2d.drawString("SHOOTING", x, y);
+            }
+            y += lineHeight - 5;
+            
+            if (!staticLayer) {
+                g2d.setColor(new Color(180, 180, 180));
+                plain12.clear().append("Shots: ").append(dl.totalShots).draw(g2d, x, y);
+                plain12.clear().append("Hits: ").append(dl.targetsHit).draw(g2d, x, y + lineHeight - 8);
+                
+                double accuracy = dl.totalShots > 0 ? (dl.targetsHit * 100.0 / dl.totalShots) : 0;
+                Color accColor = accuracy >= 50 ? new Color(100, 255, 100) : accuracy >= 25 ? new Color(255, 200, 50) : new Color(255, 100, 100);
+                g2d.setColor(accColor);
+                plain12.clear().append("Accuracy: ").append(accuracy, 1).append('%').draw(g2d, x, y + 2 * (lineHeight - 8));
+                
+                double avgPoints = dl.totalShots > 0 ? (dl.score * 1.0 / dl.totalShots) : 0;
+                g2d.setColor(new Color(180, 180, 180));
+                plain12.clear().append("Avg Pts/Shot: ").append(avgPoints, 2).draw(g2d, x, y + 3 * (lineHeight - 8));
+            }
+            y += 3 * (lineHeight - 8) + lineHeight + 5;
+            
+            // Divider
+            if (staticLayer) {
+                g2d.setColor(new Color(100, 100, 150));
+                g2d.drawLine(x, y - 5, GAME_WIDTH + STATS_WIDTH - 15, y - 5);
+            }
+            y += 12; // Added more spacing after divider
+            
+            // Eating stats
+            if (staticLayer) {
+                g2d.setColor(FOOD_COLOR);
+                g2d.setFont(FONT_BOLD_14);
+                g2d.drawString("EATING", x, y);
+            }
+            y += lineHeight - 5;
+            
+            if (!staticLayer) {
+                g2d.setColor(new Color(180, 180, 180));
+                plain12.clear().append("Food: ").append(dl.foodEaten).draw(g2d, x, y);
+                plain12.clear().append("Length: ").append(dl.snakeLength).draw(g2d, x, y + lineHeight - 8);
+            }
+            y += lineHeight - 8 + lineHeight + 5;
+            
+            if (staticLayer) {
+                // Divider
+                g2d.setColor(new Color(100, 100, 150));
+                g2d.drawLine(x, y - 5, GAME_WIDTH + STATS_WIDTH - 15, y - 5);
+            }
+            y += 12; // Added more spacing after divider
+            
+            if (staticLayer) {
+                drawStatsLegend(g2d, x, y, lineHeight);
+            }
+            
+            // Controls hint (the legend above is fixed height)
+            y += lineHeight - 5 + TARGET_TYPES.length * 16 + 5 + 18 + 18 + lineHeight + 5 + 14 + lineHeight + 3 * 14;
+            
+            // Show mute status
+            if (!staticLayer) {
+                g2d.setFont(FONT_ITALIC_10);
+                if (dl.soundMuted) {
+                    g2d.setColor(new Color(255, 100, 100));
+                    g2d.drawString("Backspace - Sound OFF", x, y);
+                } else {
+                    g2d.setColor(new Color(100, 255, 100));
+                    g2d.drawString("Backspace - Sound ON", x, y);
+                }
+            }
+        }
         
-        if (newGlobalRecord) {
-            // Flashing gold text for GLOBAL record
-            int flashAlpha = (int)(Math.abs(Math.sin(foodPulse * 3)) * 155 + 100);
-            g2d.setFont(new Font("Arial", Font.BOLD, 28));
-            g2d.setColor(new Color(255, 215, 0, flashAlpha));
-            String newRecord = "NEW GLOBAL RECORD!";
-            fm = g2d.getFontMetrics();
-            g2d.drawString(newRecord, (GAME_WIDTH - fm.stringWidth(newRecord)) / 2, recordY);
+        // Target legend, legend explanation and controls hint of the stats panel
+        private void drawStatsLegend(Graphics2D g2d, int x, int y, int lineHeight) {
+            g2d.setColor(new Color(255, 255, 255));
+            g2d.setFont(FONT_BOLD_14);
+            g2d.drawString("TARGETS", x, y);
+            y += lineHeight - 5;
             
-            g2d.setFont(new Font("Arial", Font.PLAIN, 16));
-            g2d.setColor(new Color(255, 255, 200));
-            String congrats = "You beat the all-time record!";
-            fm = g2d.getFontMetrics();
-            g2d.drawString(congrats, (GAME_WIDTH - fm.stringWidth(congrats)) / 2, recordY + 25);
-            recordY += 55;
-        } else if (newSessionRecord) {
-            // Silver text for session record
-            int flashAlpha = (int)(Math.abs(Math.sin(foodPulse * 2)) * 100 + 155);
-            g2d.setFont(new Font("Arial", Font.BOLD, 24));
-            g2d.setColor(new Color(200, 200, 255, flashAlpha));
-            String newRecord = "NEW SESSION RECORD!";
-            fm = g2d.getFontMetrics();
-            g2d.drawString(newRecord, (GAME_WIDTH - fm.stringWidth(newRecord)) / 2, recordY);
+            g2d.setFont(FONT_PLAIN_11);
+            
+            // Square targets (dangerous)
+            for (TargetType type : TARGET_TYPES) {
+                g2d.setColor(type.color);
+                g2d.fillRect(x, y - 9, 10, 10);
+                g2d.setColor(new Color(180, 180, 180));
+                g2d.drawString(type.name + " +" + type.points, x + 14, y);
+                y += 16;
+            }
             
-            g2d.setFont(new Font("Arial", Font.PLAIN, 14));
-            g2d.setColor(new Color(200, 200, 220));
-            String congrats = "Best score this session!";
+            y += 5;
+            
+            // Slow target (circle)
+            g2d.setColor(SLOW_TARGET_COLOR);
+            g2d.fillOval(x, y - 9, 10, 10);
+            g2d.setColor(new Color(180, 180, 180));
+            g2d.drawString("Slow (10s)", x + 14, y);
+            y += 18;
+            
+            // Shrink target (triangle)
+            g2d.setColor(SHRINK_TARGET_COLOR);
+            int[] txPoints = {x + 5, x, x + 10};
+            int[] tyPoints = {y - 9, y + 1, y + 1};
+            g2d.fillPolygon(txPoints, tyPoints, 3);
+            g2d.setColor(new Color(180, 180, 180));
+            g2d.drawString("Shrink (/2)", x + 14, y);
+            y += 18;
+            
+            // Speed target (diamond)
+            g2d.setColor(SPEED_TARGET_COLOR);
+            int[] dxPoints = {x + 5, x + 10, x + 5, x};
+            int[] dyPoints = {y - 9, y - 4, y + 1, y - 4};
+            g2d.fillPolygon(dxPoints, dyPoints, 4);
+            g2d.setColor(new Color(180, 180, 180));
+            g2d.drawString("Speed (x2)", x + 14, y);
+            y += lineHeight + 5;
+            
+            // Legend explanation
+            g2d.setColor(new Color(120, 120, 140));
+            g2d.setFont(FONT_ITALIC_10);
+            g2d.drawString("Square = Dangerous", x, y);
+            y += 14;
+            g2d.drawString("Other shapes = Safe", x, y);
+            y += lineHeight;
+            
+            // Controls hint
+            g2d.setColor(new Color(100, 100, 120));
+            g2d.setFont(FONT_ITALIC_10);
+            g2d.drawString("ESC - End Game", x, y);
+            y += 14;
+            g2d.drawString("Arrows - Move", x, y);
+            y += 14;
+            g2d.drawString("Space - Shoot", x, y);
+        }
+        
+        // Start screen: overlay, title glow and fixed hints are baked (staticLayer),
+        // the blinking prompt and sound state are drawn live
+        private void drawStartScreen(Graphics2D g2d, DisplayList dl, boolean staticLayer) {
+            FontMetrics fm;
+            if (staticLayer) {
+                g2d.setColor(new Color(0, 0, 0, 150));
+                g2d.fillRect(0, 0, GAME_WIDTH, GAME_HEIGHT);
+                
+                String title = "FIRE SNAKE";
+                g2d.setFont(FONT_BOLD_72);
+                fm = g2d.getFontMetrics();
+                int titleX = (GAME_WIDTH - fm.stringWidth(title)) / 2;
+                int titleY = GAME_HEIGHT / 3;
+                
+                for (int i = 10; i > 0; i--) {
+                    g2d.setColor(new Color(0, 255, 150, 10));
+                    g2d.drawString(title, titleX - i/2, titleY);
+                    g2d.drawString(title, titleX + i/2, titleY);
+                }
+                
+                g2d.setColor(SNAKE_HEAD_COLOR);
+                g2d.drawString(title, titleX, titleY);
+                
+                g2d.setColor(new Color(150, 150, 150));
+                g2d.setFont(FONT_PLAIN_16);
+                String controls = "Arrows - Move | Space - Shoot | ESC - Exit";
+                fm = g2d.getFontMetrics();
+                g2d.drawString(controls, (GAME_WIDTH - fm.stringWidth(controls)) / 2, GAME_HEIGHT - 100);
+                
+                g2d.setColor(new Color(255, 100, 100, 200));
+                String warning = "Don't collide with SQUARE targets!";
+                fm = g2d.getFontMetrics();
+                g2d.drawString(warning, (GAME_WIDTH - fm.stringWidth(warning)) / 2, GAME_HEIGHT - 45);
+                return;
+            }
+            
+            g2d.setFont(FONT_PLAIN_24);
+            String instruction = "Press ARROW KEY or SPACE to start";
             fm = g2d.getFontMetrics();
-            g2d.drawString(congrats, (GAME_WIDTH - fm.stringWidth(congrats)) / 2, recordY + 22);
-            recordY += 50;
+            int instX = (GAME_WIDTH - fm.stringWidth(instruction)) / 2;
+            
+            int alpha = (int)(Math.abs(Math.sin(dl.foodPulse * 2)) * 200 + 55);
+            g2d.setColor(new Color(255, 255, 255, alpha));
+            g2d.drawString(instruction, instX, GAME_HEIGHT / 2 + 50);
+            
+            // Sound control hint
+            g2d.setFont(FONT_PLAIN_16);
+            if (dl.soundMuted) {
+                g2d.setColor(new Color(255, 100, 100));
+                String soundHint = "Backspace - Sound OFF (press to enable)";
+                fm = g2d.getFontMetrics();
+                g2d.drawString(soundHint, (GAME_WIDTH - fm.stringWidth(soundHint)) / 2, GAME_HEIGHT - 75);
+            } else {
+                g2d.setColor(new Color(100, 255, 100));
+                String soundHint = "Backspace - Mute Sound";
+                fm = g2d.getFontMetrics();
+                g2d.drawString(soundHint, (GAME_WIDTH - fm.stringWidth(soundHint)) / 2, GAME_HEIGHT - 75);
+            }
         }
         
-        g2d.setFont(new Font("Arial", Font.PLAIN, 20));
-        g2d.setColor(new Color(200, 200, 200));
-        
-        String restart = "Press SPACE or ARROW to restart";
-        String quit = "Press ESC to exit";
-        fm = g2d.getFontMetrics();
-        
-        g2d.drawString(restart, (GAME_WIDTH - fm.stringWidth(restart)) / 2, GAME_HEIGHT - 100);
-        g2d.drawString(quit, (GAME_WIDTH - fm.stringWidth(quit)) / 2, GAME_HEIGHT - 70);
+        // Game over screen: overlay, title glow and restart hints are baked (staticLayer),
+        // the score and record announcements are drawn live
+        private void drawGameOverScreen(Graphics2D g2d, DisplayList dl, boolean staticLayer) {
+            FontMetrics fm;
+            if (staticLayer) {
+                g2d.setColor(new Color(0, 0, 0, 200));
+                g2d.fillRect(0, 0, GAME_WIDTH, GAME_HEIGHT);
+                
+                String title = "GAME OVER";
+                g2d.setFont(FONT_BOLD_56);
+                fm = g2d.getFontMetrics();
+                int titleX = (GAME_WIDTH - fm.stringWidth(title)) / 2;
+                int titleY = GAME_HEIGHT / 3;
+                
+                for (int i = 15; i > 0; i--) {
+                    g2d.setColor(new Color(255, 50, 50, 8));
+                    g2d.drawString(title, titleX - i/2, titleY);
+                    g2d.drawString(title, titleX + i/2, titleY);
+                }
+                
+                g2d.setColor(FOOD_COLOR);
+                g2d.drawString(title, titleX, titleY);
+                
+                g2d.setFont(FONT_PLAIN_20);
+                g2d.setColor(new Color(200, 200, 200));
+                
+                String restart = "Press SPACE or ARROW to restart";
+                String quit = "Press ESC to exit";
+                fm = g2d.getFontMetrics();
+                
+                g2d.drawString(restart, (GAME_WIDTH - fm.stringWidth(restart)) / 2, GAME_HEIGHT - 100);
+                g2d.drawString(quit, (GAME_WIDTH - fm.stringWidth(quit)) / 2, GAME_HEIGHT - 70);
+                return;
+            }
+            
+            HudText scoreText = bold32.clear().append("Final Score: ").append(dl.score);
+            g2d.setColor(TEXT_COLOR);
+            scoreText.draw(g2d, (GAME_WIDTH - scoreText.width(g2d)) / 2, GAME_HEIGHT / 2);
+            
+            int recordY = GAME_HEIGHT / 2 + 35;
+            
+            if (dl.newGlobalRecord) {
+                // Flashing gold text for GLOBAL record
+                int flashAlpha = (int)(Math.abs(Math.sin(dl.foodPulse * 3)) * 155 + 100);
+                g2d.setFont(FONT_BOLD_28);
+                g2d.setColor(new Color(255, 215, 0, flashAlpha));
+                String newRecord = "NEW GLOBAL RECORD!";
+                fm = g2d.getFontMetrics();
+                g2d.drawString(newRecord, (GAME_WIDTH - fm.stringWidth(newRecord)) / 2, recordY);
+                
+                g2d.setFont(FONT_PLAIN_16);
+                g2d.setColor(new Color(255, 255, 200));
+                String congrats = "You beat the all-time record!";
+                fm = g2d.getFontMetrics();
+                g2d.drawString(congrats, (GAME_WIDTH - fm.stringWidth(congrats)) / 2, recordY + 25);
+            } else if (dl.newSessionRecord) {
+                // Silver text for session record
+                int flashAlpha = (int)(Math.abs(Math.sin(dl.foodPulse * 2)) * 100 + 155);
+                g2d.setFont(FONT_BOLD_24);
+                g2d.setColor(new Color(200, 200, 255, flashAlpha));
+                String newRecord = "NEW SESSION RECORD!";
+                fm = g2d.getFontMetrics();
+                g2d.drawString(newRecord, (GAME_WIDTH - fm.stringWidth(newRecord)) / 2, recordY);
+                
+                g2d.setFont(FONT_PLAIN_14);
+                g2d.setColor(new Color(200, 200, 220));
+                String congrats = "Best score this session!";
+                fm = g2d.getFontMetrics();
+                g2d.drawString(congrats, (GAME_WIDTH - fm.stringWidth(congrats)) / 2, recordY + 22);
+            }
+            
+            if (dl.rank > 0) {
+                HudText rankText = plain16.clear().append("Rank ").append(dl.rank).append(" of ").append(dl.rankTotal);
+                if (dl.rankTotal > 1) {
+                    rankText.append("  -  better than ").append(dl.percentBelow, 1).append("% of games");
+                }
+                g2d.setColor(new Color(200, 200, 200));
+                rankText.draw(g2d, (GAME_WIDTH - rankText.width(g2d)) / 2, recordY + 60);
+            }
+        }
     }
     
     @Override
     public void actionPerformed(ActionEvent e) {
+        GameEvents.Tick event = new GameEvents.Tick();
+        event.begin();
+        steerAutopilot();
+        long start = System.nanoTime();
+        tick();
+        long built = System.nanoTime();
+        frameStats.record(FrameStats.Phase.TICK, built - start);
+        event.end();
+        if (jfrEvents && event.shouldCommit()) {
+            event.tick = tickCount;
+            event.snakeLength = snakeLength;
+            event.targets = targetCount();
+            event.bullets = bullets.size();
+            event.particles = particles.size();
+            event.delay = currentDelay;
+            event.tempoLevel = tempoLevel;
+            event.commit();
+        }
+        publishMetrics(built);
+        publishDisplayList();
+        frameStats.record(FrameStats.Phase.BUILD, System.nanoTime() - built);
+    }
+    
+    // Game thread: publish the gauges of the tick that just ran
+    private void publishMetrics(long now) {
+        metrics.tickCompleted(now);
+        metrics.delayMs = currentDelay;
+        metrics.snakeLength = snakeLength;
+        metrics.dangerousTargets = targets.size();
+        metrics.slowTargets = slowTargets.size();
+        metrics.shrinkTargets = shrinkTargets.size();
+        metrics.speedTargets = speedTargets.size();
+        metrics.bullets = bullets.size();
+        metrics.particles = particles.size();
+    }
+    
+    // Autopilot: pick the move for the coming tick and press its arrow key, recorded in the
+    // input log like the player's keys so the run replays without the autopilot. Player input
+    // still queued goes first (the autopilot waits for it), so the two never interleave.
+    void steerAutopilot() {
+        if (!autopilotOn || !gameStarted || gameClose || !directionQueue.isEmpty()) return;
+        long start = System.nanoTime();
+        // Board as the coming tick's move will see it: targets count down before the move,
+        // segment i has left its cell after i + 1 moves (later while the snake still grows)
+        autopilot.beginTick(foodX / BLOCK_SIZE, foodY / BLOCK_SIZE);
+        for (Target t : targets) {
+            autopilot.target(t.x / BLOCK_SIZE, t.y / BLOCK_SIZE, t.gridSize, t.spawnDelay);
+        }
+        int size = snakeList.size();
+        int growth = Math.max(0, snakeLength - size);
+        for (int i = 0; i < size; i++) {
+            int[] segment = snakeList.get(i);
+            autopilot.body(segment[0] / BLOCK_SIZE, segment[1] / BLOCK_SIZE, i + 1 + growth);
+        }
+        int direction = autopilot.steer(x1 / BLOCK_SIZE, y1 / BLOCK_SIZE, Integer.signum(x1Change),
+                Integer.signum(y1Change), snakeLength);
+        if (direction != Autopilot.NONE) {
+            int xChange = Autopilot.dx(direction) * BLOCK_SIZE;
+            int yChange = Autopilot.dy(direction) * BLOCK_SIZE;
+            if (xChange != x1Change || yChange != y1Change) {
+                int key = xChange > 0 ? KeyEvent.VK_RIGHT : xChange < 0 ? KeyEvent.VK_LEFT
+                        : yChange > 0 ? KeyEvent.VK_DOWN : KeyEvent.VK_UP;
+                inputLog.record(tickCount, key, true);
+                queueDirection(xChange, yChange);
+            }
+        }
+        frameStats.record(FrameStats.Phase.AUTOPILOT, System.nanoTime() - start);
+    }
+    
+    // Advance the simulation by one step
+    void tick() {
+        long phaseStart = System.nanoTime();
+        long spawnNanos = 0;
+        tickCount++;
         foodPulse += 0.15f;
         backgroundOffset += 0.02f;
         
@@ -2246,6 +3109,8 @@ public class FireSnakeGame extends JPanel implements ActionListener, KeyListener
         }
         
         if (!gameOver && !gameClose && gameStarted) {
+            gameDurationMs += currentDelay;
+            
             // Update slowdown timer
             if (slowdownTimer > 0) {
                 slowdownTimer--;
@@ -2270,7 +3135,7 @@ public class FireSnakeGame extends JPanel implements ActionListener, KeyListener
                 if (foodTimer == 0) {
                     spawnParticles(foodX, foodY, 25, FOOD_COLOR);
                     soundEngine.playExplosion();
-                    endGame();
+                    endGame(Telemetry.Cause.FOOD_TIMEOUT);
                     return;
                 }
             }
@@ -2286,8 +3151,11 @@ public class FireSnakeGame extends JPanel implements ActionListener, KeyListener
             
             targetSpawnTimer++;
             if (targetSpawnTimer >= TARGET_SPAWN_INTERVAL) {
+                long spawnStart = System.nanoTime();
                 spawnTargets();
                 targetSpawnTimer = 0;
+                spawnNanos = System.nanoTime() - spawnStart;
+                frameStats.record(FrameStats.Phase.SPAWN, spawnNanos);
             }
             
             targets.removeIf(Target::isDead);
@@ -2310,6 +3178,13 @@ public class FireSnakeGame extends JPanel implements ActionListener, KeyListener
                 spt.update();
             }
             
+            long bulletsStart = System.nanoTime();
+            frameStats.record(FrameStats.Phase.UPDATE, bulletsStart - phaseStart - spawnNanos);
+            GameEvents.CollisionCheck collisionEvent = new GameEvents.CollisionCheck();
+            collisionEvent.begin();
+            int bulletsBefore = bullets.size();
+            int hitsBefore = targetsHit;
+            
             // Update bullets - check collision BEFORE and AFTER moving to fix close-range bug
             for (int i = bullets.size() - 1; i >= 0; i--) {
                 Bullet b = bullets.get(i);
@@ -2328,7 +3203,7 @@ public class FireSnakeGame extends JPanel implements ActionListener, KeyListener
                 if (checkLineCollision(b, foodX, foodY, BLOCK_SIZE)) {
                     spawnParticles(foodX, foodY, 25, FOOD_COLOR);
                     soundEngine.playExplosion();
-                    endGame();
+                    endGame(Telemetry.Cause.FOOD_SHOT);
                     break;
                 }
                 
@@ -2336,6 +3211,16 @@ public class FireSnakeGame extends JPanel implements ActionListener, KeyListener
                 checkBulletCollisions(b, i);
             }
             
+            long moveStart = System.nanoTime();
+            frameStats.record(FrameStats.Phase.BULLETS, moveStart - bulletsStart);
+            collisionEvent.end();
+            if (jfrEvents && collisionEvent.shouldCommit()) {
+                collisionEvent.bullets = bulletsBefore;
+                collisionEvent.targets = targetCount();
+                collisionEvent.hits = targetsHit - hitsBefore;
+                collisionEvent.commit();
+            }
+            
             // Process direction
             if (!directionQueue.isEmpty()) {
                 int[] nextDir = directionQueue.peek();
@@ -2351,18 +3236,20 @@ public class FireSnakeGame extends JPanel implements ActionListener, KeyListener
                 spawnParticles(Math.max(0, Math.min(x1, GAME_WIDTH - BLOCK_SIZE)), 
                               Math.max(0, Math.min(y1, GAME_HEIGHT - BLOCK_SIZE)), 20, SNAKE_HEAD_COLOR);
                 soundEngine.playHit();
-                endGame();
+                endGame(Telemetry.Cause.WALL);
             }
             
             if (!gameClose) {
                 x1 += x1Change;
                 y1 += y1Change;
                 
-                snakeList.add(new int[]{x1, y1});
-                
-                if (snakeList.size() > snakeLength) {
-                    snakeList.remove(0);
-                }
+                // The tail's array becomes the new head (one segment leaves when the list
+                // would be longer than snakeLength)
+                int[] head = snakeList.size() >= snakeLength && !snakeList.isEmpty()
+                        ? snakeList.remove(0) : new int[2];
+                head[0] = x1;
+                head[1] = y1;
+                snakeList.add(head);
                 
                 // Check food collision
                 if (x1 == foodX && y1 == foodY) {
@@ -2372,6 +3259,7 @@ public class FireSnakeGame extends JPanel implements ActionListener, KeyListener
                     snakeLength++;
                     score++;
                     foodEaten++;
+                    telemetry.food(tickCount, foodTimer, snakeLength);
                     checkMusicTempoIncrease();
                     checkAndAnnounceRecords();
                 }
@@ -2385,7 +3273,7 @@ public class FireSnakeGame extends JPanel implements ActionListener, KeyListener
                         int centerY = t.y + t.getPixelSize() / 2;
                         spawnParticles(centerX, centerY, 25 * t.gridSize, t.type.color);
                         soundEngine.playExplosion();
-                        endGame();
+                        endGame(Telemetry.Cause.TARGET);
                         break;
                     }
                 }
@@ -2398,18 +3286,21 @@ public class FireSnakeGame extends JPanel implements ActionListener, KeyListener
                     if (segment[0] == x1 && segment[1] == y1) {
                         spawnParticles(x1, y1, 20, SNAKE_HEAD_COLOR);
                         soundEngine.playHit();
-                        endGame();
+                        endGame(Telemetry.Cause.SELF);
                         break;
                     }
                 }
             }
+            frameStats.record(FrameStats.Phase.MOVE, System.nanoTime() - moveStart);
         }
-        
-        repaint();
     }
     
-    private void endGame() {
+    private void endGame(Telemetry.Cause cause) {
         gameClose = true;
+        deathCause = cause;
+        telemetry.death(tickCount, cause, score, snakeLength);
+        metrics.gameEnded(cause, score);
+        saveRunLog();
         
         // Final record check
         if (score > sessionHighScore) {
@@ -2421,6 +3312,7 @@ public class FireSnakeGame extends JPanel implements ActionListener, KeyListener
             newGlobalRecord = true;
             saveGlobalHighScore();
         }
+        recordOnLeaderboard();
         
         // Play appropriate sound
         if (newGlobalRecord) {
@@ -2465,7 +3357,40 @@ public class FireSnakeGame extends JPanel implements ActionListener, KeyListener
     
     @Override
     public void keyPressed(KeyEvent e) {
-        int key = e.getKeyCode();
+        handleKeyPress(e.getKeyCode());
+    }
+    
+    // Key handling is keyed on tick number so replays reproduce the exact same run
+    void handleKeyPress(int key) {
+        inputLog.record(tickCount, key, true);
+        
+        // F11 toggles fullscreen
+        if (key == KeyEvent.VK_F11) {
+            if (!headless) {
+                toggleFullscreen();
+            }
+            return;
+        }
+        
+        if (key == KeyEvent.VK_F3) {
+            debugOverlay = !debugOverlay;
+            return;
+        }
+        
+        if (key == KeyEvent.VK_F4) {
+            exportAudioStats();
+            return;
+        }
+        
+        if (key == KeyEvent.VK_F5) {
+            perfOverlay = !perfOverlay;
+            return;
+        }
+        
+        if (key == KeyEvent.VK_F6) {
+            autopilotOn = !autopilotOn;
+            return;
+        }
         
         // Backspace toggles mute for all sounds and music
         if (key == KeyEvent.VK_BACK_SPACE) {
@@ -2475,10 +3400,15 @@ public class FireSnakeGame extends JPanel implements ActionListener, KeyListener
         
         if (key == KeyEvent.VK_ESCAPE) {
             if (!gameStarted || gameClose) {
+                if (headless) {
+                    exitRequested = true;
+                    return;
+                }
+                saveRunLog();
                 musicEngine.stopMusic();
                 System.exit(0);
             } else {
-                endGame();
+                endGame(Telemetry.Cause.QUIT);
             }
             return;
         }
@@ -2488,7 +3418,9 @@ public class FireSnakeGame extends JPanel implements ActionListener, KeyListener
                                  key == KeyEvent.VK_UP || key == KeyEvent.VK_DOWN;
             if (key == KeyEvent.VK_SPACE || isArrowKey) {
                 initGame();
+                stopJitWarmup();
                 musicEngine.startGameMusic(); // Switch to game music
+                telemetry.start(tickCount, snakeLength);
                 if (isArrowKey) {
                     gameStarted = true;
                     if (key == KeyEvent.VK_LEFT) queueDirection(-BLOCK_SIZE, 0);
@@ -2503,7 +3435,9 @@ public class FireSnakeGame extends JPanel implements ActionListener, KeyListener
             
             if (!gameStarted && (isArrowKey || key == KeyEvent.VK_SPACE)) {
                 gameStarted = true;
+                stopJitWarmup();
                 musicEngine.startGameMusic(); // Switch to game music when starting
+                telemetry.start(tickCount, snakeLength);
             }
             
             if (key == KeyEvent.VK_LEFT) {
@@ -2524,7 +3458,12 @@ public class FireSnakeGame extends JPanel implements ActionListener, KeyListener
     
     @Override
     public void keyReleased(KeyEvent e) {
-        if (e.getKeyCode() == KeyEvent.VK_SPACE) {
+        handleKeyRelease(e.getKeyCode());
+    }
+    
+    void handleKeyRelease(int key) {
+        inputLog.record(tickCount, key, false);
+        if (key == KeyEvent.VK_SPACE) {
             spacePressed = false;
         }
     }
@@ -2533,14 +3472,20 @@ public class FireSnakeGame extends JPanel implements ActionListener, KeyListener
     public void keyTyped(KeyEvent e) {}
     
     public static void main(String[] args) {
+        StartupTimeline.mark(StartupTimeline.Milestone.MAIN);
         SwingUtilities.invokeLater(() -> {
             JFrame frame = new JFrame("Fire Snake");
             frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-            frame.setResizable(false);
+            frame.setResizable(true);
             frame.add(new FireSnakeGame());
             frame.pack();
             frame.setLocationRelativeTo(null);
-            frame.setVisible(true);
+            if (Boolean.getBoolean("firesnake.fullscreen")) {
+                setFullscreen(frame, true);
+            } else {
+                frame.setVisible(true);
+            }
+            StartupTimeline.mark(StartupTimeline.Milestone.WINDOW);
         });
     }
 }
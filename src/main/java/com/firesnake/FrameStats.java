@@ -0,0 +1,133 @@
+package com.firesnake;
+
+import java.io.*;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+// Timing of the game loop: a LatencyHistogram per phase of the tick and of rendering, plus
+// the recent frame intervals for a sparkline. The tick phases are recorded by the game
+// thread, the render phases by the render thread (one writer per histogram), so recording
+// is allocation-free and lock-free. Shown by the performance overlay (F5) and written as
+// CSV at exit when -Dfiresnake.frameStatsFile is set.
+final class FrameStats {
+    enum Phase {
+        TICK("Tick"),                   // Whole tick (game thread)
+        UPDATE("  entities"),           // Stars, particles, timers and target updates
+        SPAWN("  spawn wave"),          // spawnTargets (only ticks that spawn)
+        BULLETS("  bullets"),           // Bullet moves and collisions
+        MOVE("  snake move"),           // Direction, snake move and its collisions
+        AUTOPILOT("Autopilot"),         // Choosing the autopilot's move (game thread, F6)
+        BUILD("Display list"),          // Building the display list for the render thread
+        RENDER("Render"),               // Whole frame (render thread)
+        DRAW_BACKGROUND("  background"),// Letterbox, background layer, stars, border
+        DRAW_SCREENS("  screens"),      // Start and game over screens
+        DRAW_ENTITIES("  entities"),    // Display list commands and in-game indicators
+        DRAW_HUD("  stats panel"),
+        DRAW_OVERLAY("  overlays"),     // Debug and performance overlays
+        FRAME_INTERVAL("Frame interval"); // Between the starts of successive rendered frames
+
+        final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+    }
+
+    static final Phase[] PHASES = Phase.values();
+    static final int RECENT_FRAMES = 128; // Frame intervals kept for the sparkline
+
+    private final LatencyHistogram[] histograms = new LatencyHistogram[PHASES.length];
+    private final int[] recentFrames = new int[RECENT_FRAMES]; // Frame intervals in us (ring)
+    private volatile int recentCount = 0;
+    private long lastFrameStart = 0; // Render thread only
+    private volatile List<GarbageCollectorMXBean> collectors; // Looked up on first use (slow at startup)
+
+    FrameStats() {
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+    }
+
+    LatencyHistogram get(Phase phase) {
+        return histograms[phase.ordinal()];
+    }
+
+    void record(Phase phase, long nanos) {
+        histograms[phase.ordinal()].recordNanos(nanos);
+    }
+
+    // Render thread: a frame starts at the given time; records the interval since the last one
+    void frameStarted(long now) {
+        if (lastFrameStart != 0) {
+            long interval = now - lastFrameStart;
+            histograms[Phase.FRAME_INTERVAL.ordinal()].recordNanos(interval);
+            int count = recentCount;
+            recentFrames[count % RECENT_FRAMES] = (int) Math.min(Integer.MAX_VALUE, interval / 1000);
+            recentCount = count + 1;
+        }
+        lastFrameStart = now;
+    }
+
+    // Frames recorded so far; the latest RECENT_FRAMES are available from recentFrame
+    int getRecentCount() {
+        return recentCount;
+    }
+
+    // Interval (us) of the frame with the given index, counting from the first frame
+    int recentFrame(int index) {
+        return recentFrames[index % RECENT_FRAMES];
+    }
+
+    // Collections and accumulated collection time (ms) of all garbage collectors
+    long getGcCount() {
+        List<GarbageCollectorMXBean> collectors = collectors();
+        long sum = 0;
+        for (int i = 0; i < collectors.size(); i++) {
+            sum += Math.max(0, collectors.get(i).getCollectionCount());
+        }
+        return sum;
+    }
+
+    long getGcTimeMs() {
+        List<GarbageCollectorMXBean> collectors = collectors();
+        long sum = 0;
+        for (int i = 0; i < collectors.size(); i++) {
+            sum += Math.max(0, collectors.get(i).getCollectionTime());
+        }
+        return sum;
+    }
+
+    // Any thread; a race only looks the list up twice
+    private List<GarbageCollectorMXBean> collectors() {
+        List<GarbageCollectorMXBean> list = collectors;
+        if (list == null) {
+            list = ManagementFactory.getGarbageCollectorMXBeans();
+            collectors = list;
+        }
+        return list;
+    }
+
+    void write(File file) throws IOException {
+        try (PrintWriter out = new PrintWriter(new BufferedWriter(new FileWriter(file)))) {
+            out.println("phase,count,p50_us,p90_us,p99_us,p999_us,max_us");
+            for (Phase phase : PHASES) {
+                LatencyHistogram h = get(phase);
+                out.println(phase.name().toLowerCase() + "," + h.getCount() + "," + h.percentile(50) + ","
+                        + h.percentile(90) + "," + h.percentile(99) + "," + h.percentile(99.9) + "," + h.getMax());
+            }
+            out.println();
+            out.println("counter,value");
+            for (GarbageCollectorMXBean collector : collectors()) {
+                String name = collector.getName().toLowerCase().replace(' ', '_');
+                out.println("gc_count_" + name + "," + collector.getCollectionCount());
+                out.println("gc_time_ms_" + name + "," + collector.getCollectionTime());
+            }
+            out.println();
+            out.println("histogram,low_us,high_us,count");
+            for (Phase phase : PHASES) {
+                get(phase).write(out, phase.name().toLowerCase());
+            }
+        }
+    }
+}
@@ -0,0 +1,355 @@
+package com.firesnake;
+
+import java.awt.event.KeyEvent;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+// Reinforcement learning environment: N independent headless games stepped in lockstep,
+// gym style (reset(seed), step(actions)). One step is one tick of every game. Actions,
+// rewards, done flags and observations all live in one flat little-endian buffer laid out
+// once, so a trainer can read them in place (a direct buffer here, or a memory-mapped file
+// shared with another process, see GameBatchServer):
+//
+//   0   header (HEADER_BYTES): the int/long fields at the offsets below
+//   int32   actions[envs]                        written by the trainer before a step
+//   float32 rewards[envs]                        score gained in the step, -1 more if the game ended
+//   uint8   dones[envs]                          1 if the game ended in the step
+//   uint8   grids[envs][CHANNELS][ROWS][COLUMNS] cell planes (see the channel constants)
+//   float32 scalars[envs][SCALARS]               timers and state (see the scalar constants)
+//
+// A game that ended is restarted at the next step, before that step's action. Steps are
+// spread over a fixed set of threads, each owning a slice of the games; the calling thread
+// steps the first slice and the workers spin briefly (if there are cores for all of them),
+// then park between steps. Stepping allocates nothing here; the games are built at reset.
+// Not thread-safe: one caller at a time.
+final class GameBatch implements AutoCloseable {
+    // Actions
+    static final int NOOP = 0;
+    static final int UP = 1;
+    static final int DOWN = 2;
+    static final int LEFT = 3;
+    static final int RIGHT = 4;
+    static final int SHOOT = 5;
+    static final int ACTIONS = 6;
+
+    // Grid channels (one byte per cell)
+    static final int HEAD = 0;
+    static final int BODY = 1;
+    static final int FOOD = 2;
+    static final int DANGER = 3;          // Active dangerous target
+    static final int DANGER_PENDING = 4;  // Dangerous target still in its spawn delay: ticks left
+    static final int TARGET_POINTS = 5;   // Points for shooting the dangerous target there
+    static final int SLOW = 6;
+    static final int SHRINK = 7;
+    static final int SPEED = 8;
+    static final int BULLET = 9;
+    static final int CHANNELS = 10;
+
+    // Scalars
+    static final int FOOD_TIMER = 0;      // Time left to eat the food (1 = full)
+    static final int SLOWDOWN = 1;        // Slow effect left (1 = full)
+    static final int SPEEDUP = 2;         // Speed effect left (1 = full)
+    static final int LENGTH = 3;          // Snake length
+    static final int SCORE = 4;
+    static final int DIRECTION_X = 5;     // -1, 0 or 1
+    static final int DIRECTION_Y = 6;
+    static final int SCALARS = 7;
+
+    static final int COLUMNS = FireSnakeGame.GAME_WIDTH / FireSnakeGame.BLOCK_SIZE;
+    static final int ROWS = FireSnakeGame.GAME_HEIGHT / FireSnakeGame.BLOCK_SIZE;
+    static final int GRID_BYTES = CHANNELS * ROWS * COLUMNS;
+    static final byte[] EMPTY_GRID = new byte[GRID_BYTES]; // Never written
+    static final float DEATH_REWARD = -1;
+
+    // Header fields
+    static final int MAGIC = 0x464E534B; // "KSNF" as little-endian bytes
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 64;
+    static final int MAGIC_AT = 0;
+    static final int VERSION_AT = 4;
+    static final int ENVS_AT = 8;
+    static final int CHANNELS_AT = 12;
+    static final int ROWS_AT = 16;
+    static final int COLUMNS_AT = 20;
+    static final int SCALARS_AT = 24;
+    static final int ACTIONS_OFFSET_AT = 28;
+    static final int REWARDS_OFFSET_AT = 32;
+    static final int DONES_OFFSET_AT = 36;
+    static final int GRIDS_OFFSET_AT = 40;
+    static final int SCALARS_OFFSET_AT = 44;
+    static final int SEED_AT = 48;        // long: seed of the next reset (GameBatchServer)
+    static final int STEPS_AT = 56;       // long: steps since the last reset
+
+    private static final int SPINS = 20_000; // Busy-wait this long for the next step before parking
+
+    private final int envs;
+    private final ByteBuffer buffer;
+    private final int actionsOffset;
+    private final int rewardsOffset;
+    private final int donesOffset;
+    private final int gridsOffset;
+    private final int scalarsOffset;
+
+    private final FireSnakeGame[] games;
+    private final int[] lastScore;
+    private final int[] sliceStart;       // Slice i is games sliceStart[i] until sliceStart[i + 1]
+    private final Thread[] workers;       // Slice i + 1 each; the caller steps slice 0
+    private final int spins;              // No spinning with more threads than cores (it would starve them)
+    private final AtomicInteger pending = new AtomicInteger();
+    private volatile long generation = 0; // Bumped to start a step (or reset) on the workers
+    private volatile boolean closed = false;
+    private volatile Thread caller;
+    private volatile Throwable failure;   // Of a worker's slice in the current job
+    private boolean resetting;            // Published to the workers by the generation bump
+    private long resetSeed;
+    private long steps = 0;
+
+    // With a direct buffer of bufferSize(envs) bytes
+    GameBatch(int envs, int threads) {
+        this(envs, threads, ByteBuffer.allocateDirect(bufferSize(envs)));
+    }
+
+    // With the given buffer (e.g. a memory-mapped file) of at least bufferSize(envs) bytes
+    GameBatch(int envs, int threads, ByteBuffer buffer) {
+        if (envs < 1 || threads < 1) {
+            throw new IllegalArgumentException("Need at least one game and one thread");
+        }
+        if (buffer.capacity() < bufferSize(envs)) {
+            throw new IllegalArgumentException("Buffer too small: " + buffer.capacity() + " < " + bufferSize(envs));
+        }
+        this.envs = envs;
+        this.buffer = buffer.order(ByteOrder.LITTLE_ENDIAN);
+        actionsOffset = HEADER_BYTES;
+        rewardsOffset = actionsOffset + 4 * envs;
+        donesOffset = rewardsOffset + 4 * envs;
+        gridsOffset = align(donesOffset + envs);
+        scalarsOffset = align(gridsOffset + GRID_BYTES * envs);
+        writeHeader();
+
+        games = new FireSnakeGame[envs];
+        lastScore = new int[envs];
+        int slices = Math.min(threads, envs);
+        sliceStart = new int[slices + 1];
+        for (int i = 0; i <= slices; i++) {
+            sliceStart[i] = (int) ((long) envs * i / slices);
+        }
+        spins = slices <= Runtime.getRuntime().availableProcessors() ? SPINS : 0;
+        workers = new Thread[slices - 1];
+        for (int i = 0; i < workers.length; i++) {
+            int slice = i + 1;
+            workers[i] = new Thread(() -> work(slice), "game-batch-" + slice);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+    }
+
+    static int bufferSize(int envs) {
+        int grids = align(HEADER_BYTES + 4 * envs + 4 * envs + envs);
+        return align(grids + GRID_BYTES * envs) + 4 * SCALARS * envs;
+    }
+
+    private static int align(int offset) {
+        return (offset + 7) & ~7;
+    }
+
+    int envs() {
+        return envs;
+    }
+
+    ByteBuffer buffer() {
+        return buffer;
+    }
+
+    float reward(int env) {
+        return buffer.getFloat(rewardsOffset + 4 * env);
+    }
+
+    boolean done(int env) {
+        return buffer.get(donesOffset + env) != 0;
+    }
+
+    // Cell value of a channel at (column, row) in the game's last observation
+    int cell(int env, int channel, int column, int row) {
+        return buffer.get(gridsOffset + env * GRID_BYTES + (channel * ROWS + row) * COLUMNS + column) & 0xFF;
+    }
+
+    float scalar(int env, int scalar) {
+        return buffer.getFloat(scalarsOffset + 4 * (env * SCALARS + scalar));
+    }
+
+    // New games with seeds seed, seed + 1, ...; writes their first observations
+    void reset(long seed) {
+        resetting = true;
+        resetSeed = seed;
+        run();
+        steps = 0;
+        buffer.putLong(SEED_AT, seed);
+        buffer.putLong(STEPS_AT, steps);
+    }
+
+    // Set the actions and step
+    void step(int[] actions) {
+        if (actions.length != envs) {
+            throw new IllegalArgumentException("Expected " + envs + " actions, got " + actions.length);
+        }
+        for (int i = 0; i < envs; i++) {
+            buffer.putInt(actionsOffset + 4 * i, actions[i]);
+        }
+        step();
+    }
+
+    // Step every game with the actions in the buffer
+    void step() {
+        if (games[0] == null) {
+            throw new IllegalStateException("reset() first");
+        }
+        for (int i = 0; i < envs; i++) {
+            int action = buffer.getInt(actionsOffset + 4 * i);
+            if (action < 0 || action >= ACTIONS) {
+                throw new IllegalArgumentException("Action " + action + " of game " + i + " is not 0.." + (ACTIONS - 1));
+            }
+        }
+        resetting = false;
+        run();
+        buffer.putLong(STEPS_AT, ++steps);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        for (Thread worker : workers) {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    // Run the current job on all slices and wait for them
+    private void run() {
+        if (closed) {
+            throw new IllegalStateException("Closed");
+        }
+        caller = Thread.currentThread();
+        failure = null;
+        pending.set(workers.length);
+        generation++;
+        for (Thread worker : workers) {
+            LockSupport.unpark(worker);
+        }
+        try {
+            runSlice(0);
+        } finally {
+            // Even if slice 0 failed, the workers are still using the games and the buffer
+            awaitWorkers();
+        }
+        Throwable e = failure;
+        if (e instanceof RuntimeException) {
+            throw (RuntimeException) e;
+        } else if (e instanceof Error) {
+            throw (Error) e;
+        } else if (e != null) {
+            throw new IllegalStateException("Slice failed", e);
+        }
+    }
+
+    private void awaitWorkers() {
+        int spun = 0;
+        while (pending.get() > 0) {
+            if (++spun < spins) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.park(this);
+            }
+        }
+    }
+
+    private void work(int slice) {
+        long seen = 0;
+        while (true) {
+            int spun = 0;
+            long current;
+            while ((current = generation) == seen && !closed) {
+                if (++spun < spins) {
+                    Thread.onSpinWait();
+                } else {
+                    LockSupport.park(this);
+                }
+            }
+            if (closed) return;
+            seen = current;
+            try {
+                runSlice(slice);
+            } catch (Throwable e) {
+                // Anything else would kill the worker and leave the caller waiting forever
+                failure = e;
+            }
+            if (pending.decrementAndGet() == 0) {
+                LockSupport.unpark(caller);
+            }
+        }
+    }
+
+    private void runSlice(int slice) {
+        for (int env = sliceStart[slice]; env < sliceStart[slice + 1]; env++) {
+            if (resetting) {
+                resetGame(env);
+            } else {
+                stepGame(env);
+            }
+        }
+    }
+
+    private void resetGame(int env) {
+        FireSnakeGame game = new FireSnakeGame(resetSeed + env, true);
+        game.setParticleCap(0); // Only for show; the random sequence doesn't depend on it
+        game.startEpisode();
+        games[env] = game;
+        lastScore[env] = 0;
+        buffer.putFloat(rewardsOffset + 4 * env, 0);
+        buffer.put(donesOffset + env, (byte) 0);
+        game.writeObservation(buffer, gridsOffset + env * GRID_BYTES, scalarsOffset + 4 * SCALARS * env);
+    }
+
+    private void stepGame(int env) {
+        FireSnakeGame game = games[env];
+        if (game.isGameOver()) {
+            game.startEpisode();
+            lastScore[env] = 0;
+        }
+        switch (buffer.getInt(actionsOffset + 4 * env)) {
+            case UP: game.handleKeyPress(KeyEvent.VK_UP); break;
+            case DOWN: game.handleKeyPress(KeyEvent.VK_DOWN); break;
+            case LEFT: game.handleKeyPress(KeyEvent.VK_LEFT); break;
+            case RIGHT: game.handleKeyPress(KeyEvent.VK_RIGHT); break;
+            case SHOOT:
+                game.handleKeyPress(KeyEvent.VK_SPACE);
+                game.handleKeyRelease(KeyEvent.VK_SPACE);
+                break;
+            default: break;
+        }
+        game.tick();
+        int score = game.getScore();
+        boolean over = game.isGameOver();
+        buffer.putFloat(rewardsOffset + 4 * env, score - lastScore[env] + (over ? DEATH_REWARD : 0));
+        buffer.put(donesOffset + env, (byte) (over ? 1 : 0));
+        lastScore[env] = score;
+        game.writeObservation(buffer, gridsOffset + env * GRID_BYTES, scalarsOffset + 4 * SCALARS * env);
+    }
+
+    private void writeHeader() {
+        buffer.putInt(MAGIC_AT, MAGIC);
+        buffer.putInt(VERSION_AT, VERSION);
+        buffer.putInt(ENVS_AT, envs);
+        buffer.putInt(CHANNELS_AT, CHANNELS);
+        buffer.putInt(ROWS_AT, ROWS);
+        buffer.putInt(COLUMNS_AT, COLUMNS);
+        buffer.putInt(SCALARS_AT, SCALARS);
+        buffer.putInt(ACTIONS_OFFSET_AT, actionsOffset);
+        buffer.putInt(REWARDS_OFFSET_AT, rewardsOffset);
+        buffer.putInt(DONES_OFFSET_AT, donesOffset);
+        buffer.putInt(GRIDS_OFFSET_AT, gridsOffset);
+        buffer.putInt(SCALARS_OFFSET_AT, scalarsOffset);
+        buffer.putLong(SEED_AT, 0);
+        buffer.putLong(STEPS_AT, 0);
+    }
+}
@@ -0,0 +1,70 @@
+package com.firesnake;
+
+import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Serves a GameBatch to a trainer process on the same machine. The batch's buffer is a
+// memory-mapped file (put it on a RAM disk such as /dev/shm) that both processes read and
+// write in place; stdin and stdout only carry one-byte commands to keep the two in step:
+//
+//   trainer -> server   'R' reset with the seed in the header, 'S' step with the actions in
+//                       the file, 'Q' quit (so does closing stdin)
+//   server -> trainer   'K' done (also sent once the file is ready), 'E' failed (the reason
+//                       goes to stderr)
+//
+// See GameBatch for the file layout; the header holds every offset the trainer needs.
+//
+// Usage: GameBatchServer --file <path> [--envs N] [--threads N]
+class GameBatchServer {
+    public static void main(String[] args) throws IOException {
+        System.setProperty("java.awt.headless", "true");
+        String file = null;
+        int envs = 64;
+        int threads = Runtime.getRuntime().availableProcessors();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--file": file = args[i + 1]; break;
+                case "--envs": envs = Integer.parseInt(args[i + 1]); break;
+                case "--threads": threads = Integer.parseInt(args[i + 1]); break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (file == null) {
+            System.err.println("Usage: GameBatchServer --file <path> [--envs N] [--threads N]");
+            System.exit(2);
+        }
+
+        // stdout carries the protocol; anything else printed goes to stderr
+        OutputStream replies = new FileOutputStream(FileDescriptor.out);
+        System.setOut(System.err);
+        InputStream commands = new BufferedInputStream(new FileInputStream(FileDescriptor.in));
+
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(Path.of(file), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, GameBatch.bufferSize(envs));
+        }
+        try (GameBatch batch = new GameBatch(envs, threads, buffer)) {
+            replies.write('K');
+            replies.flush();
+            int command;
+            while ((command = commands.read()) >= 0 && command != 'Q') {
+                try {
+                    switch (command) {
+                        case 'R': batch.reset(buffer.getLong(GameBatch.SEED_AT)); break;
+                        case 'S': batch.step(); break;
+                        default: throw new IllegalArgumentException("Unknown command: " + command);
+                    }
+                    replies.write('K');
+                } catch (RuntimeException e) {
+                    System.err.println("Step failed: " + e);
+                    replies.write('E');
+                }
+                replies.flush();
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.firesnake;
+
+import jdk.jfr.*;
+
+// Java Flight Recorder events of the game loop, the audio threads and saving, so a long
+// session recorded with -XX:StartFlightRecording can be opened in JDK Mission Control and
+// frame hitches lined up with GC, audio and spawn bursts. While no recording is running an
+// event costs an allocation the JIT removes and a disabled check; stack traces are off so
+// committing one stays cheap too.
+final class GameEvents {
+    private GameEvents() {
+    }
+
+    @Name("firesnake.Tick")
+    @Label("Tick")
+    @Category("Fire Snake")
+    @Description("One step of the simulation")
+    @StackTrace(false)
+    static final class Tick extends Event {
+        @Label("Tick Number")
+        long tick;
+        @Label("Snake Length")
+        int snakeLength;
+        @Label("Targets")
+        int targets;
+        @Label("Bullets")
+        int bullets;
+        @Label("Particles")
+        int particles;
+        @Label("Delay")
+        @Timespan(Timespan.MILLISECONDS)
+        long delay;
+        @Label("Tempo Level")
+        int tempoLevel;
+    }
+
+    @Name("firesnake.Render")
+    @Label("Render")
+    @Category("Fire Snake")
+    @Description("Rasterizing one display list on the render thread")
+    @StackTrace(false)
+    static final class Render extends Event {
+        @Label("Width")
+        int width;
+        @Label("Height")
+        int height;
+        @Label("Draw Commands")
+        int commands;
+    }
+
+    @Name("firesnake.SpawnWave")
+    @Label("Spawn Wave")
+    @Category("Fire Snake")
+    @Description("A wave of targets placed on the board")
+    @StackTrace(false)
+    static final class SpawnWave extends Event {
+        @Label("Requested")
+        int requested;
+        @Label("Spawned")
+        int spawned;
+        @Label("Attempts")
+        int attempts;
+        @Label("Rejected Placements")
+        int rejected;
+        @Label("Targets On Board")
+        int targets;
+    }
+
+    @Name("firesnake.CollisionCheck")
+    @Label("Collision Check")
+    @Category("Fire Snake")
+    @Description("Moving all bullets and testing them against food and targets")
+    @StackTrace(false)
+    static final class CollisionCheck extends Event {
+        @Label("Bullets")
+        int bullets;
+        @Label("Targets")
+        int targets;
+        @Label("Hits")
+        int hits;
+    }
+
+    @Name("firesnake.SoundTrigger")
+    @Label("Sound Trigger")
+    @Category({"Fire Snake", "Audio"})
+    @Description("A sound effect handed to the mixer")
+    @StackTrace(false)
+    static final class SoundTrigger extends Event {
+        @Label("Effect")
+        String effect;
+        @Label("Priority")
+        int priority;
+        @Label("Pitch")
+        float pitch;
+        @Label("Volume")
+        float volume;
+        @Label("Accepted")
+        @Description("False if the mixer's request queue was full")
+        boolean accepted;
+    }
+
+    @Name("firesnake.NoteRender")
+    @Label("Note Render")
+    @Category({"Fire Snake", "Audio"})
+    @Description("A music note synthesized on a NoteCache miss")
+    @StackTrace(false)
+    static final class NoteRender extends Event {
+        @Label("Frequency")
+        @Frequency
+        double frequency;
+        @Label("Note Duration")
+        @Timespan(Timespan.MILLISECONDS)
+        long noteDuration;
+        @Label("Waveform")
+        String waveform;
+        @Label("Samples")
+        int samples;
+        @Label("Cached")
+        @Description("False if the cache was full and the note will be rendered again")
+        boolean cached;
+    }
+
+    @Name("firesnake.HighScoreSave")
+    @Label("High Score Save")
+    @Category("Fire Snake")
+    @Description("Writing the global high score file, including waiting for the file lock")
+    @StackTrace(false)
+    static final class HighScoreSave extends Event {
+        @Label("Score")
+        int score;
+        @Label("Stored Score")
+        @Description("Score found in the file before writing")
+        int stored;
+        @Label("Written")
+        @Description("False if the file already held a higher score or writing failed")
+        boolean written;
+    }
+}
@@ -0,0 +1,91 @@
+package com.firesnake;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Live counters and gauges of a running game for monitoring (see GameMonitor and
+// MetricsServer). Each field has one writer: the tick fields are published by the game
+// thread after every tick, the frame fields by the render thread after every frame, so
+// updating them never locks and any thread can read a recent value. Rates are measured
+// over windows of about a second.
+final class GameMetrics {
+    private static final long RATE_WINDOW_NS = 1_000_000_000L;
+    // Upper bounds of the final score buckets (the last bucket is unbounded)
+    static final int[] SCORE_BOUNDS = {0, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000};
+    private static final Telemetry.Cause[] CAUSES = Telemetry.Cause.values();
+
+    // Game thread
+    volatile long ticks = 0;
+    volatile long spawnFailures = 0;   // Targets of a wave that found no free spot
+    volatile double ticksPerSecond = 0;
+    volatile int delayMs = 0;
+    volatile int snakeLength = 0;
+    volatile int dangerousTargets = 0;
+    volatile int slowTargets = 0;
+    volatile int shrinkTargets = 0;
+    volatile int speedTargets = 0;
+    volatile int bullets = 0;
+    volatile int particles = 0;
+    private long tickWindowStart = 0;
+    private long tickWindowTicks = 0;
+
+    // Game thread, once per finished game
+    volatile long games = 0;
+    volatile long scoreSum = 0;
+    private final AtomicLongArray scoreCounts = new AtomicLongArray(SCORE_BOUNDS.length + 1);
+    private final AtomicLongArray deaths = new AtomicLongArray(CAUSES.length);
+
+    // Render thread
+    volatile long frames = 0;
+    volatile double framesPerSecond = 0;
+    private long frameWindowStart = 0;
+    private long frameWindowFrames = 0;
+
+    // Game thread: a tick finished at the given time
+    void tickCompleted(long now) {
+        long count = ticks + 1;
+        ticks = count;
+        if (tickWindowStart == 0) {
+            tickWindowStart = now;
+            tickWindowTicks = count;
+        } else if (now - tickWindowStart >= RATE_WINDOW_NS) {
+            ticksPerSecond = (count - tickWindowTicks) * 1e9 / (now - tickWindowStart);
+            tickWindowStart = now;
+            tickWindowTicks = count;
+        }
+    }
+
+    // Game thread: a game ended with the given score
+    void gameEnded(Telemetry.Cause cause, int score) {
+        int bucket = 0;
+        while (bucket < SCORE_BOUNDS.length && score > SCORE_BOUNDS[bucket]) {
+            bucket++;
+        }
+        scoreCounts.lazySet(bucket, scoreCounts.get(bucket) + 1);
+        deaths.lazySet(cause.ordinal(), deaths.get(cause.ordinal()) + 1);
+        scoreSum += score;
+        games++;
+    }
+
+    // Finished games with a score in the bucket (see SCORE_BOUNDS)
+    long getScoreCount(int bucket) {
+        return scoreCounts.get(bucket);
+    }
+
+    long getDeaths(Telemetry.Cause cause) {
+        return deaths.get(cause.ordinal());
+    }
+
+    // Render thread: a frame finished at the given time
+    void frameCompleted(long now) {
+        long count = frames + 1;
+        frames = count;
+        if (frameWindowStart == 0) {
+            frameWindowStart = now;
+            frameWindowFrames = count;
+        } else if (now - frameWindowStart >= RATE_WINDOW_NS) {
+            framesPerSecond = (count - frameWindowFrames) * 1e9 / (now - frameWindowStart);
+            frameWindowStart = now;
+            frameWindowFrames = count;
+        }
+    }
+}
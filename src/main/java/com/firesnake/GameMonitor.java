@@ -0,0 +1,143 @@
+package com.firesnake;
+
+import java.util.Locale;
+
+// GameMonitorMXBean of a running game, read from its GameMetrics and HighScoreStore.
+// Resetting only moves the baselines kept here, so the game and render threads stay the
+// single writers of their counters.
+final class GameMonitor implements GameMonitorMXBean {
+    private final FireSnakeGame game;
+    private final GameMetrics metrics;
+    private final HighScoreStore highScores;
+
+    private volatile long ticksBase = 0;
+    private volatile long framesBase = 0;
+    private volatile long spawnFailuresBase = 0;
+    private volatile long highScoreSavesBase = 0;
+    private volatile long highScoreFailuresBase = 0;
+
+    GameMonitor(FireSnakeGame game, GameMetrics metrics, HighScoreStore highScores) {
+        this.game = game;
+        this.metrics = metrics;
+        this.highScores = highScores;
+    }
+
+    @Override
+    public double getTicksPerSecond() {
+        return metrics.ticksPerSecond;
+    }
+
+    @Override
+    public double getFramesPerSecond() {
+        return metrics.framesPerSecond;
+    }
+
+    @Override
+    public long getTicks() {
+        return metrics.ticks - ticksBase;
+    }
+
+    @Override
+    public long getFrames() {
+        return metrics.frames - framesBase;
+    }
+
+    @Override
+    public int getDelayMs() {
+        return metrics.delayMs;
+    }
+
+    @Override
+    public double getTimeScale() {
+        int delay = metrics.delayMs;
+        return delay == 0 ? 0 : FireSnakeGame.NORMAL_DELAY / (double) delay;
+    }
+
+    @Override
+    public int getSnakeLength() {
+        return metrics.snakeLength;
+    }
+
+    @Override
+    public int getDangerousTargets() {
+        return metrics.dangerousTargets;
+    }
+
+    @Override
+    public int getSlowTargets() {
+        return metrics.slowTargets;
+    }
+
+    @Override
+    public int getShrinkTargets() {
+        return metrics.shrinkTargets;
+    }
+
+    @Override
+    public int getSpeedTargets() {
+        return metrics.speedTargets;
+    }
+
+    @Override
+    public int getBullets() {
+        return metrics.bullets;
+    }
+
+    @Override
+    public int getParticles() {
+        return metrics.particles;
+    }
+
+    @Override
+    public double getParticlePoolUsage() {
+        int cap = game.getParticleCap();
+        return cap == 0 ? 1 : Math.min(1, metrics.particles / (double) cap);
+    }
+
+    @Override
+    public int getParticleCap() {
+        return game.getParticleCap();
+    }
+
+    @Override
+    public void setParticleCap(int cap) {
+        if (cap < 0) {
+            throw new IllegalArgumentException("Particle cap must not be negative: " + cap);
+        }
+        game.setParticleCap(cap);
+    }
+
+    @Override
+    public String getQualityTier() {
+        return game.getQuality().name();
+    }
+
+    @Override
+    public void setQualityTier(String tier) {
+        game.setQuality(FireSnakeGame.FrameRenderer.Quality.valueOf(tier.trim().toUpperCase(Locale.ROOT)));
+    }
+
+    @Override
+    public long getSpawnPlacementFailures() {
+        return metrics.spawnFailures - spawnFailuresBase;
+    }
+
+    @Override
+    public long getHighScoreSaves() {
+        return highScores.getWrites() - highScoreSavesBase;
+    }
+
+    @Override
+    public long getHighScoreSaveFailures() {
+        return highScores.getFailures() - highScoreFailuresBase;
+    }
+
+    @Override
+    public void resetCounters() {
+        ticksBase = metrics.ticks;
+        framesBase = metrics.frames;
+        spawnFailuresBase = metrics.spawnFailures;
+        highScoreSavesBase = highScores.getWrites();
+        highScoreFailuresBase = highScores.getFailures();
+    }
+}
@@ -0,0 +1,54 @@
+package com.firesnake;
+
+// Management interface of the running game (com.firesnake:type=Game). Public because JMX
+// only exposes public interfaces. Counters count from the last resetCounters().
+public interface GameMonitorMXBean {
+    String NAME = "com.firesnake:type=Game";
+
+    double getTicksPerSecond();
+
+    double getFramesPerSecond();
+
+    long getTicks();
+
+    long getFrames();
+
+    // Tick duration (changes with slow/speed power-ups) and the resulting speed (1 = normal)
+    int getDelayMs();
+
+    double getTimeScale();
+
+    int getSnakeLength();
+
+    int getDangerousTargets();
+
+    int getSlowTargets();
+
+    int getShrinkTargets();
+
+    int getSpeedTargets();
+
+    int getBullets();
+
+    int getParticles();
+
+    // Live particles over the cap (0..1)
+    double getParticlePoolUsage();
+
+    int getParticleCap();
+
+    void setParticleCap(int cap);
+
+    // LOW, MEDIUM or HIGH
+    String getQualityTier();
+
+    void setQualityTier(String tier);
+
+    long getSpawnPlacementFailures();
+
+    long getHighScoreSaves();
+
+    long getHighScoreSaveFailures();
+
+    void resetCounters();
+}
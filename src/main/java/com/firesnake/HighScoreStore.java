@@ -0,0 +1,135 @@
+package com.firesnake;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+// The global high score file, saved off the game thread and crash-safe.
+//
+// save() only records the score and wakes a background writer, so the tick never touches
+// the disk; scores saved while a write is in progress coalesce into one write of the
+// highest. The writer replaces the file atomically (write a temp file, fsync it, rename it
+// over the old one), so a crash leaves either the old or the new record, never a truncated
+// file. While writing it holds a FileLock on a separate lock file and re-reads the stored
+// score, so several running instances merge to the maximum instead of overwriting each
+// other. Pending scores are also written by a shutdown hook when the game exits.
+final class HighScoreStore {
+    private static final int NONE = Integer.MIN_VALUE;
+
+    private final Path file;
+    private final Path tempFile;
+    private final Path lockFile;
+    private final AtomicInteger pending = new AtomicInteger(NONE);
+    private Thread writer;
+    private volatile int writes = 0;   // Scores written to the file
+    private volatile int failures = 0; // Saves that failed (the score stays pending)
+
+    HighScoreStore(File file) {
+        this.file = file.toPath().toAbsolutePath();
+        this.tempFile = this.file.resolveSibling(this.file.getFileName() + ".tmp");
+        this.lockFile = this.file.resolveSibling(this.file.getFileName() + ".lock");
+    }
+
+    // Stored score, or 0 if there is none or it can't be read
+    int load() {
+        try {
+            return read();
+        } catch (IOException | NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    // Writes and failed saves so far (only the writer changes them)
+    int getWrites() {
+        return writes;
+    }
+
+    int getFailures() {
+        return failures;
+    }
+
+    // Queue the score to be stored (the file keeps the highest score ever saved). Never blocks.
+    void save(int score) {
+        pending.accumulateAndGet(score, Math::max);
+        startWriter();
+        LockSupport.unpark(writer);
+    }
+
+    private synchronized void startWriter() {
+        if (writer != null) return;
+        writer = new Thread(() -> {
+            while (true) {
+                writePending();
+                LockSupport.park(this);
+            }
+        }, "highscore-writer");
+        writer.setDaemon(true);
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::writePending, "highscore-flush"));
+    }
+
+    // Write the pending score if there is one. Synchronized so the writer thread and the
+    // shutdown hook never write at the same time.
+    private synchronized void writePending() {
+        int score = pending.getAndSet(NONE);
+        if (score == NONE) return;
+        GameEvents.HighScoreSave event = new GameEvents.HighScoreSave();
+        event.begin();
+        event.score = score;
+        try (FileChannel lockChannel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            FileLock lock = lockChannel.lock();
+            try {
+                int stored = load();
+                event.stored = stored;
+                if (score > stored) {
+                    replace(score);
+                    event.written = true;
+                    writes++;
+                }
+            } finally {
+                lock.release();
+            }
+        } catch (IOException e) {
+            // Saving is best-effort; the score is kept for the next save
+            pending.accumulateAndGet(score, Math::max);
+            failures++;
+        }
+        event.commit();
+    }
+
+    // Write the temp file, force it to disk and rename it over the score file
+    private void replace(int score) throws IOException {
+        ByteBuffer data = ByteBuffer.wrap((score + System.lineSeparator()).getBytes(StandardCharsets.UTF_8));
+        try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (data.hasRemaining()) {
+                channel.write(data);
+            }
+            channel.force(true);
+        }
+        try {
+            Files.move(tempFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        // Persist the rename itself (not possible on every platform)
+        try (FileChannel directory = FileChannel.open(file.getParent(), StandardOpenOption.READ)) {
+            directory.force(true);
+        } catch (IOException e) {
+            // The rename is still atomic, just not yet durable
+        }
+    }
+
+    private int read() throws IOException {
+        if (!Files.exists(file)) return 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line = reader.readLine();
+            return line != null ? Integer.parseInt(line.trim()) : 0;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.firesnake;
+
+import java.awt.*;
+import java.awt.font.FontRenderContext;
+import java.util.Arrays;
+
+// Garbage-free text for HUD values that change every frame (timers, scores, percentages).
+// Text is assembled in a reusable char buffer by the append methods instead of
+// String.format / concatenation and drawn straight from that buffer with drawChars, so the
+// glyph images come from the font strike's glyph cache and no String is ever built.
+// Widths come from a per-character advance table instead of FontMetrics.stringWidth. One
+// instance serves one font; the table is filled lazily and dropped when the font render
+// context changes (new view scale), so steady state allocates nothing.
+//
+// Usage: text.clear().append("SLOWED - ").append(seconds, 1).append('s').draw(g2d, x, y)
+final class HudText {
+    private static final int FIRST_CHAR = 32;
+    private static final int LAST_CHAR = 126;
+    private static final long[] POWERS_OF_TEN = {1, 10, 100, 1000, 10000, 100000};
+
+    private final Font font;
+    private final float[] advances = new float[LAST_CHAR - FIRST_CHAR + 1]; // NaN = not measured yet
+    private FontRenderContext frc;
+
+    private char[] chars = new char[32];
+    private int length = 0;
+    private final char[] digits = new char[20];
+
+    HudText(Font font) {
+        this.font = font;
+        Arrays.fill(advances, Float.NaN);
+    }
+
+    HudText clear() {
+        length = 0;
+        return this;
+    }
+
+    HudText append(char c) {
+        if (length == chars.length) {
+            chars = Arrays.copyOf(chars, length * 2);
+        }
+        chars[length++] = c;
+        return this;
+    }
+
+    HudText append(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            append(s.charAt(i));
+        }
+        return this;
+    }
+
+    HudText append(long value) {
+        if (value < 0) {
+            append('-');
+            value = -value;
+        }
+        int n = 0;
+        do {
+            digits[n++] = (char) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        while (n > 0) {
+            append(digits[--n]);
+        }
+        return this;
+    }
+
+    // Fixed point with half-up rounding, the same output as String.format("%.<decimals>f")
+    // for the HUD's value ranges. decimals must be 0..5. Formatter rounds the shortest
+    // decimal form, so ties that are inexact in binary (0.575 is 0.57499999...) still round
+    // up; the small nudge reproduces that.
+    HudText append(double value, int decimals) {
+        long pow = POWERS_OF_TEN[decimals];
+        long scaled = (long) (Math.abs(value) * pow + 0.5 + 1e-9);
+        if (value < 0 && scaled != 0) {
+            append('-');
+        }
+        append(scaled / pow);
+        if (decimals > 0) {
+            append('.');
+            long fraction = scaled % pow;
+            for (long p = pow / 10; p > 0; p /= 10) {
+                append((char) ('0' + fraction / p % 10));
+            }
+        }
+        return this;
+    }
+
+    // Width of the current text in user space, rounded like FontMetrics.stringWidth
+    int width(Graphics2D g2d) {
+        validate(g2d);
+        float width = 0;
+        for (int i = 0; i < length; i++) {
+            width += advance(chars[i]);
+        }
+        return (int) (0.5f + width);
+    }
+
+    // Draw the current text with its baseline at y (the current color is used)
+    void draw(Graphics2D g2d, int x, int y) {
+        g2d.setFont(font);
+        g2d.drawChars(chars, 0, length, x, y);
+    }
+
+    void drawCentered(Graphics2D g2d, int centerX, int y) {
+        draw(g2d, centerX - width(g2d) / 2, y);
+    }
+
+    private void validate(Graphics2D g2d) {
+        FontRenderContext current = g2d.getFontRenderContext();
+        if (current != frc && !current.equals(frc)) {
+            frc = current;
+            Arrays.fill(advances, Float.NaN);
+        }
+    }
+
+    // Advance of a character in user space, measured on first use. This is the same
+    // (device-rounded) advance that FontMetrics sums up in stringWidth.
+    private float advance(char c) {
+        if (c < FIRST_CHAR || c > LAST_CHAR) {
+            return (float) font.getStringBounds(new char[] {c}, 0, 1, frc).getWidth();
+        }
+        int index = c - FIRST_CHAR;
+        if (Float.isNaN(advances[index])) {
+            advances[index] = (float) font.getStringBounds(new char[] {c}, 0, 1, frc).getWidth();
+        }
+        return advances[index];
+    }
+}
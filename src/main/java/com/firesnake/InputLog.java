@@ -0,0 +1,125 @@
+package com.firesnake;
+
+import java.io.*;
+import java.util.Arrays;
+
+// Recorded key input of one game session, keyed by simulation tick.
+// Together with the seed this is enough to replay a run exactly.
+//
+// File format (text, one entry per line):
+//   seed <seed>
+//   <tick> P|R <keyCode>
+class InputLog {
+    private final long seed;
+    private long[] ticks = new long[64];
+    private int[] keys = new int[64];
+    private boolean[] pressed = new boolean[64];
+    private int size = 0;
+
+    // Replay cursor
+    private int cursor = 0;
+
+    InputLog(long seed) {
+        this.seed = seed;
+    }
+
+    long getSeed() {
+        return seed;
+    }
+
+    int size() {
+        return size;
+    }
+
+    // Tick of the last recorded event (0 if empty)
+    long lastTick() {
+        return size == 0 ? 0 : ticks[size - 1];
+    }
+
+    void record(long tick, int keyCode, boolean isPress) {
+        if (size == ticks.length) {
+            int newCapacity = size * 2;
+            ticks = Arrays.copyOf(ticks, newCapacity);
+            keys = Arrays.copyOf(keys, newCapacity);
+            pressed = Arrays.copyOf(pressed, newCapacity);
+        }
+        ticks[size] = tick;
+        keys[size] = keyCode;
+        pressed[size] = isPress;
+        size++;
+    }
+
+    // Forget all events (keeps the capacity)
+    void clear() {
+        size = 0;
+        cursor = 0;
+    }
+
+    InputLog copy() {
+        InputLog copy = new InputLog(seed);
+        copy.ticks = Arrays.copyOf(ticks, Math.max(size, 1));
+        copy.keys = Arrays.copyOf(keys, Math.max(size, 1));
+        copy.pressed = Arrays.copyOf(pressed, Math.max(size, 1));
+        copy.size = size;
+        return copy;
+    }
+
+    // Feed all events recorded at the game's current tick into the game.
+    // Call once before each game.tick().
+    void replayInto(FireSnakeGame game) {
+        long tick = game.getTickCount();
+        while (cursor < size && ticks[cursor] <= tick) {
+            if (pressed[cursor]) {
+                game.handleKeyPress(keys[cursor]);
+            } else {
+                game.handleKeyRelease(keys[cursor]);
+            }
+            cursor++;
+        }
+    }
+
+    boolean isReplayFinished() {
+        return cursor >= size;
+    }
+
+    void save(File file) throws IOException {
+        try (PrintWriter writer = new PrintWriter(new BufferedWriter(new FileWriter(file)))) {
+            writer.println("seed " + seed);
+            for (int i = 0; i < size; i++) {
+                writer.println(ticks[i] + (pressed[i] ? " P " : " R ") + keys[i]);
+            }
+        }
+    }
+
+    static InputLog load(File file) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String header = reader.readLine();
+            if (header == null || !header.startsWith("seed ")) {
+                throw new IOException("Not an input log (missing seed header): " + file);
+            }
+            InputLog log;
+            try {
+                log = new InputLog(Long.parseLong(header.substring(5).trim()));
+            } catch (NumberFormatException e) {
+                throw new IOException(file + ":1: bad seed '" + header.substring(5).trim() + "'");
+            }
+            String line;
+            int lineNumber = 1;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                String[] parts = line.split("\\s+");
+                if (parts.length != 3 || !(parts[1].equals("P") || parts[1].equals("R"))) {
+                    throw new IOException(file + ":" + lineNumber + ": malformed input log line '" + line + "'");
+                }
+                try {
+                    log.record(Long.parseLong(parts[0]), Integer.parseInt(parts[2]), parts[1].equals("P"));
+                } catch (NumberFormatException e) {
+                    throw new IOException(file + ":" + lineNumber + ": bad tick or key in '" + line + "'");
+                }
+            }
+            return log;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.firesnake;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedMethod;
+import jdk.jfr.consumer.RecordingStream;
+
+import java.awt.Graphics2D;
+import java.awt.event.KeyEvent;
+import java.awt.image.BufferedImage;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// JIT warm-up while the start screen shows (-Dfiresnake.jitWarmup=true): a background thread
+// plays synthetic games on its own headless FireSnakeGame (spawn waves, auto-fire into a
+// crowded board, a long snake) and renders every tick offscreen, so spawnTargets, the bullet
+// collisions and the draw methods are compiled before the first real game instead of during
+// it. Nothing is shared with the real game but the classes. It stops after TICKS ticks, once
+// every hot method has been compiled by C2 (tier 4, seen through JFR's jdk.Compilation
+// events), or as soon as the player starts a game, then reports the tier each method reached.
+final class JitWarmup {
+    static final int TICKS = Integer.getInteger("firesnake.jitWarmupTicks", 5000);
+    private static final long SEED = 42;
+    private static final int EPISODE_TICKS = 36; // The board's targets are harmless this long
+    private static final int CHECK_INTERVAL = 250;
+    private static final long EVENT_WAIT_MS = 2000; // Compilation events arrive with the stream's flush
+    private static final int C2 = 4;
+
+    // Methods of a game in progress that are big enough to be compiled on their own (small
+    // ones such as checkLineCollision are inlined into these)
+    private static final String[] HOT_METHODS = {
+        "FireSnakeGame.tick",
+        "FireSnakeGame.spawnTargets",
+        "FireSnakeGame.isValidTargetPosition",
+        "FireSnakeGame.checkBulletCollisions",
+        "FireSnakeGame.buildDisplayList",
+        "FireSnakeGame$FrameRenderer.render",
+        "FireSnakeGame$FrameRenderer.drawCommands",
+        "FireSnakeGame$FrameRenderer.drawSnakeSegment",
+        "FireSnakeGame$FrameRenderer.drawTarget",
+    };
+
+    private final Map<String, Integer> tiers = new ConcurrentHashMap<>(); // Highest tier compiled
+    private volatile boolean cancelled = false;
+
+    void start() {
+        Thread thread = new Thread(this::run, "jit-warmup");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    // Stop at the next tick (the real game is starting)
+    void cancel() {
+        cancelled = true;
+    }
+
+    private void run() {
+        long start = System.nanoTime();
+        RecordingStream compilations = null;
+        try {
+            compilations = new RecordingStream();
+            compilations.enable("jdk.Compilation").withThreshold(Duration.ZERO);
+            compilations.onEvent("jdk.Compilation", this::compiled);
+            compilations.startAsync();
+        } catch (RuntimeException e) {
+            // No Flight Recorder: warm up all the same, just without the tiers
+            compilations = null;
+        }
+        try {
+            int ticks = exercise(compilations != null);
+            if (compilations != null && !cancelled) {
+                waitForCompiled(EVENT_WAIT_MS);
+            }
+            long ms = (System.nanoTime() - start) / 1_000_000;
+            System.err.println(report(ticks, ms, compilations != null));
+            if (allCompiled()) {
+                StartupTimeline.mark(StartupTimeline.Milestone.JIT_WARM);
+            }
+        } finally {
+            if (compilations != null) {
+                compilations.close();
+            }
+        }
+    }
+
+    // Play synthetic episodes; returns the ticks run
+    private int exercise(boolean tracked) {
+        FireSnakeGame game = new FireSnakeGame(SEED, true);
+        game.setJfrEvents(false); // Keep synthetic spawn waves and collisions out of recordings
+        DisplayList dl = new DisplayList();
+        FireSnakeGame.FrameRenderer renderer = new FireSnakeGame.FrameRenderer();
+        BufferedImage frame = new BufferedImage(FireSnakeGame.frameWidth(), FireSnakeGame.frameHeight(),
+                BufferedImage.TYPE_INT_RGB);
+        int ticks = 0;
+        int episode = 0;
+        int episodeTick = EPISODE_TICKS;
+        while (ticks < TICKS && !cancelled) {
+            if (episodeTick == EPISODE_TICKS || game.isGameOver()) {
+                // Alternate a crowded board under fire with a long snake among fewer targets
+                boolean crowded = episode++ % 2 == 0;
+                game.layOutBoard(crowded ? 8 : 100, crowded ? 40 : 10);
+                game.handleKeyPress(KeyEvent.VK_SPACE);
+                episodeTick = 0;
+            }
+            if (episodeTick % 6 == 0) {
+                game.spawnTargets();
+            }
+            game.tick();
+            game.buildDisplayList(dl);
+            Graphics2D g2d = frame.createGraphics();
+            try {
+                renderer.render(g2d, dl, frame.getWidth(), frame.getHeight());
+            } finally {
+                g2d.dispose();
+            }
+            ticks++;
+            episodeTick++;
+            if (tracked && ticks % CHECK_INTERVAL == 0 && allCompiled()) {
+                break;
+            }
+        }
+        return ticks;
+    }
+
+    // Stream thread
+    private void compiled(RecordedEvent event) {
+        if (!event.getBoolean("succeded") || event.getBoolean("isOsr")) return;
+        RecordedMethod method = event.getValue("method");
+        String type = method.getType().getName();
+        String key = type.substring(type.lastIndexOf('.') + 1) + "." + method.getName();
+        tiers.merge(key, event.getInt("compileLevel"), Math::max);
+    }
+
+    private boolean allCompiled() {
+        for (String method : HOT_METHODS) {
+            if (tiers.getOrDefault(method, 0) < C2) return false;
+        }
+        return true;
+    }
+
+    private void waitForCompiled(long maxMs) {
+        long deadline = System.currentTimeMillis() + maxMs;
+        while (!allCompiled() && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    String report(int ticks, long ms, boolean tracked) {
+        StringBuilder line = new StringBuilder("JIT warm-up: ").append(ticks).append(" ticks in ")
+                .append(ms).append(" ms");
+        if (cancelled) {
+            line.append(" (stopped, game started)");
+        }
+        if (!tracked) {
+            return line.append("; compilation tiers unavailable").toString();
+        }
+        if (allCompiled()) {
+            return line.append("; all hot methods compiled by C2").toString();
+        }
+        line.append("; not yet C2:");
+        for (String method : HOT_METHODS) {
+            int tier = tiers.getOrDefault(method, 0);
+            if (tier < C2) {
+                line.append(' ').append(method.replace('$', '.')).append(" (tier ").append(tier).append(')');
+            }
+        }
+        return line.toString();
+    }
+}
@@ -0,0 +1,104 @@
+package com.firesnake;
+
+import java.io.PrintWriter;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Allocation-free latency histogram with logarithmic buckets (HdrHistogram style, three
+// significant bits): values below 8 us get a bucket each, above that every power of two is
+// split into 8 equal buckets, so any recorded value is within 12.5% of its bucket's bounds.
+// Values are stored in microseconds from 0 to 2^(MAX_SHIFT + 4) us, about 134 s; the last
+// bucket starts at 15 << MAX_SHIFT us (about 126 s) and also takes anything larger.
+//
+// One thread records; any thread may read. Readers see each bucket atomically but not the
+// histogram as a whole, which is fine for display and export.
+final class LatencyHistogram {
+    private static final int SUB_BUCKETS = 8;
+    private static final int MAX_SHIFT = 23;
+    static final int BUCKETS = SUB_BUCKETS * (MAX_SHIFT + 2);
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private volatile long count = 0;
+    private volatile long max = 0;
+    private volatile long sum = 0; // Of all recorded values (us)
+
+    void recordNanos(long nanos) {
+        record(Math.max(0, nanos) / 1000);
+    }
+
+    void record(long micros) {
+        int bucket = bucket(micros);
+        counts.lazySet(bucket, counts.get(bucket) + 1);
+        if (micros > max) {
+            max = micros;
+        }
+        sum += micros;
+        count++;
+    }
+
+    static int bucket(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) Math.max(0, micros);
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(micros) - 3;
+        if (shift > MAX_SHIFT) {
+            return BUCKETS - 1;
+        }
+        return SUB_BUCKETS * shift + (int) (micros >> shift);
+    }
+
+    // Smallest value (us) that falls into the bucket
+    static long lowerBound(int bucket) {
+        if (bucket < 2 * SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        return (long) (bucket - SUB_BUCKETS * shift) << shift;
+    }
+
+    // Largest value (us) that falls into the bucket
+    static long upperBound(int bucket) {
+        return bucket == BUCKETS - 1 ? Long.MAX_VALUE : lowerBound(bucket + 1) - 1;
+    }
+
+    long getCount() {
+        return count;
+    }
+
+    long getCount(int bucket) {
+        return counts.get(bucket);
+    }
+
+    long getMax() {
+        return max;
+    }
+
+    long getSum() {
+        return sum;
+    }
+
+    // Upper bound (us) of the bucket holding the given percentile (0-100), capped at the
+    // maximum recorded value; 0 when empty
+    long percentile(double percent) {
+        long total = count;
+        if (total == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(total * percent / 100));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(upperBound(i), max);
+            }
+        }
+        return max;
+    }
+
+    // One CSV row per non-empty bucket: name,low_us,high_us,count
+    void write(PrintWriter out, String name) {
+        for (int i = 0; i < BUCKETS; i++) {
+            long n = counts.get(i);
+            if (n > 0) {
+                out.println(name + "," + lowerBound(i) + "," + (i == BUCKETS - 1 ? "" : upperBound(i)) + "," + n);
+            }
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package com.firesnake;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.CRC32;
+
+// Every finished game, kept in an append-only log with an in-memory rank index.
+//
+// File: a header (magic, version, generation) followed by fixed-size entries, each with a
+// CRC32, so a torn or corrupt tail after a crash is detected and cut off instead of
+// poisoning the log. An entry is either one game or a folded score count. Compaction keeps
+// the newest RETAINED_GAMES games in full and folds older ones into per-score counts, so
+// the file stays bounded on a busy kiosk while ranks still count every game ever played.
+//
+// Ranks come from a ScoreIndex (Fenwick tree over scores): recording a game and asking for
+// the rank of a score are O(log maxScore) and never touch the disk. All file work (loading,
+// appending, compaction) runs on one background thread under a FileLock, and appends first
+// index any games other running instances added, so instances share one leaderboard.
+final class Leaderboard {
+    private static final int MAGIC = 0x46534C42; // "FSLB"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int ENTRY_SIZE = 40;
+    private static final int GAME = 1;
+    private static final int FOLDED = 2;
+    static final int RETAINED_GAMES = 100_000;
+
+    // A finished game
+    static final class Game {
+        final long time; // Epoch milliseconds
+        final int score, length, shots, hits, food, durationMs;
+
+        Game(long time, int score, int length, int shots, int hits, int food, int durationMs) {
+            this.time = time;
+            this.score = score;
+            this.length = length;
+            this.shots = shots;
+            this.hits = hits;
+            this.food = food;
+            this.durationMs = durationMs;
+        }
+    }
+
+    private final Path file;
+    private final Path tempFile;
+    private final Path lockFile;
+    private final ExecutorService io = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "leaderboard");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Guarded by this: the index and the games recorded but not yet appended
+    private final ScoreIndex index = new ScoreIndex();
+    private final List<Game> unwritten = new ArrayList<>();
+    private volatile boolean loaded = false;
+
+    // Background thread only: what of the file is already indexed
+    private long generation = -1;
+    private long indexedEnd = 0;
+    private int gamesInFile = 0;
+
+    Leaderboard(File file) {
+        this.file = file.toPath().toAbsolutePath();
+        this.tempFile = this.file.resolveSibling(this.file.getFileName() + ".tmp");
+        this.lockFile = this.file.resolveSibling(this.file.getFileName() + ".lock");
+    }
+
+    // Load and index the log in the background
+    void open() {
+        io.execute(() -> {
+            try {
+                withFileLock(() -> {
+                    catchUp();
+                    loaded = true;
+                    compactIfNeeded();
+                });
+            } catch (IOException e) {
+                // Ranks stay unavailable; the game itself is unaffected
+            }
+        });
+    }
+
+    // Ranks are only complete once the log has been loaded
+    boolean isLoaded() {
+        return loaded;
+    }
+
+    // Index the game now and append it to the log in the background
+    void record(Game game) {
+        synchronized (this) {
+            index.add(game.score, 1);
+            unwritten.add(game);
+        }
+        io.execute(this::appendUnwritten);
+    }
+
+    // 1 + the number of games with a higher score
+    synchronized long rank(int score) {
+        return index.countAbove(score) + 1;
+    }
+
+    synchronized long size() {
+        return index.total();
+    }
+
+    // Percentage of games with a lower score
+    synchronized double percentBelow(int score) {
+        long total = index.total();
+        return total == 0 ? 0 : 100.0 * index.countAtMost(score - 1) / total;
+    }
+
+    private void appendUnwritten() {
+        try {
+            withFileLock(this::appendLocked);
+        } catch (IOException e) {
+            // Kept in unwritten and retried with the next recorded game
+        }
+    }
+
+    private void appendLocked() throws IOException {
+        catchUp();
+        List<Game> games;
+        synchronized (this) {
+            games = new ArrayList<>(unwritten);
+        }
+        if (games.isEmpty()) return;
+        ByteBuffer entries = ByteBuffer.allocate(games.size() * ENTRY_SIZE);
+        for (Game game : games) {
+            putEntry(entries, GAME, game.time, game.score, game.length, game.shots, game.hits, game.food, game.durationMs);
+        }
+        entries.flip();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(indexedEnd); // Drop a torn tail left by a crash
+            channel.position(indexedEnd);
+            while (entries.hasRemaining()) {
+                channel.write(entries);
+            }
+            channel.force(false);
+            indexedEnd = channel.position();
+        }
+        gamesInFile += games.size();
+        synchronized (this) {
+            unwritten.subList(0, games.size()).clear();
+        }
+        compactIfNeeded();
+    }
+
+    // Runs the action holding the lock file's exclusive lock, which serializes every
+    // instance's reads and writes of the log
+    private void withFileLock(LockedAction action) throws IOException {
+        try (FileChannel lockChannel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            FileLock lock = lockChannel.lock();
+            try {
+                action.run();
+            } finally {
+                lock.release();
+            }
+        }
+    }
+
+    private interface LockedAction {
+        void run() throws IOException;
+    }
+
+    // Bring the index up to date with the file (lock held): index entries appended by other
+    // instances, or re-read everything if another instance compacted (new generation).
+    // Creates the file if there is none.
+    private void catchUp() throws IOException {
+        if (!Files.exists(file) || Files.size(file) < HEADER_SIZE) {
+            writeHeader(file, generation < 0 ? 0 : generation + 1, new ArrayList<>());
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException(file + " is not a leaderboard log");
+            }
+            long fileGeneration = in.readLong();
+            long position = HEADER_SIZE;
+            if (fileGeneration != generation) {
+                // First load, or rewritten by another instance: index from scratch
+                synchronized (this) {
+                    index.clear();
+                    for (Game game : unwritten) {
+                        index.add(game.score, 1);
+                    }
+                }
+                generation = fileGeneration;
+                gamesInFile = 0;
+            } else {
+                in.skipNBytes(indexedEnd - HEADER_SIZE);
+                position = indexedEnd;
+            }
+
+            byte[] entry = new byte[ENTRY_SIZE];
+            ByteBuffer b = ByteBuffer.wrap(entry);
+            while (readEntry(in, entry)) {
+                int kind = b.getInt(0);
+                int score = b.getInt(12);
+                long count = kind == FOLDED ? b.getLong(4) : 1;
+                synchronized (this) {
+                    index.add(score, count);
+                }
+                if (kind == GAME) {
+                    gamesInFile++;
+                }
+                position += ENTRY_SIZE;
+            }
+            indexedEnd = position;
+        }
+    }
+
+    // Rewrite the log when it holds twice as many full games as retained (lock held)
+    private void compactIfNeeded() throws IOException {
+        if (gamesInFile <= 2 * RETAINED_GAMES) return;
+        int fold = gamesInFile - RETAINED_GAMES;
+        TreeMap<Integer, Long> folded = new TreeMap<>();
+        List<byte[]> retained = new ArrayList<>(RETAINED_GAMES);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            in.skipNBytes(HEADER_SIZE);
+            byte[] entry = new byte[ENTRY_SIZE];
+            ByteBuffer b = ByteBuffer.wrap(entry);
+            int games = 0;
+            while (readEntry(in, entry)) {
+                int kind = b.getInt(0);
+                int score = b.getInt(12);
+                if (kind == FOLDED) {
+                    folded.merge(score, b.getLong(4), Long::sum);
+                } else if (games++ < fold) {
+                    folded.merge(score, 1L, Long::sum);
+                } else {
+                    retained.add(entry.clone());
+                }
+            }
+        }
+
+        List<byte[]> entries = new ArrayList<>(folded.size() + retained.size());
+        for (Map.Entry<Integer, Long> e : folded.entrySet()) {
+            ByteBuffer b = ByteBuffer.allocate(ENTRY_SIZE);
+            putEntry(b, FOLDED, e.getValue(), e.getKey(), 0, 0, 0, 0, 0);
+            entries.add(b.array());
+        }
+        entries.addAll(retained);
+        writeHeader(tempFile, generation + 1, entries);
+        try {
+            Files.move(tempFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        // Same games, so the index stays as it is
+        generation++;
+        gamesInFile = retained.size();
+        indexedEnd = HEADER_SIZE + (long) entries.size() * ENTRY_SIZE;
+    }
+
+    // Write a complete log file (header and entries) and force it to disk
+    private static void writeHeader(Path path, long generation, List<byte[]> entries) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+             OutputStream out = new BufferedOutputStream(java.nio.channels.Channels.newOutputStream(channel), 1 << 16)) {
+            DataOutputStream data = new DataOutputStream(out);
+            data.writeInt(MAGIC);
+            data.writeInt(VERSION);
+            data.writeLong(generation);
+            for (byte[] entry : entries) {
+                data.write(entry);
+            }
+            data.flush();
+            channel.force(false);
+        }
+    }
+
+    // Entry layout: kind, time (or folded count), score, length, shots, hits, food,
+    // duration, CRC32 of the preceding 36 bytes
+    private static void putEntry(ByteBuffer b, int kind, long time, int score, int length, int shots,
+                                 int hits, int food, int durationMs) {
+        int start = b.position();
+        b.putInt(kind).putLong(time).putInt(score).putInt(length).putInt(shots).putInt(hits).putInt(food).putInt(durationMs);
+        CRC32 crc = new CRC32();
+        crc.update(b.array(), start, ENTRY_SIZE - 4);
+        b.putInt((int) crc.getValue());
+    }
+
+    // Read the next entry; false at the end of the log or at the first torn/corrupt entry
+    private static boolean readEntry(DataInputStream in, byte[] entry) throws IOException {
+        int n = in.readNBytes(entry, 0, ENTRY_SIZE);
+        if (n < ENTRY_SIZE) return false;
+        CRC32 crc = new CRC32();
+        crc.update(entry, 0, ENTRY_SIZE - 4);
+        int kind = ByteBuffer.wrap(entry).getInt(0);
+        return (int) crc.getValue() == ByteBuffer.wrap(entry).getInt(ENTRY_SIZE - 4) && (kind == GAME || kind == FOLDED);
+    }
+}
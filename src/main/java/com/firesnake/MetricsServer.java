@@ -0,0 +1,197 @@
+package com.firesnake;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+
+// Prometheus text format endpoint (GET /metrics) for unattended kiosks, on the JDK's built-in
+// HTTP server. A scrape only reads the single-writer counters of GameMetrics, FrameStats,
+// AudioStats and HighScoreStore, so it never takes a lock the game or render thread could
+// wait on; the values of one scrape may be a tick apart. Requests are served one at a time
+// on a daemon thread. Enabled with -Dfiresnake.metricsPort (see FireSnakeGame).
+final class MetricsServer {
+    static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    // Upper bounds (us) of the exported latency buckets; finer LatencyHistogram buckets are
+    // summed into them, counting a bucket once all its values are within the bound
+    private static final long[] LATENCY_BOUNDS_US = {
+        250, 500, 1_000, 2_000, 4_000, 8_000, 16_000, 33_000, 50_000, 100_000, 250_000, 1_000_000
+    };
+    private static final Telemetry.Cause[] CAUSES = Telemetry.Cause.values();
+
+    private final GameMetrics metrics;
+    private final FrameStats frameStats;
+    private final AudioStats audioStats;
+    private final HighScoreStore highScores;
+    private HttpServer server;
+
+    MetricsServer(GameMetrics metrics, FrameStats frameStats, AudioStats audioStats, HighScoreStore highScores) {
+        this.metrics = metrics;
+        this.frameStats = frameStats;
+        this.audioStats = audioStats;
+        this.highScores = highScores;
+    }
+
+    // Bind and start serving; port 0 picks a free port (see getPort)
+    void start(InetSocketAddress address) throws IOException {
+        server = HttpServer.create(address, 0);
+        server.createContext("/metrics", this::handle);
+        server.setExecutor(Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "metrics-http");
+            thread.setDaemon(true);
+            return thread;
+        }));
+        server.start();
+    }
+
+    int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    void stop() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("GET") && !exchange.getRequestMethod().equals("HEAD")) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = scrape().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            if (exchange.getRequestMethod().equals("HEAD")) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    // The current values in Prometheus text exposition format
+    String scrape() {
+        StringBuilder out = new StringBuilder(8192);
+        counter(out, "firesnake_ticks_total", "Simulation ticks run", metrics.ticks);
+        counter(out, "firesnake_frames_total", "Frames rendered", metrics.frames);
+        gauge(out, "firesnake_ticks_per_second", "Ticks per second over the last second", metrics.ticksPerSecond);
+        gauge(out, "firesnake_frames_per_second", "Frames per second over the last second", metrics.framesPerSecond);
+        gauge(out, "firesnake_tick_delay_seconds", "Current tick duration", metrics.delayMs / 1000.0);
+        gauge(out, "firesnake_snake_length", "Current snake length", metrics.snakeLength);
+
+        header(out, "firesnake_entities", "gauge", "Live entities by type");
+        sample(out, "firesnake_entities", "type", "dangerous_target", metrics.dangerousTargets);
+        sample(out, "firesnake_entities", "type", "slow_target", metrics.slowTargets);
+        sample(out, "firesnake_entities", "type", "shrink_target", metrics.shrinkTargets);
+        sample(out, "firesnake_entities", "type", "speed_target", metrics.speedTargets);
+        sample(out, "firesnake_entities", "type", "bullet", metrics.bullets);
+        sample(out, "firesnake_entities", "type", "particle", metrics.particles);
+        counter(out, "firesnake_spawn_placement_failures_total", "Targets of a spawn wave that found no free spot",
+                metrics.spawnFailures);
+
+        latency(out, "firesnake_tick_duration_seconds", "Time of one simulation tick",
+                frameStats.get(FrameStats.Phase.TICK));
+        latency(out, "firesnake_render_duration_seconds", "Time to render one frame",
+                frameStats.get(FrameStats.Phase.RENDER));
+
+        counter(out, "firesnake_games_total", "Games finished", metrics.games);
+        header(out, "firesnake_deaths_total", "counter", "Finished games by cause of death");
+        for (Telemetry.Cause cause : CAUSES) {
+            sample(out, "firesnake_deaths_total", "cause", cause.name().toLowerCase(Locale.ROOT), metrics.getDeaths(cause));
+        }
+        header(out, "firesnake_game_score", "histogram", "Final score of finished games");
+        long cumulative = 0;
+        for (int i = 0; i < GameMetrics.SCORE_BOUNDS.length; i++) {
+            cumulative += metrics.getScoreCount(i);
+            sample(out, "firesnake_game_score_bucket", "le", Integer.toString(GameMetrics.SCORE_BOUNDS[i]), cumulative);
+        }
+        cumulative += metrics.getScoreCount(GameMetrics.SCORE_BOUNDS.length);
+        sample(out, "firesnake_game_score_bucket", "le", "+Inf", cumulative);
+        sample(out, "firesnake_game_score_sum", metrics.scoreSum);
+        sample(out, "firesnake_game_score_count", cumulative);
+
+        counter(out, "firesnake_highscore_writes_total", "Global high scores written to disk", highScores.getWrites());
+        counter(out, "firesnake_highscore_write_failures_total", "Failed high score saves", highScores.getFailures());
+
+        gauge(out, "firesnake_audio_active_voices", "Sound effects playing", audioStats.activeVoices);
+        counter(out, "firesnake_audio_line_underruns_total", "Mixer blocks written to an empty line", audioStats.lineUnderruns);
+        counter(out, "firesnake_audio_music_underruns_total", "Mixer blocks that found the music lookahead short",
+                audioStats.musicUnderruns);
+        counter(out, "firesnake_audio_dropped_sounds_total", "Sound effects dropped because the queue was full",
+                audioStats.droppedSounds);
+        counter(out, "firesnake_audio_line_open_failures_total", "Failures to open the audio line",
+                audioStats.lineOpenFailures);
+        counter(out, "firesnake_audio_line_errors_total", "Errors that stopped playback", audioStats.lineErrors);
+        counter(out, "firesnake_audio_device_probe_failures_total", "Failures of the audio system while choosing a device",
+                audioStats.deviceProbeFailures);
+        counter(out, "firesnake_audio_song_load_failures_total", "Songs that could not be loaded",
+                audioStats.songLoadFailures);
+
+        header(out, "firesnake_startup_seconds", "gauge", "Time from JVM start to each startup milestone reached");
+        for (StartupTimeline.Milestone milestone : StartupTimeline.Milestone.values()) {
+            long millis = StartupTimeline.get(milestone);
+            if (millis >= 0) {
+                out.append("firesnake_startup_seconds{milestone=\"").append(milestone.name().toLowerCase(Locale.ROOT))
+                        .append("\"} ").append(millis / 1000.0).append('\n');
+            }
+        }
+        return out.toString();
+    }
+
+    // Cumulative buckets of a LatencyHistogram in seconds
+    private static void latency(StringBuilder out, String name, String help, LatencyHistogram histogram) {
+        header(out, name, "histogram", help);
+        // The count is the sum of the buckets as read here, so it always matches +Inf; the
+        // sum may include a value recorded meanwhile
+        long sumMicros = histogram.getSum();
+        long cumulative = 0;
+        int bucket = 0;
+        for (long bound : LATENCY_BOUNDS_US) {
+            while (bucket < LatencyHistogram.BUCKETS && LatencyHistogram.upperBound(bucket) <= bound) {
+                cumulative += histogram.getCount(bucket++);
+            }
+            sample(out, name + "_bucket", "le", seconds(bound), cumulative);
+        }
+        while (bucket < LatencyHistogram.BUCKETS) {
+            cumulative += histogram.getCount(bucket++);
+        }
+        sample(out, name + "_bucket", "le", "+Inf", cumulative);
+        out.append(name).append("_sum ").append(seconds(sumMicros)).append('\n');
+        sample(out, name + "_count", cumulative);
+    }
+
+    private static String seconds(long micros) {
+        return Double.toString(micros / 1e6);
+    }
+
+    private static void counter(StringBuilder out, String name, String help, long value) {
+        header(out, name, "counter", help);
+        sample(out, name, value);
+    }
+
+    private static void gauge(StringBuilder out, String name, String help, double value) {
+        header(out, name, "gauge", help);
+        out.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void header(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, long value) {
+        out.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, String label, String labelValue, long value) {
+        out.append(name).append('{').append(label).append("=\"").append(labelValue).append("\"} ")
+                .append(value).append('\n');
+    }
+}
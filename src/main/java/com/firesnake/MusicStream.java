@@ -0,0 +1,178 @@
+package com.firesnake;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+// The music voice of the AudioMixer. One long-lived thread renders the current song with its
+// Sequencer into a lock-free single-producer/single-consumer ring that is kept up to
+// LOOKAHEAD_FRAMES (~170 ms at 48 kHz) ahead of playback; the mixer thread adds the ring into every block it
+// mixes, so music and sound effects share one line and no thread or line is ever created
+// when the music changes.
+//
+// Switching songs (or stopping) is a request picked up by the render thread, which then
+// crossfades from the old song to the new one over CROSSFADE_MS with equal-power gains.
+// A start from silence fades in and a stop fades out the same way, so there are no clicks.
+final class MusicStream {
+    static final int LOOKAHEAD_FRAMES = 8192; // Ring capacity, must be a power of two
+    private static final int BLOCK_FRAMES = 256;
+    private static final int CROSSFADE_MS = 150;
+    private static final long IDLE_PARK_NANOS = 50_000_000L; // Re-checks pause state while idle
+
+    // Ring (render thread writes samples and 'written', mixer thread advances 'read')
+    private final short[] ring = new short[LOOKAHEAD_FRAMES];
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong read = new AtomicLong();
+
+    // Requests from the game
+    private volatile Sequencer requested;
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private volatile double tempo = 1.0;
+    private final BooleanSupplier paused;
+
+    // True while a song is playing and the lookahead has been filled once; an empty ring is
+    // only an underrun then (not while stopped, paused or starting up)
+    private volatile boolean streaming = false;
+
+    // Render thread only
+    private int seenRequests = 0;
+    private Sequencer current;
+    private Sequencer fading;
+    private final int crossfadeFrames;
+    private int fadePosition;                 // Frames into the crossfade; done at crossfadeFrames
+    private final int[] currentBlock = new int[BLOCK_FRAMES];
+    private final int[] fadingBlock = new int[BLOCK_FRAMES];
+    private final float[] fadeGain;           // Fade-in curve; fade-out reads it backwards
+
+    private Thread thread;
+
+    MusicStream(int sampleRate, BooleanSupplier paused) {
+        this.paused = paused;
+        crossfadeFrames = sampleRate * CROSSFADE_MS / 1000;
+        fadePosition = crossfadeFrames;
+        fadeGain = new float[crossfadeFrames + 1];
+        for (int i = 0; i <= crossfadeFrames; i++) {
+            fadeGain[i] = (float) StrictMath.sin(Math.PI / 2 * i / crossfadeFrames);
+        }
+    }
+
+    void start() {
+        if (thread != null) return;
+        thread = new Thread(this::run, "music");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MAX_PRIORITY - 1);
+        thread.start();
+    }
+
+    // Crossfade to the song (null fades out to silence). Safe to call from any thread.
+    void play(Sequencer sequencer) {
+        requested = sequencer;
+        requestCount.incrementAndGet();
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    void setTempo(double tempo) {
+        this.tempo = tempo;
+    }
+
+    double getTempo() {
+        return tempo;
+    }
+
+    // Mixer thread: add the next frames of music into mix. Never blocks. Returns false on
+    // an underrun (the ring was short while a song was playing).
+    boolean mixInto(int[] mix, int frames) {
+        long position = read.get();
+        int available = (int) Math.min(frames, written.get() - position);
+        for (int i = 0; i < available; i++) {
+            mix[i] += ring[(int) (position + i) & (LOOKAHEAD_FRAMES - 1)];
+        }
+        if (available > 0) {
+            read.lazySet(position + available);
+            LockSupport.unpark(thread);
+        }
+        return available == frames || !streaming;
+    }
+
+    private void run() {
+        while (true) {
+            if (!renderNext()) {
+                // Idle, paused or the lookahead is full: the mixer unparks us after consuming
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    // Offline rendering (the stream was not started): top up the lookahead exactly as the
+    // render thread would
+    void renderAhead() {
+        while (renderNext()) {
+            // Render until there is nothing to do
+        }
+    }
+
+    // Pick up a song request and render one block if there is something to play and room in
+    // the ring. Returns false when there is nothing to do right now.
+    private boolean renderNext() {
+        int count = requestCount.get();
+        if (count != seenRequests) {
+            seenRequests = count;
+            switchTo(requested);
+        }
+        if ((current == null && fading == null) || paused.getAsBoolean()) {
+            // Nothing to render (the song position holds while paused); the ring drains
+            streaming = false;
+            return false;
+        }
+        if (LOOKAHEAD_FRAMES - (written.get() - read.get()) < BLOCK_FRAMES) {
+            streaming = true;
+            return false;
+        }
+        renderBlock();
+        return true;
+    }
+
+    private void switchTo(Sequencer next) {
+        if (next == current) return;
+        // A switch during a crossfade drops the song that was already fading out
+        fading = current;
+        current = next;
+        fadePosition = 0;
+    }
+
+    private void renderBlock() {
+        double tempo = this.tempo;
+        int[] mix = currentBlock;
+        Arrays.fill(mix, 0);
+        if (current != null) {
+            current.render(mix, 0, BLOCK_FRAMES, tempo);
+        }
+
+        if (fadePosition < crossfadeFrames) {
+            int[] old = fadingBlock;
+            Arrays.fill(old, 0);
+            if (fading != null) {
+                fading.render(old, 0, BLOCK_FRAMES, tempo);
+            }
+            for (int i = 0; i < BLOCK_FRAMES; i++) {
+                int f = Math.min(fadePosition + i, crossfadeFrames);
+                mix[i] = (int) (mix[i] * fadeGain[f] + old[i] * fadeGain[crossfadeFrames - f]);
+            }
+            fadePosition += BLOCK_FRAMES;
+            if (fadePosition >= crossfadeFrames) {
+                fading = null;
+            }
+        }
+
+        long position = written.get();
+        for (int i = 0; i < BLOCK_FRAMES; i++) {
+            int sample = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, mix[i]));
+            ring[(int) (position + i) & (LOOKAHEAD_FRAMES - 1)] = (short) sample;
+        }
+        written.lazySet(position + BLOCK_FRAMES);
+    }
+}
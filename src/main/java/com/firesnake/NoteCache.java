@@ -0,0 +1,89 @@
+package com.firesnake;
+
+import com.firesnake.Wavetable.Waveform;
+
+// Rendered music notes keyed by (frequency, duration in whole milliseconds, waveform).
+// A note is rendered once with the band-limited wavetable oscillator and its attack/release
+// envelope at unit volume, then reused; callers scale by volume while copying it out.
+// Lookups go through an open-addressing table with primitive keys, so a hit allocates
+// nothing. The songs use a small fixed set of notes per tempo level, which stays well
+// below the entry limit.
+final class NoteCache {
+    private static final int SLOTS = 1024;                // Power of two
+    private static final int MAX_ENTRIES = SLOTS / 2;
+    private static final double AMPLITUDE = 50 * 256;     // Music level: 50/127 of full scale
+
+    private final int sampleRate;
+    private final long[] keys = new long[SLOTS];
+    private final short[][] notes = new short[SLOTS][];
+    private int size = 0;
+
+    NoteCache(int sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    // Number of samples of a note of the given duration
+    int samples(int durationMs) {
+        return (int) (sampleRate * durationMs / 1000.0);
+    }
+
+    // The note's samples (samples(durationMs) long). Never modify the returned array.
+    synchronized short[] note(double frequency, int durationMs, Waveform waveform) {
+        long key = Math.round(frequency * 100) << 24 | (long) durationMs << 4 | waveform.ordinal();
+        int slot = (int) (key ^ key >>> 29) * 0x9E3779B1 >>> 22; // Top 10 bits of a Fibonacci hash
+        while (notes[slot] != null) {
+            if (keys[slot] == key) {
+                return notes[slot];
+            }
+            slot = (slot + 1) & (SLOTS - 1);
+        }
+
+        GameEvents.NoteRender event = new GameEvents.NoteRender();
+        event.begin();
+        short[] note = new short[samples(durationMs)];
+        render(note, frequency, waveform);
+        boolean cached = size < MAX_ENTRIES;
+        if (cached) {
+            keys[slot] = key;
+            notes[slot] = note;
+            size++;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.frequency = frequency;
+            event.noteDuration = durationMs;
+            event.waveform = waveform.name();
+            event.samples = note.length;
+            event.cached = cached;
+            event.commit();
+        }
+        return note;
+    }
+
+    // Phase accumulator oscillator over the band-limited table, with the attack/decay envelope
+    private void render(short[] out, double frequency, Waveform waveform) {
+        float[] table = Wavetable.of(waveform, sampleRate).forFrequency(frequency);
+        int numSamples = out.length;
+        int attackSamples = Math.min(numSamples / 10, (int) (sampleRate * 0.01));
+        int releaseSamples = numSamples / 4;
+
+        double phase = 0;
+        double increment = frequency * Wavetable.SIZE / sampleRate;
+        for (int i = 0; i < numSamples; i++) {
+            int index = (int) phase;
+            float value = table[index] + (table[index + 1] - table[index]) * (float) (phase - index);
+
+            double env = 1.0;
+            if (i < attackSamples) {
+                env = (double) i / attackSamples;
+            } else if (i > numSamples - releaseSamples) {
+                env = (double) (numSamples - i) / releaseSamples;
+            }
+
+            out[i] = (short) (value * AMPLITUDE * env);
+            // Floor-mod, so the index stays in the table whatever the increment
+            phase += increment;
+            phase -= Math.floor(phase / Wavetable.SIZE) * Wavetable.SIZE;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.firesnake;
+
+import java.io.IOException;
+
+// The soundtrack of a headless game created with offline audio, kept in step with the
+// simulation clock. Before each tick the caller renders up to the tick's time, so the
+// sounds it triggers start at the next mixer block, exactly as with the live mixer thread.
+// Mixed samples are kept until they are written or fall out of a short history, so writing
+// can start and stop at any sample (e.g. at the first frame of an exported clip).
+final class OfflineAudio {
+    static final int SAMPLE_RATE = (int) AudioMixer.OFFLINE_FORMAT.getSampleRate();
+    private static final int HISTORY_FRAMES = SAMPLE_RATE * 2; // More than a tick plus a block
+
+    private final FireSnakeGame game;
+    private final byte[] history = new byte[HISTORY_FRAMES * 2]; // Ring of the latest mixed samples
+    private long rendered = 0;  // Frames mixed so far
+    private long written = 0;   // Next frame to write
+    private WavWriter out;      // null until writing starts
+
+    OfflineAudio(FireSnakeGame game) {
+        this.game = game;
+    }
+
+    static long frameAt(double timeMs) {
+        return Math.round(timeMs * SAMPLE_RATE / 1000);
+    }
+
+    // Mix whole blocks until everything up to timeMs is available
+    void renderTo(double timeMs) throws IOException {
+        long target = frameAt(timeMs);
+        while (rendered < target) {
+            if (rendered + AudioMixer.BLOCK_FRAMES - written > HISTORY_FRAMES) {
+                // Would overwrite unwritten samples: write them first, or drop them if not writing yet
+                long keep = rendered + AudioMixer.BLOCK_FRAMES - HISTORY_FRAMES;
+                if (out != null) {
+                    writeFrames(keep);
+                } else {
+                    written = keep;
+                }
+            }
+            byte[] block = game.renderAudioBlock();
+            int start = (int) (rendered % HISTORY_FRAMES) * 2;
+            int first = Math.min(block.length, history.length - start);
+            System.arraycopy(block, 0, history, start, first);
+            System.arraycopy(block, first, history, 0, block.length - first);
+            rendered += AudioMixer.BLOCK_FRAMES;
+        }
+    }
+
+    // Start writing at timeMs; earlier samples are dropped
+    void startWriting(WavWriter out, double timeMs) throws IOException {
+        long start = frameAt(timeMs);
+        renderTo(timeMs);
+        written = Math.max(written, Math.max(start, rendered - HISTORY_FRAMES));
+        this.out = out;
+    }
+
+    // Write everything up to timeMs (exclusive)
+    void writeTo(double timeMs) throws IOException {
+        renderTo(timeMs);
+        writeFrames(frameAt(timeMs));
+    }
+
+    private void writeFrames(long end) throws IOException {
+        while (written < end) {
+            int start = (int) (written % HISTORY_FRAMES);
+            int frames = (int) Math.min(end - written, HISTORY_FRAMES - start);
+            out.write(history, start * 2, frames * 2);
+            written += frames;
+        }
+    }
+}
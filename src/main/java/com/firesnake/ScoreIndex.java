@@ -0,0 +1,63 @@
+package com.firesnake;
+
+import java.util.Arrays;
+
+// Order-statistics index over scores: a Fenwick (binary indexed) tree of game counts per
+// score, so adding a game and counting the games above or below a score are both
+// O(log maxScore) no matter how many games are recorded. The score range doubles when a
+// higher score arrives. Not thread safe.
+final class ScoreIndex {
+    private long[] tree = new long[1 << 12]; // tree[i] covers scores (i - lowbit(i), i] - 1
+    private long total = 0;
+
+    void add(int score, long count) {
+        score = Math.max(0, score);
+        while (score >= tree.length - 1) {
+            grow();
+        }
+        for (int i = score + 1; i < tree.length; i += i & -i) {
+            tree[i] += count;
+        }
+        total += count;
+    }
+
+    long total() {
+        return total;
+    }
+
+    // Games with a score <= the given score
+    long countAtMost(int score) {
+        if (score < 0) return 0;
+        long sum = 0;
+        for (int i = Math.min(score + 1, tree.length - 1); i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    // Games with a higher score
+    long countAbove(int score) {
+        return total - countAtMost(score);
+    }
+
+    // Rebuild at twice the size: convert to plain counts, then back to a tree
+    private void grow() {
+        int n = tree.length;
+        long[] counts = new long[n * 2];
+        for (int i = 1; i < n; i++) {
+            counts[i] = countAtMost(i - 1) - countAtMost(i - 2);
+        }
+        tree = counts;
+        for (int i = 1; i < tree.length; i++) {
+            int parent = i + (i & -i);
+            if (parent < tree.length) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+
+    void clear() {
+        Arrays.fill(tree, 0);
+        total = 0;
+    }
+}
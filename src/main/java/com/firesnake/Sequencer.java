@@ -0,0 +1,111 @@
+package com.firesnake;
+
+// Renders a Song into sample blocks. Song time advances per sample, scaled by the tempo
+// multiplier passed to each render call, so a tempo change takes effect at the exact sample
+// it is rendered at (mid-measure, not at a pattern boundary) and every note starts on its
+// exact sample instead of being snapped to a block or a millisecond.
+//
+// Notes come from the NoteCache and play to their end on a small voice pool, so a note
+// still ringing when the tempo speeds up overlaps the next one instead of being cut off.
+// Rendering allocates nothing once the notes are cached. Not thread safe: one thread renders.
+final class Sequencer {
+    private static final int VOICES = 8;
+
+    private final Song song;
+    private final NoteCache notes;
+    private final int sampleRate;
+
+    private double tick = 0;             // Song position in ticks
+    private final int[] nextStep;        // Per track: index of the next step to start
+    private final double[] nextStepTick; // Per track: song tick at which it starts
+
+    private final short[][] voiceNote = new short[VOICES][];
+    private final int[] voicePosition = new int[VOICES];
+    private final float[] voiceVolume = new float[VOICES];
+
+    Sequencer(Song song, NoteCache notes, int sampleRate) {
+        this.song = song;
+        this.notes = notes;
+        this.sampleRate = sampleRate;
+        nextStep = new int[song.tracks.length];
+        nextStepTick = new double[song.tracks.length];
+    }
+
+    Song getSong() {
+        return song;
+    }
+
+    // Add the next frames samples of the song into mix[offset ..]
+    void render(int[] mix, int offset, int frames, double tempo) {
+        double ticksPerSample = tempo * 1000.0 / (song.tickMs * sampleRate);
+        int end = offset + frames;
+        while (offset < end) {
+            startDueSteps(tempo);
+
+            // Samples until the next step on any track: it starts on the first sample whose
+            // song tick reaches the step's tick
+            double nextTick = Double.MAX_VALUE;
+            for (double t : nextStepTick) {
+                nextTick = Math.min(nextTick, t);
+            }
+            int run = (int) Math.min(end - offset, Math.max(1, Math.ceil((nextTick - tick) / ticksPerSample)));
+            mixVoices(mix, offset, run);
+            tick += run * ticksPerSample;
+            offset += run;
+        }
+    }
+
+    private void startDueSteps(double tempo) {
+        for (int t = 0; t < nextStep.length; t++) {
+            Song.Track track = song.tracks[t];
+            while (nextStepTick[t] <= tick) {
+                int step = nextStep[t];
+                if (track.frequency[step] != Song.REST) {
+                    int durationMs = (int) Math.round(track.ticks[step] * song.tickMs / tempo);
+                    startVoice(notes.note(track.frequency[step], durationMs, track.waveform[step]), track.volume[step]);
+                }
+                nextStepTick[t] += track.ticks[step];
+                nextStep[t] = (step + 1) % track.size;
+            }
+        }
+    }
+
+    private void startVoice(short[] note, float volume) {
+        // Free voice, otherwise the one closest to its end
+        int target = 0;
+        int leastRemaining = Integer.MAX_VALUE;
+        for (int v = 0; v < VOICES; v++) {
+            if (voiceNote[v] == null) {
+                target = v;
+                break;
+            }
+            int remaining = voiceNote[v].length - voicePosition[v];
+            if (remaining < leastRemaining) {
+                leastRemaining = remaining;
+                target = v;
+            }
+        }
+        voiceNote[target] = note;
+        voicePosition[target] = 0;
+        voiceVolume[target] = volume;
+    }
+
+    private void mixVoices(int[] mix, int offset, int frames) {
+        for (int v = 0; v < VOICES; v++) {
+            short[] note = voiceNote[v];
+            if (note == null) continue;
+            int position = voicePosition[v];
+            float volume = voiceVolume[v];
+            int count = Math.min(frames, note.length - position);
+            for (int i = 0; i < count; i++) {
+                mix[offset + i] += (int) (note[position + i] * volume);
+            }
+            position += count;
+            if (position >= note.length) {
+                voiceNote[v] = null;
+            } else {
+                voicePosition[v] = position;
+            }
+        }
+    }
+}
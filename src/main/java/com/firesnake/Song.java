@@ -0,0 +1,193 @@
+package com.firesnake;
+
+import com.firesnake.Wavetable.Waveform;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+// A piece of music as pattern data, played by Sequencer.
+//
+// File format (text, '#' starts a comment):
+//   tick <ms>                      tick length in milliseconds at tempo multiplier 1
+//   pattern <name>                 starts a pattern; the following lines are its steps:
+//     <note> <ticks> <volume> <waveform>   note as C4, F#3, Bb2 ... or a frequency in Hz
+//                                          (20 Hz to 20 kHz); volume from 0 to 1;
+//                                          waveform is square, triangle, pulse25 or sine
+//     rest <ticks>
+//   end                            ends the pattern
+//   track <pattern> <pattern> ...  a track plays its patterns in order and loops; all
+//                                  tracks of a song play at the same time
+//
+// Each track is flattened into parallel arrays of steps when loaded.
+final class Song {
+    static final double REST = 0;
+    // Audible range, and below the Nyquist frequency of every output rate the mixer uses
+    static final double MIN_FREQUENCY = 20;
+    static final double MAX_FREQUENCY = 20_000;
+
+    final String name;
+    final double tickMs;
+    final Track[] tracks;
+
+    static final class Track {
+        final double[] frequency; // REST for a rest
+        final int[] ticks;
+        final float[] volume;
+        final Waveform[] waveform;
+        final int size;
+
+        Track(List<double[]> steps, List<Waveform> waveforms) {
+            size = steps.size();
+            frequency = new double[size];
+            ticks = new int[size];
+            volume = new float[size];
+            waveform = waveforms.toArray(new Waveform[0]);
+            for (int i = 0; i < size; i++) {
+                double[] step = steps.get(i);
+                frequency[i] = step[0];
+                ticks[i] = (int) step[1];
+                volume[i] = (float) step[2];
+            }
+        }
+    }
+
+    private Song(String name, double tickMs, Track[] tracks) {
+        this.name = name;
+        this.tickMs = tickMs;
+        this.tracks = tracks;
+    }
+
+    static Song load(String name, InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        double tickMs = 0;
+        Map<String, List<String[]>> patterns = new HashMap<>();
+        List<String[]> trackLines = new ArrayList<>();
+        List<String[]> currentPattern = null;
+
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            int comment = line.indexOf('#');
+            if (comment >= 0) {
+                line = line.substring(0, comment);
+            }
+            line = line.trim();
+            if (line.isEmpty()) continue;
+            String[] parts = line.split("\\s+");
+
+            if (currentPattern != null) {
+                if (parts[0].equals("end")) {
+                    currentPattern = null;
+                } else if (parts[0].equals("rest") ? parts.length == 2 : parts.length == 4) {
+                    currentPattern.add(parts);
+                } else {
+                    throw new IOException(name + ":" + lineNumber + ": expected '<note> <ticks> <volume> <waveform>', 'rest <ticks>' or 'end'");
+                }
+                continue;
+            }
+            switch (parts[0]) {
+                case "tick":
+                    if (parts.length != 2) {
+                        throw new IOException(name + ":" + lineNumber + ": expected 'tick <ms>'");
+                    }
+                    try {
+                        tickMs = Double.parseDouble(parts[1]);
+                    } catch (NumberFormatException e) {
+                        throw new IOException(name + ":" + lineNumber + ": bad tick length '" + parts[1] + "'");
+                    }
+                    if (!(tickMs > 0) || Double.isInfinite(tickMs)) {
+                        throw new IOException(name + ":" + lineNumber + ": tick length must be a positive number");
+                    }
+                    break;
+                case "pattern":
+                    if (parts.length != 2) {
+                        throw new IOException(name + ":" + lineNumber + ": expected 'pattern <name>'");
+                    }
+                    currentPattern = new ArrayList<>();
+                    patterns.put(parts[1], currentPattern);
+                    break;
+                case "track":
+                    if (parts.length < 2) {
+                        throw new IOException(name + ":" + lineNumber + ": expected 'track <pattern> ...'");
+                    }
+                    trackLines.add(Arrays.copyOfRange(parts, 1, parts.length));
+                    break;
+                default:
+                    throw new IOException(name + ":" + lineNumber + ": unknown directive '" + parts[0] + "'");
+            }
+        }
+        if (currentPattern != null) {
+            throw new IOException(name + ": pattern without 'end'");
+        }
+        if (tickMs <= 0) {
+            throw new IOException(name + ": missing 'tick <ms>'");
+        }
+        if (trackLines.isEmpty()) {
+            throw new IOException(name + ": no tracks");
+        }
+
+        Track[] tracks = new Track[trackLines.size()];
+        for (int t = 0; t < tracks.length; t++) {
+            List<double[]> steps = new ArrayList<>();
+            List<Waveform> waveforms = new ArrayList<>();
+            long length = 0;
+            for (String patternName : trackLines.get(t)) {
+                List<String[]> pattern = patterns.get(patternName);
+                if (pattern == null) {
+                    throw new IOException(name + ": unknown pattern '" + patternName + "'");
+                }
+                for (String[] step : pattern) {
+                    try {
+                        if (step[0].equals("rest")) {
+                            steps.add(new double[] {REST, Integer.parseInt(step[1]), 0});
+                            waveforms.add(Waveform.SINE);
+                        } else {
+                            steps.add(new double[] {frequency(step[0]), Integer.parseInt(step[1]), Double.parseDouble(step[2])});
+                            waveforms.add(Waveform.valueOf(step[3].toUpperCase(Locale.ROOT)));
+                        }
+                    } catch (IllegalArgumentException e) {
+                        throw new IOException(name + ": bad step '" + String.join(" ", step) + "' in pattern '" + patternName + "'");
+                    }
+                    double[] parsed = steps.get(steps.size() - 1);
+                    if (!step[0].equals("rest") && !(parsed[0] >= MIN_FREQUENCY && parsed[0] <= MAX_FREQUENCY)) {
+                        throw new IOException(name + ": step '" + String.join(" ", step) + "' in pattern '" + patternName
+                                + "' is outside " + (int) MIN_FREQUENCY + " Hz to " + (int) MAX_FREQUENCY + " Hz");
+                    }
+                    if (!(parsed[2] >= 0 && parsed[2] <= 1)) {
+                        throw new IOException(name + ": step '" + String.join(" ", step) + "' in pattern '" + patternName
+                                + "' needs a volume from 0 to 1");
+                    }
+                    if (parsed[1] <= 0) {
+                        throw new IOException(name + ": step '" + String.join(" ", step) + "' in pattern '" + patternName + "' must last at least one tick");
+                    }
+                    length += (long) parsed[1];
+                }
+            }
+            if (length <= 0) {
+                throw new IOException(name + ": track " + (t + 1) + " has zero length");
+            }
+            tracks[t] = new Track(steps, waveforms);
+        }
+        return new Song(name, tickMs, tracks);
+    }
+
+    // Frequency of a note name (equal temperament, A4 = 440 Hz) or a plain number in Hz
+    static double frequency(String note) {
+        char letter = note.charAt(0);
+        int index = "CDEFGAB".indexOf(letter);
+        if (index < 0) {
+            return Double.parseDouble(note);
+        }
+        int semitone = new int[] {0, 2, 4, 5, 7, 9, 11}[index];
+        int pos = 1;
+        if (pos < note.length() && (note.charAt(pos) == '#' || note.charAt(pos) == 'b')) {
+            semitone += note.charAt(pos) == '#' ? 1 : -1;
+            pos++;
+        }
+        int octave = Integer.parseInt(note.substring(pos));
+        int midi = (octave + 1) * 12 + semitone;
+        return 440.0 * StrictMath.pow(2, (midi - 69) / 12.0);
+    }
+}
@@ -0,0 +1,168 @@
+package com.firesnake;
+
+import java.util.Random;
+
+// All sound effects, synthesized once into immutable mono 16-bit buffers at the mixer's
+// output rate and then only referenced by the mixer. Effects are looked up by
+// ID; per-play pitch and volume variation is applied by the mixer, never by re-synthesis.
+final class SoundBank {
+    // Mixer voice priorities (higher steals lower when all voices are busy)
+    static final int PRIORITY_LOW = 0;
+    static final int PRIORITY_MEDIUM = 1;
+    static final int PRIORITY_HIGH = 2;
+
+    enum Effect {
+        SHOOT(PRIORITY_LOW),
+        EXPLOSION(PRIORITY_MEDIUM),
+        HIT(PRIORITY_LOW),
+        POWER_UP(PRIORITY_MEDIUM),
+        SHRINK(PRIORITY_MEDIUM),
+        EAT(PRIORITY_LOW),
+        SPEED_UP(PRIORITY_MEDIUM),
+        GAME_OVER(PRIORITY_HIGH),
+        SESSION_RECORD(PRIORITY_HIGH),
+        GLOBAL_RECORD(PRIORITY_HIGH);
+
+        final int priority;
+
+        Effect(int priority) {
+            this.priority = priority;
+        }
+    }
+
+    private static final long NOISE_SEED = 0x5EED_F12EL; // Fixed so the bank is identical every run
+
+    private final short[][] sounds = new short[Effect.values().length][];
+    private final int sampleRate;
+
+    private SoundBank(int sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    short[] get(Effect effect) {
+        return sounds[effect.ordinal()];
+    }
+
+    static SoundBank build(int sampleRate) {
+        SoundBank bank = new SoundBank(sampleRate);
+        bank.synthesize();
+        return bank;
+    }
+
+    private void synthesize() {
+        Random noiseRandom = new Random(NOISE_SEED);
+
+        // Shooting sound - high-pitched sweep down
+        put(Effect.SHOOT, sweep(1200, 400, 80, 0.5));
+
+        // Explosion sound - noise burst with bass
+        short[] noise = noise(noiseRandom, 150, 0.6);
+        short[] bass = squareWave(80, 150, 0.4);
+        short[] explosion = new short[noise.length];
+        for (int i = 0; i < noise.length && i < bass.length; i++) {
+            explosion[i] = (short) ((noise[i] + bass[i]) / 2);
+        }
+        put(Effect.EXPLOSION, explosion);
+
+        // Collision/hit sound - short noise burst
+        put(Effect.HIT, noise(noiseRandom, 60, 0.4));
+
+        // Power-up sound (for slow/speed effects)
+        put(Effect.POWER_UP, sweep(300, 1000, 150, 0.4));
+
+        // Shrink sound - descending tone
+        put(Effect.SHRINK, sweep(800, 200, 200, 0.5));
+
+        // Food eaten sound - quick ascending blip
+        put(Effect.EAT, sweep(500, 900, 50, 0.3));
+
+        // Speed boost sound
+        put(Effect.SPEED_UP, sweep(400, 1500, 200, 0.4));
+
+        // Game over - descending tones
+        put(Effect.GAME_OVER, concat(
+                squareWave(400, 150, 0.5),
+                squareWave(300, 150, 0.5),
+                squareWave(200, 300, 0.5)));
+
+        // Session record - short ascending fanfare
+        put(Effect.SESSION_RECORD, concat(
+                squareWave(440.00, 80, 0.5),    // A4
+                squareWave(554.37, 80, 0.5),    // C#5
+                squareWave(659.25, 150, 0.55))); // E5
+
+        // Global record - epic triumphant fanfare (longer, more impressive)
+        put(Effect.GLOBAL_RECORD, concat(
+                squareWave(523.25, 100, 0.5),   // C5
+                squareWave(659.25, 100, 0.5),   // E5
+                squareWave(783.99, 100, 0.5),   // G5
+                new short[(int) (sampleRate * 0.05)], // Short pause
+                squareWave(783.99, 100, 0.55),  // G5
+                squareWave(880.00, 100, 0.55),  // A5
+                squareWave(1046.50, 400, 0.6))); // C6 (long final note)
+    }
+
+    private void put(Effect effect, short[] sound) {
+        sounds[effect.ordinal()] = sound;
+    }
+
+    // Square wave (classic 8-bit sound) with linear decay
+    private short[] squareWave(double frequency, int durationMs, double volume) {
+        int numSamples = (int) (sampleRate * durationMs / 1000.0);
+        short[] buffer = new short[numSamples];
+        double period = sampleRate / frequency;
+
+        for (int i = 0; i < numSamples; i++) {
+            double phase = (i % period) / period;
+            double value = phase < 0.5 ? volume : -volume;
+            double envelope = 1.0 - ((double) i / numSamples);
+            buffer[i] = (short) (value * envelope * Short.MAX_VALUE);
+        }
+        return buffer;
+    }
+
+    // White noise with a fast decay (explosions, hits)
+    private short[] noise(Random noiseRandom, int durationMs, double volume) {
+        int numSamples = (int) (sampleRate * durationMs / 1000.0);
+        short[] buffer = new short[numSamples];
+
+        for (int i = 0; i < numSamples; i++) {
+            double envelope = Math.sqrt(1.0 - ((double) i / numSamples));
+            double value = noiseRandom.nextDouble() * 2 - 1;
+            buffer[i] = (short) (value * volume * envelope * Short.MAX_VALUE);
+        }
+        return buffer;
+    }
+
+    // Square wave frequency sweep with linear decay (shots, power-ups)
+    private short[] sweep(double startFreq, double endFreq, int durationMs, double volume) {
+        int numSamples = (int) (sampleRate * durationMs / 1000.0);
+        short[] buffer = new short[numSamples];
+
+        double phase = 0;
+        for (int i = 0; i < numSamples; i++) {
+            double progress = (double) i / numSamples;
+            double currentFreq = startFreq + (endFreq - startFreq) * progress;
+            double envelope = 1.0 - progress;
+
+            phase += 2 * Math.PI * currentFreq / sampleRate;
+            double value = StrictMath.sin(phase) > 0 ? 1 : -1;
+            buffer[i] = (short) (value * volume * envelope * Short.MAX_VALUE);
+        }
+        return buffer;
+    }
+
+    private static short[] concat(short[]... parts) {
+        int length = 0;
+        for (short[] part : parts) {
+            length += part.length;
+        }
+        short[] result = new short[length];
+        int offset = 0;
+        for (short[] part : parts) {
+            System.arraycopy(part, 0, result, offset, part.length);
+            offset += part.length;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,57 @@
+package com.firesnake;
+
+import java.time.Instant;
+import java.util.Arrays;
+
+// Milestones of a cold start in ms since the JVM started, to track time to first frame.
+// Each milestone is recorded once, from whichever thread reaches it; once the first frame
+// is on screen and audio is ready the timeline is logged as one line on stderr.
+final class StartupTimeline {
+    enum Milestone {
+        MAIN("main"),               // main() entered (after JVM and class loading)
+        WINDOW("window"),           // Window made visible
+        FIRST_FRAME("first frame"), // First rendered frame blitted to the window
+        AUDIO_READY("audio ready"), // Mixer, music and sound effects running
+        JIT_WARM("jit warm");       // Hot methods compiled by C2 (only with JitWarmup)
+
+        final String label;
+
+        Milestone(String label) {
+            this.label = label;
+        }
+    }
+
+    private static final Milestone[] MILESTONES = Milestone.values();
+    private static final long JVM_START_MILLIS = ProcessHandle.current().info().startInstant()
+            .map(Instant::toEpochMilli).orElse(System.currentTimeMillis());
+    private static final long[] reached = new long[MILESTONES.length]; // ms since JVM start, -1 = not yet
+    private static boolean logged = false;
+
+    static {
+        Arrays.fill(reached, -1);
+    }
+
+    private StartupTimeline() {
+    }
+
+    static synchronized void mark(Milestone milestone) {
+        if (reached[milestone.ordinal()] >= 0) return;
+        reached[milestone.ordinal()] = Math.max(0, System.currentTimeMillis() - JVM_START_MILLIS);
+        if (!logged && reached[Milestone.FIRST_FRAME.ordinal()] >= 0 && reached[Milestone.AUDIO_READY.ordinal()] >= 0) {
+            logged = true;
+            StringBuilder line = new StringBuilder("Startup (ms since JVM start):");
+            for (Milestone m : MILESTONES) {
+                if (reached[m.ordinal()] >= 0) {
+                    line.append(' ').append(m.label).append(' ').append(reached[m.ordinal()]).append(',');
+                }
+            }
+            line.setLength(line.length() - 1);
+            System.err.println(line);
+        }
+    }
+
+    // ms since JVM start at which the milestone was reached, or -1
+    static synchronized long get(Milestone milestone) {
+        return reached[milestone.ordinal()];
+    }
+}
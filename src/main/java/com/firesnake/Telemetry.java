@@ -0,0 +1,268 @@
+package com.firesnake;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Gameplay telemetry journal: every meaningful event of a session in compact binary files.
+//
+// The game thread only copies an event's fields into a preallocated lock-free ring
+// (single producer, single consumer); it never allocates, locks or touches the disk. A
+// background writer drains the ring in batches into journal files that are rotated once
+// they reach a size limit; only the newest files in the directory are kept. If the writer
+// falls behind and the ring is full, new events are dropped and counted instead of stalling
+// the game. After a failed write the writer backs off (the events are drained and counted
+// but not written) instead of opening a new file for every batch. The number lost either
+// way is recorded as a DROPPED event, so gaps are visible in the journal. TelemetryReader
+// converts the files to CSV.
+//
+// File layout (big-endian): MAGIC, VERSION, seed, session start (epoch ms), file index,
+// then RECORD_SIZE-byte records: event, tick, time since session start (ms), code (Target
+// or Cause ordinal, -1 if none), size, value, length. See Event for what each field means.
+final class Telemetry {
+    static final int MAGIC = 0x46535446; // "FSTF"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 28;
+    static final int FIELDS = 7;
+    static final int RECORD_SIZE = FIELDS * 4;
+    private static final int CAPACITY = 1 << 14;     // Events in the ring, must be a power of two
+    private static final int BATCH_EVENTS = 1024;     // Events per file write
+    private static final long IDLE_PARK_NANOS = 200_000_000L;
+    private static final long FILE_BYTES = Math.max(4096, Long.getLong("firesnake.telemetryFileKb", 1024) * 1024);
+    // Journal files kept in the directory (oldest deleted first, across sessions)
+    private static final int MAX_FILES = Math.max(2, Integer.getInteger("firesnake.telemetryMaxFiles", 64));
+    private static final long MIN_BACKOFF_NANOS = 1_000_000_000L;
+    private static final long MAX_BACKOFF_NANOS = 60_000_000_000L;
+
+    enum Event {
+        START,    // A game started (length)
+        SHOT,     // value = bullets in flight, length
+        HIT,      // code = Target, size = grid size, value = points scored, length
+        FOOD,     // value = food timer left (ticks), length
+        POWER_UP, // code = Target (SLOW, SHRINK, SPEED), value = duration (ticks), length after
+        DEATH,    // code = Cause, value = score, length
+        TEMPO,    // value = tempo level, length
+        DROPPED   // value = events dropped because the ring was full or a write failed
+    }
+
+    // What was hit: the dangerous square targets by type, then the power-up targets
+    enum Target { COMMON, FAST, RARE, EPIC, LEGENDARY, SLOW, SHRINK, SPEED }
+
+    enum Cause { WALL, SELF, TARGET, FOOD_SHOT, FOOD_TIMEOUT, QUIT }
+
+    private final File directory;       // null = telemetry disabled
+    private final long seed;
+    private final long startMillis = System.currentTimeMillis();
+    private final long startNanos = System.nanoTime();
+
+    // Ring (game thread writes events and 'head', writer thread advances 'tail')
+    private final int[] ring;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long dropped = 0;  // Written by the game thread only
+    private Thread writer;
+
+    // Writer thread only
+    private final ByteBuffer batch = ByteBuffer.allocate(BATCH_EVENTS * RECORD_SIZE + RECORD_SIZE);
+    private long droppedWritten = 0;
+    private long lost = 0;            // Drained but not written (failed write or backing off)
+    private int writeFailures = 0;    // In a row
+    private long retryAt;             // System.nanoTime() before which nothing is written
+    private int lastTick = 0;
+    private FileChannel file;
+    private int fileIndex = 0;
+
+    // Journal into the directory, or a disabled journal that ignores all events if it is null
+    Telemetry(File directory, long seed) {
+        this.directory = directory;
+        this.seed = seed;
+        ring = directory != null ? new int[CAPACITY * FIELDS] : null;
+    }
+
+    boolean isEnabled() {
+        return ring != null;
+    }
+
+    // Events lost because the ring was full
+    long getDroppedEvents() {
+        return dropped;
+    }
+
+    void start(long tick, int length) {
+        push(Event.START, tick, -1, 0, 0, length);
+    }
+
+    void shot(long tick, int bulletsInFlight, int length) {
+        push(Event.SHOT, tick, -1, 0, bulletsInFlight, length);
+    }
+
+    void hit(long tick, Target target, int size, int points, int length) {
+        push(Event.HIT, tick, target.ordinal(), size, points, length);
+    }
+
+    void food(long tick, int foodTimerLeft, int length) {
+        push(Event.FOOD, tick, -1, 0, foodTimerLeft, length);
+    }
+
+    void powerUp(long tick, Target target, int duration, int length) {
+        push(Event.POWER_UP, tick, target.ordinal(), 0, duration, length);
+    }
+
+    void death(long tick, Cause cause, int score, int length) {
+        push(Event.DEATH, tick, cause.ordinal(), 0, score, length);
+    }
+
+    void tempo(long tick, int level, int length) {
+        push(Event.TEMPO, tick, -1, 0, level, length);
+    }
+
+    // Game thread: copy the event into the ring, or count it as dropped if the ring is full
+    private void push(Event event, long tick, int code, int size, int value, int length) {
+        if (ring == null) return;
+        long h = head.get();
+        long used = h - tail.get();
+        if (used >= CAPACITY) {
+            dropped++;
+            return;
+        }
+        int i = (int) (h & (CAPACITY - 1)) * FIELDS;
+        ring[i] = event.ordinal();
+        ring[i + 1] = (int) tick;
+        ring[i + 2] = (int) ((System.nanoTime() - startNanos) / 1_000_000);
+        ring[i + 3] = code;
+        ring[i + 4] = size;
+        ring[i + 5] = value;
+        ring[i + 6] = length;
+        head.lazySet(h + 1);
+        if (writer == null) {
+            startWriter();
+        } else if (used == CAPACITY / 2) {
+            LockSupport.unpark(writer); // Don't wait for the idle park when events pile up
+        }
+    }
+
+    private synchronized void startWriter() {
+        if (writer != null) return;
+        Thread thread = new Thread(() -> {
+            while (true) {
+                if (!drain()) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+            }
+        }, "telemetry-writer");
+        thread.setDaemon(true);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "telemetry-flush"));
+        writer = thread;
+        thread.start();
+    }
+
+    // Write everything still queued and close the current file (at exit)
+    private synchronized void flush() {
+        while (drain()) {
+            // Until the ring is empty
+        }
+        try {
+            if (file != null) {
+                file.force(false);
+                file.close();
+                file = null;
+            }
+        } catch (IOException e) {
+            // Best-effort
+        }
+    }
+
+    // Write one batch; false if there was nothing to write. Synchronized with flush().
+    private synchronized boolean drain() {
+        long t = tail.get();
+        int count = (int) Math.min(head.get() - t, BATCH_EVENTS);
+        long droppedNow = dropped;
+        boolean backingOff = writeFailures > 0 && System.nanoTime() - retryAt < 0;
+        if (count == 0 && (backingOff || (droppedNow == droppedWritten && lost == 0))) return false;
+        if (backingOff) {
+            // Keep the ring moving so the game doesn't drop events on top of it
+            tail.lazySet(t + count);
+            lost += count;
+            return true;
+        }
+
+        batch.clear();
+        for (int n = 0; n < count; n++) {
+            int i = (int) ((t + n) & (CAPACITY - 1)) * FIELDS;
+            for (int f = 0; f < FIELDS; f++) {
+                batch.putInt(ring[i + f]);
+            }
+            lastTick = ring[i + 1];
+        }
+        tail.lazySet(t + count);
+        long missing = droppedNow - droppedWritten + lost;
+        if (missing != 0) {
+            batch.putInt(Event.DROPPED.ordinal()).putInt(lastTick)
+                    .putInt((int) ((System.nanoTime() - startNanos) / 1_000_000))
+                    .putInt(-1).putInt(0).putInt((int) missing).putInt(0);
+        }
+        batch.flip();
+        try {
+            if (file == null || file.position() + batch.remaining() > FILE_BYTES) {
+                rotate();
+            }
+            while (batch.hasRemaining()) {
+                file.write(batch);
+            }
+            droppedWritten = droppedNow;
+            lost = 0;
+            writeFailures = 0;
+        } catch (IOException e) {
+            // Telemetry is best-effort: the batch is lost and counted, and writing pauses for
+            // a while (doubling with each failure in a row) before the next file is tried
+            closeQuietly();
+            lost += count;
+            retryAt = System.nanoTime() + Math.min(MAX_BACKOFF_NANOS, MIN_BACKOFF_NANOS << Math.min(writeFailures, 6));
+            writeFailures++;
+        }
+        return true;
+    }
+
+    // Close the current file and start the next one
+    private void rotate() throws IOException {
+        closeQuietly();
+        directory.mkdirs();
+        File next = new File(directory, String.format("telemetry-%d-%04d.bin", startMillis, fileIndex));
+        FileChannel channel = FileChannel.open(next.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).putLong(seed).putLong(startMillis).putInt(fileIndex).flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        file = channel;
+        fileIndex++;
+        pruneOldFiles();
+    }
+
+    // Delete the oldest journal files beyond MAX_FILES. Names sort by session start, then
+    // file index, so name order is age order.
+    private void pruneOldFiles() {
+        File[] files = directory.listFiles((dir, name) -> name.startsWith("telemetry-") && name.endsWith(".bin"));
+        if (files == null || files.length <= MAX_FILES) return;
+        Arrays.sort(files);
+        for (int i = 0; i < files.length - MAX_FILES; i++) {
+            files[i].delete(); // Best-effort; retried at the next rotation
+        }
+    }
+
+    private void closeQuietly() {
+        if (file == null) return;
+        try {
+            file.close();
+        } catch (IOException e) {
+            // Nothing left to save
+        }
+        file = null;
+    }
+}
@@ -0,0 +1,114 @@
+package com.firesnake;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Converts telemetry journal files (see Telemetry) to one CSV table for offline analysis.
+// Directories are expanded to the journal files they contain; files are read in name order,
+// which is session and rotation order. A truncated last record (the game was killed while
+// writing) is skipped.
+//
+// Usage: TelemetryReader <journal file or directory>... [--output <file.csv>]
+class TelemetryReader {
+    private static final Telemetry.Event[] EVENTS = Telemetry.Event.values();
+    private static final Telemetry.Target[] TARGETS = Telemetry.Target.values();
+    private static final Telemetry.Cause[] CAUSES = Telemetry.Cause.values();
+
+    // Writes the records of one journal file as CSV rows; returns the number of records
+    static long convert(File journal, PrintWriter out) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(journal), 1 << 16))) {
+            if (in.readInt() != Telemetry.MAGIC) {
+                throw new IOException(journal + " is not a telemetry journal");
+            }
+            int version = in.readInt();
+            if (version != Telemetry.VERSION) {
+                throw new IOException(journal + ": unsupported journal version " + version);
+            }
+            long seed = in.readLong();
+            long startMillis = in.readLong();
+            in.readInt(); // File index
+
+            byte[] record = new byte[Telemetry.RECORD_SIZE];
+            DataInputStream fields = new DataInputStream(new ByteArrayInputStream(record));
+            long records = 0;
+            while (in.readNBytes(record, 0, record.length) == record.length) {
+                fields.reset();
+                int event = fields.readInt();
+                int tick = fields.readInt();
+                int timeMs = fields.readInt();
+                int code = fields.readInt();
+                int size = fields.readInt();
+                int value = fields.readInt();
+                int length = fields.readInt();
+                if (event < 0 || event >= EVENTS.length) continue;
+
+                Telemetry.Event kind = EVENTS[event];
+                String target = "";
+                String cause = "";
+                if ((kind == Telemetry.Event.HIT || kind == Telemetry.Event.POWER_UP) && code >= 0 && code < TARGETS.length) {
+                    target = TARGETS[code].name();
+                } else if (kind == Telemetry.Event.DEATH && code >= 0 && code < CAUSES.length) {
+                    cause = CAUSES[code].name();
+                }
+                out.print(seed);
+                out.print(',');
+                out.print(startMillis + timeMs);
+                out.print(',');
+                out.print(tick);
+                out.print(',');
+                out.print(kind.name());
+                out.print(',');
+                out.print(target);
+                out.print(',');
+                out.print(cause);
+                out.print(',');
+                out.print(size);
+                out.print(',');
+                out.print(value);
+                out.print(',');
+                out.println(length);
+                records++;
+            }
+            return records;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        List<File> journals = new ArrayList<>();
+        File output = null;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--output") && i + 1 < args.length) {
+                output = new File(args[++i]);
+            } else {
+                File file = new File(args[i]);
+                File[] files = file.isDirectory()
+                        ? file.listFiles((dir, name) -> name.startsWith("telemetry-") && name.endsWith(".bin"))
+                        : new File[] {file};
+                if (files != null) {
+                    Arrays.sort(files);
+                    journals.addAll(Arrays.asList(files));
+                }
+            }
+        }
+        if (journals.isEmpty()) {
+            System.err.println("Usage: TelemetryReader <journal file or directory>... [--output <file.csv>]");
+            System.exit(2);
+        }
+
+        OutputStream stream = output != null ? new FileOutputStream(output) : System.out;
+        PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), 1 << 16));
+        out.println("seed,time_ms,tick,event,target,cause,size,value,length");
+        long records = 0;
+        for (File journal : journals) {
+            records += convert(journal, out);
+        }
+        out.flush();
+        if (output != null) {
+            out.close();
+            System.err.printf("Converted %d events from %d files to %s%n", records, journals.size(), output);
+        }
+    }
+}
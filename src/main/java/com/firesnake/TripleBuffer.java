@@ -0,0 +1,51 @@
+package com.firesnake;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Lock-free single-producer / single-consumer triple buffer.
+// The producer always owns back(), the consumer always owns front(); the third buffer sits in
+// the middle slot and is exchanged with one atomic swap. The producer never waits for the
+// consumer and the consumer always sees the newest complete buffer (older ones are skipped).
+final class TripleBuffer<T> {
+    private static final int INDEX_MASK = 0b011;
+    private static final int FRESH = 0b100; // Middle slot holds a buffer the consumer has not seen yet
+
+    private final Object[] buffers = new Object[3];
+    private final AtomicInteger middle = new AtomicInteger(1);
+    private int back = 0;   // Producer-owned
+    private int front = 2;  // Consumer-owned
+
+    TripleBuffer(Supplier<T> factory) {
+        for (int i = 0; i < 3; i++) {
+            buffers[i] = factory.get();
+        }
+    }
+
+    // Producer side: the buffer to fill next
+    @SuppressWarnings("unchecked")
+    T back() {
+        return (T) buffers[back];
+    }
+
+    // Producer side: hand back() to the consumer and take the middle buffer for the next fill
+    void publish() {
+        back = middle.getAndSet(back | FRESH) & INDEX_MASK;
+    }
+
+    // Consumer side: switch front() to the newest published buffer.
+    // Returns false (and keeps the current front) if nothing new was published.
+    boolean update() {
+        if ((middle.get() & FRESH) == 0) {
+            return false;
+        }
+        front = middle.getAndSet(front) & INDEX_MASK;
+        return true;
+    }
+
+    // Consumer side: the buffer most recently taken by update()
+    @SuppressWarnings("unchecked")
+    T front() {
+        return (T) buffers[front];
+    }
+}
@@ -0,0 +1,87 @@
+package com.firesnake;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+
+// Minimal WAV (RIFF) writer for 16-bit PCM. Doesn't use javax.sound, so it works on machines
+// without any audio support. The RIFF and data sizes are patched in close().
+class WavWriter implements Closeable {
+    private static final int HEADER_SIZE = 44;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+    private long dataLength = 0;
+
+    WavWriter(Path path, int sampleRate, int channels) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        ByteBuffer b = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        fourcc(b, "RIFF");
+        b.putInt(0);                             // RIFF size (patched)
+        fourcc(b, "WAVE");
+        fourcc(b, "fmt ");
+        b.putInt(16);
+        b.putShort((short) 1);                   // PCM
+        b.putShort((short) channels);
+        b.putInt(sampleRate);
+        b.putInt(sampleRate * channels * 2);     // Bytes per second
+        b.putShort((short) (channels * 2));      // Block align
+        b.putShort((short) 16);                  // Bits per sample
+        fourcc(b, "data");
+        b.putInt(0);                             // Data size (patched)
+        b.flip();
+        channel.write(b);
+    }
+
+    // Append 16-bit little-endian samples (interleaved if there are several channels)
+    void write(byte[] data, int offset, int length) throws IOException {
+        while (length > 0) {
+            int n = Math.min(length, buffer.remaining());
+            buffer.put(data, offset, n);
+            offset += n;
+            length -= n;
+            dataLength += n;
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+        }
+    }
+
+    long getDataLength() {
+        return dataLength;
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+            patchInt(4, (int) (HEADER_SIZE - 8 + dataLength));
+            patchInt(40, (int) dataLength);
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void patchInt(long position, int value) throws IOException {
+        ByteBuffer b = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+        b.putInt(value).flip();
+        channel.write(b, position);
+    }
+
+    private static void fourcc(ByteBuffer b, String code) {
+        for (int i = 0; i < 4; i++) {
+            b.put((byte) code.charAt(i));
+        }
+    }
+}
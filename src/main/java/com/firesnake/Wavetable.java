@@ -0,0 +1,97 @@
+package com.firesnake;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Band-limited single-cycle wavetables for the music synthesizer.
+// Every waveform has one table per octave that only contains the harmonics staying below
+// Nyquist (at the output sample rate) for the highest fundamental of that octave, so square
+// and pulse notes don't alias the way naively sampled waveforms do. Tables are built once per
+// sample rate by additive synthesis and shared; oscillators read them with a phase accumulator and linear interpolation.
+// Synthesis uses StrictMath so the tables, and with them offline audio renders, are
+// bit-identical on every JVM.
+final class Wavetable {
+    enum Waveform { SQUARE, TRIANGLE, PULSE25, SINE }
+
+    static final int SIZE = 2048; // Samples per cycle (power of two)
+    private static final double LOWEST_FREQUENCY = 27.5; // A0; octave k covers [27.5 * 2^k, 27.5 * 2^(k+1))
+    private static final int OCTAVES = 10;
+
+    // Tables of every waveform by sample rate (there is normally only the output rate)
+    private static final Map<Integer, Wavetable[]> TABLES = new HashMap<>();
+
+    // One table per octave, SIZE + 1 entries (the last repeats the first for interpolation)
+    private final float[][] octaves = new float[OCTAVES][];
+
+    static synchronized Wavetable of(Waveform waveform, int sampleRate) {
+        Wavetable[] tables = TABLES.get(sampleRate);
+        if (tables == null) {
+            tables = new Wavetable[Waveform.values().length];
+            for (Waveform w : Waveform.values()) {
+                tables[w.ordinal()] = new Wavetable(w, sampleRate);
+            }
+            TABLES.put(sampleRate, tables);
+        }
+        return tables[waveform.ordinal()];
+    }
+
+    // Table whose harmonics are all below Nyquist for the given fundamental
+    float[] forFrequency(double frequency) {
+        int octave = (int) Math.floor(StrictMath.log(frequency / LOWEST_FREQUENCY) / StrictMath.log(2));
+        return octaves[Math.max(0, Math.min(OCTAVES - 1, octave))];
+    }
+
+    private Wavetable(Waveform waveform, int sampleRate) {
+        // Fourier series: value(p) = sum over h of a[h] cos(2 pi h p) + b[h] sin(2 pi h p)
+        int maxHarmonic = SIZE / 2 - 1;
+        double[] a = new double[maxHarmonic + 1];
+        double[] b = new double[maxHarmonic + 1];
+        switch (waveform) {
+            case SQUARE:
+                pulseSeries(a, b, 0.5, 0.7); // Softened square as in the original synth
+                break;
+            case PULSE25:
+                pulseSeries(a, b, 0.25, 0.6);
+                break;
+            case TRIANGLE:
+                // -1 at phase 0, +1 at phase 0.5
+                for (int h = 1; h <= maxHarmonic; h += 2) {
+                    a[h] = -8 / (Math.PI * Math.PI * h * h);
+                }
+                break;
+            default:
+                b[1] = 1;
+        }
+
+        double[] cos = new double[SIZE];
+        double[] sin = new double[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            cos[i] = StrictMath.cos(2 * Math.PI * i / SIZE);
+            sin[i] = StrictMath.sin(2 * Math.PI * i / SIZE);
+        }
+
+        for (int octave = 0; octave < OCTAVES; octave++) {
+            double highestFundamental = LOWEST_FREQUENCY * (2 << octave);
+            int harmonics = Math.max(1, Math.min(maxHarmonic, (int) (sampleRate / 2 / highestFundamental)));
+            float[] table = new float[SIZE + 1];
+            for (int h = 1; h <= harmonics; h++) {
+                if (a[h] == 0 && b[h] == 0) continue;
+                for (int i = 0; i < SIZE; i++) {
+                    int index = (int) ((long) h * i & (SIZE - 1));
+                    table[i] += (float) (a[h] * cos[index] + b[h] * sin[index]);
+                }
+            }
+            table[SIZE] = table[0];
+            octaves[octave] = table;
+        }
+    }
+
+    // Pulse wave of the given duty cycle (+1 for the first part of the cycle, -1 after),
+    // without its DC offset
+    private static void pulseSeries(double[] a, double[] b, double duty, double amplitude) {
+        for (int h = 1; h < a.length; h++) {
+            a[h] = amplitude * 2 * StrictMath.sin(2 * Math.PI * h * duty) / (Math.PI * h);
+            b[h] = amplitude * 2 * (1 - StrictMath.cos(2 * Math.PI * h * duty)) / (Math.PI * h);
+        }
+    }
+}